@@ -0,0 +1,107 @@
+package com.riskengine.loadtest;
+
+import com.riskengine.util.HostParser;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Time and bytes allocated per {@link HostParser#host} call on common and adversarial inputs,
+ * after checking a table of expected hosts. Common: a few dozen referrers and origins repeated,
+ * as real traffic is. Adversarial: unique paths on one host, unique mixed-case hosts (every call
+ * misses the cache), unique internationalized hosts (IDNA on every call), long userinfo and
+ * 4 KB URLs. Allocation comes from HotSpot's per-thread counter, as in {@link SignalAllocationProbe}.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.mainClass=com.riskengine.loadtest.HostParserBenchmark -Dexec.args="--iterations=2000000"
+ * </pre>
+ */
+public final class HostParserBenchmark {
+
+    private static final String[][] EXPECTED = {
+            {"https://www.google.com/search?q=login", "www.google.com"},
+            {"https://WWW.Example.COM.:443/a", "www.example.com"},
+            {"//cdn.example.com/x.js", "cdn.example.com"},
+            {"example.com/path", "example.com"},
+            {"localhost:8080", "localhost"},
+            {"https://user:pa:ss@bank.example/login", "bank.example"},
+            {"http://[2001:db8::1]:8080/", "2001:db8::1"},
+            {"https://bücher.example/", "xn--bcher-kva.example"},
+            {"http://:8080", null},
+            {"http://:8080/path", null},
+            {"http://user@:8080", null},
+            {"https://", null},
+            {"http://[::1", null},
+            {"  https://padded.example  ", "padded.example"},
+    };
+
+    private HostParserBenchmark() {}
+
+    public static void main(String[] args) {
+        int iterations = 1_000_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+        }
+        for (String[] c : EXPECTED) {
+            String actual = HostParser.host(c[0]);
+            if (!Objects.equals(actual, c[1])) {
+                throw new IllegalStateException("host(" + c[0] + ") = " + actual + ", expected " + c[1]);
+            }
+        }
+        System.out.println("Host table OK (" + EXPECTED.length + " cases)");
+
+        Random random = new Random(42);
+        Map<String, List<String>> sets = new LinkedHashMap<>();
+        List<String> common = new ArrayList<>();
+        String[] hosts = {"www.google.com", "www.bing.com", "login.example.com", "intranet.example.com", "t.co",
+                "l.facebook.com", "mail.example.org", "Portal.Example.com"};
+        for (String host : hosts) {
+            common.add("https://" + host + "/");
+            common.add("https://" + host + "/search?q=sign+in&src=hp");
+            common.add("https://" + host);
+        }
+        sets.put("common (repeated referrers/origins)", common);
+        sets.put("unique paths, one host", generate(65_536, i -> "https://www.google.com/search?q=" + Long.toHexString(random.nextLong())));
+        sets.put("unique mixed-case hosts", generate(65_536, i -> "https://H" + Long.toHexString(random.nextLong()) + ".Example.com/"));
+        sets.put("unique IDN hosts", generate(4_096, i -> "https://bücher-" + Integer.toHexString(random.nextInt()) + ".example/"));
+        sets.put("long userinfo", generate(1_024, i -> "https://" + "a:b@".repeat(64) + "x" + i + ".example/"));
+        sets.put("4 KB URLs", generate(256, i -> "https://example.com/" + "p".repeat(4_096) + i));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().threadId();
+        for (Map.Entry<String, List<String>> set : sets.entrySet()) {
+            List<String> inputs = set.getValue();
+            int n = set.getKey().startsWith("unique IDN") ? Math.max(1, iterations / 20) : iterations;
+            run(inputs, Math.min(n, 200_000));
+            long bytesBefore = threads.getThreadAllocatedBytes(tid);
+            long start = System.nanoTime();
+            long sink = run(inputs, n);
+            long elapsed = System.nanoTime() - start;
+            long bytes = threads.getThreadAllocatedBytes(tid) - bytesBefore;
+            System.out.printf(Locale.ROOT, "%-38s %9.1f ns/op %8.1f B/op  (%d inputs, %d ops, sink %d)%n",
+                    set.getKey(), (double) elapsed / n, (double) bytes / n, inputs.size(), n, sink);
+        }
+    }
+
+    private static long run(List<String> inputs, int n) {
+        long sink = 0;
+        int size = inputs.size();
+        for (int i = 0; i < n; i++) {
+            String host = HostParser.host(inputs.get(i % size));
+            if (host != null) sink += host.length();
+        }
+        return sink;
+    }
+
+    private static List<String> generate(int count, java.util.function.IntFunction<String> factory) {
+        List<String> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(factory.apply(i));
+        return out;
+    }
+}
@@ -0,0 +1,98 @@
+package com.riskengine.loadtest;
+
+import com.riskengine.util.EvaluationEvent;
+import com.riskengine.util.StageEvent;
+import jdk.jfr.Recording;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cost of the pipeline's JFR instrumentation per evaluation: one {@link EvaluationEvent} around
+ * seven {@link StageEvent}s (map, normalize, signature, link_graph, baseline, score, persist),
+ * wrapped around a small fixed amount of work, compared with the bare work. Measured with no
+ * recording (the production default), with a recording whose thresholds nothing crosses, and with
+ * thresholds of zero (every event written: the worst case, not a recommended setting).
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.mainClass=com.riskengine.loadtest.JfrOverheadProbe -Dexec.args="--iterations=2000000"
+ * </pre>
+ */
+public final class JfrOverheadProbe {
+
+    private static final String[] STAGES = {"map", "normalize", "signature", "link_graph", "baseline", "score", "persist"};
+
+    private JfrOverheadProbe() {}
+
+    public static void main(String[] args) {
+        int iterations = 2_000_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+        }
+        for (int round = 0; round < 3; round++) {
+            measure(null, false, iterations / 4);
+            measure(null, true, iterations / 4);
+        }
+        double bare = measure("bare work", false, iterations);
+        report("recording off", measure(null, true, iterations), bare);
+        Recording thresholded = recording(Duration.ofMillis(10));
+        try {
+            measure(null, true, iterations / 4);
+            report("recording on, 10 ms threshold", measure(null, true, iterations), bare);
+        } finally {
+            thresholded.close();
+        }
+        Recording everyEvent = recording(Duration.ZERO);
+        try {
+            measure(null, true, iterations / 4);
+            report("recording on, every event", measure(null, true, iterations), bare);
+        } finally {
+            everyEvent.close();
+        }
+    }
+
+    private static Recording recording(Duration threshold) {
+        Recording recording = new Recording();
+        recording.enable(EvaluationEvent.class).withThreshold(threshold);
+        recording.enable(StageEvent.class).withThreshold(threshold);
+        recording.setToDisk(true);
+        recording.start();
+        return recording;
+    }
+
+    private static double measure(String label, boolean instrumented, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (!instrumented) {
+                for (String stage : STAGES) sink += work(stage, i);
+                continue;
+            }
+            EvaluationEvent evaluation = EvaluationEvent.start();
+            for (String stage : STAGES) {
+                StageEvent event = StageEvent.start(stage);
+                sink += work(stage, i);
+                event.end("OK");
+            }
+            evaluation.end();
+            if (evaluation.shouldCommit()) {
+                evaluation.commit("s-" + (i & 1023), "ALLOW", (int) (sink & 63), List.of(), false, List.of());
+            }
+        }
+        double nanos = (double) (System.nanoTime() - start) / iterations;
+        if (label != null) System.out.printf(Locale.ROOT, "%-32s %8.1f ns/eval (checksum %d)%n", label, nanos, sink);
+        return nanos;
+    }
+
+    private static void report(String label, double nanos, double bare) {
+        System.out.printf(Locale.ROOT, "%-32s %8.1f ns/eval, +%.1f ns for 8 events%n", label, nanos, nanos - bare);
+    }
+
+    /** Stand-in for a stage: a short hash over the stage name. */
+    private static long work(String stage, int i) {
+        long h = i;
+        for (int k = 0; k < stage.length(); k++) h = h * 31 + stage.charAt(k);
+        return h ^ (h >>> 17);
+    }
+}
@@ -0,0 +1,305 @@
+package com.riskengine.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.RiskEngineApplication;
+import com.riskengine.util.SessionTokenCodec;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for {@code /risk/collect} and {@code /login}.
+ *
+ * Arrivals follow a Poisson process at {@code --rate} requests/s independent of response times, so
+ * a slow server builds a queue instead of slowing the generator down. Latency is measured from each
+ * request's intended start time (not the moment it was actually sent), which keeps coordinated
+ * omission out of the percentiles. Results go into HdrHistogram recorders per endpoint; a line is
+ * printed every {@code --report-interval-s} and a percentile summary at the end (optionally also
+ * an .hlog file for HistogramLogAnalyzer / HdrHistogram plotters).
+ *
+ * Without {@code --target} the engine is started in this JVM with the {@code loadtest} Spring
+ * profile (H2 in memory, phishing feed matching {@link PayloadFactory#PHISHING_HOSTS}), so no
+ * external database is needed. Generator and server then share CPU; use {@code --target} against a
+ * separately started server for cleaner numbers. Collect bodies carry session tokens signed with
+ * {@code --session-key} ({@code kid:base64key}); the in-process engine is started with that key, and a
+ * remote target must have it in {@code risk.engine.session.keys}.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.args="--rate=500 --duration-s=60"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    /** Fixed test key shared by the generator and the in-process engine; never use it in production. */
+    private static final String DEFAULT_SESSION_KEY = "lt:bG9hZHRlc3Qtc2Vzc2lvbi1rZXktMDEyMzQ1Njc4OWFi";
+    private static final List<String> OUTCOMES = List.of("ALLOW", "MFA", "TERMINATE", "degraded", "suspiciousReferrer");
+
+    private final Options options;
+    private final URI base;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Endpoint collect = new Endpoint("collect");
+    private final Endpoint login = new Endpoint("login");
+    private volatile boolean measuring;
+
+    private LoadGenerator(Options options, URI base) {
+        this.options = options;
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext server = null;
+        URI base;
+        if (options.target() != null) {
+            base = URI.create(options.target());
+        } else {
+            server = startInProcess(options.sessionKey());
+            base = URI.create("http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort());
+        }
+        try {
+            new LoadGenerator(options, base).run();
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startInProcess(String sessionKey) throws IOException {
+        Path feed = Files.createTempFile("loadtest-phishing", ".txt");
+        Files.write(feed, PayloadFactory.PHISHING_HOSTS);
+        feed.toFile().deleteOnExit();
+        // Command-line args, not builder properties: those are only defaults and application.properties wins
+        return new SpringApplicationBuilder(RiskEngineApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0", "--risk.engine.reputation.feeds=PHISHING=" + feed,
+                        "--risk.engine.session.keys=" + sessionKey);
+    }
+
+    private void run() throws Exception {
+        System.out.printf(Locale.ROOT, "target=%s rate=%.0f/s warmup=%ds duration=%ds login-share=%.2f bot-share=%.2f phishing-share=%.2f users=%d%n",
+                base, options.rate(), options.warmupS(), options.durationS(), options.loginShare(),
+                options.botShare(), options.phishingShare(), options.users());
+        HistogramLogWriter hlog = null;
+        if (options.hlog() != null) {
+            hlog = new HistogramLogWriter(new File(options.hlog()));
+            hlog.outputLogFormatVersion();
+            hlog.outputStartTime(System.currentTimeMillis());
+            hlog.setBaseTime(System.currentTimeMillis());
+            hlog.outputLegend();
+        }
+
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long startNanos = System.nanoTime();
+        HistogramLogWriter log = hlog;
+        reporter.scheduleAtFixedRate(() -> report(startNanos, log), options.reportIntervalS(),
+                options.reportIntervalS(), TimeUnit.SECONDS);
+
+        schedule(client, startNanos);
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutS());
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        reporter.shutdown();
+        reporter.awaitTermination(options.reportIntervalS() + 1L, TimeUnit.SECONDS);
+        report(startNanos, hlog);
+        if (hlog != null) hlog.close();
+        httpExecutor.shutdownNow();
+
+        summary(System.out);
+    }
+
+    /** Poisson arrivals until warm-up + duration have elapsed. */
+    private void schedule(HttpClient client, long startNanos) throws IOException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        PayloadFactory payloads = new PayloadFactory(options.seed(), options.users(), options.botShare(),
+                options.phishingShare(), sessionTokenCodec(options.sessionKey()));
+        long warmupEnd = startNanos + TimeUnit.SECONDS.toNanos(options.warmupS());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationS());
+        double meanGapNanos = 1e9 / options.rate();
+        double offset = 0;
+        while (true) {
+            offset += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+            long intended = startNanos + (long) offset;
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            if (!measuring && intended >= warmupEnd) measuring = true;
+
+            boolean isLogin = random.nextDouble() < options.loginShare();
+            Endpoint endpoint = isLogin ? login : collect;
+            if (inFlight.get() >= options.maxInFlight()) {
+                endpoint.clientDropped.increment();
+                continue;
+            }
+            PayloadFactory.Payload payload = isLogin ? payloads.login() : payloads.collect();
+            HttpRequest request = HttpRequest.newBuilder(base.resolve(isLogin ? "/login" : "/risk/collect"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(options.timeoutS()))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload.body())))
+                    .build();
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long micros = (System.nanoTime() - intended) / 1000;
+                inFlight.decrementAndGet();
+                if (error != null || response.statusCode() >= 300) {
+                    endpoint.errors.increment();
+                } else {
+                    endpoint.recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    endpoint.countOutcomes(response.body());
+                }
+            });
+        }
+    }
+
+    private synchronized void report(long startNanos, HistogramLogWriter hlog) {
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%7.1fs %s in-flight=%d",
+                elapsed, measuring ? "measure" : "warmup ", inFlight.get()));
+        for (Endpoint e : List.of(collect, login)) {
+            e.interval = e.recorder.getIntervalHistogram(e.interval);
+            long errors = e.errors.sumThenReset();
+            long dropped = e.clientDropped.sumThenReset();
+            if (measuring) {
+                e.total.add(e.interval);
+                e.totalErrors += errors;
+                e.totalDropped += dropped;
+                if (hlog != null) {
+                    e.interval.setTag(e.name);
+                    hlog.outputIntervalHistogram(e.interval);
+                }
+            }
+            double seconds = Math.max(1e-9, (e.interval.getEndTimeStamp() - e.interval.getStartTimeStamp()) / 1000.0);
+            line.append(String.format(Locale.ROOT, " | %s %6.0f/s p50=%.2fms p99=%.2fms max=%.2fms err=%d drop=%d",
+                    e.name, e.interval.getTotalCount() / seconds, ms(e.interval.getValueAtPercentile(50)),
+                    ms(e.interval.getValueAtPercentile(99)), ms(e.interval.getMaxValue()), errors, dropped));
+        }
+        System.out.println(line);
+    }
+
+    private void summary(PrintStream out) {
+        out.println();
+        out.printf(Locale.ROOT, "=== Summary (%ds measured, offered %.0f req/s) ===%n", options.durationS(), options.rate());
+        for (Endpoint e : List.of(collect, login)) {
+            Histogram h = e.total;
+            out.printf(Locale.ROOT, "%-8s ok=%d (%.1f/s) errors=%d client-dropped=%d%n", e.name, h.getTotalCount(),
+                    h.getTotalCount() / (double) options.durationS(), e.totalErrors, e.totalDropped);
+            if (h.getTotalCount() == 0) continue;
+            out.printf(Locale.ROOT, "         p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms p99.99=%.2fms max=%.2fms%n",
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getValueAtPercentile(99.99)), ms(h.getMaxValue()));
+            StringBuilder outcomes = new StringBuilder("         outcomes:");
+            for (String o : OUTCOMES) {
+                long n = e.outcomes.get(o).sum();
+                if (n > 0) outcomes.append(' ').append(o).append('=').append(n);
+            }
+            out.println(outcomes);
+            if (options.verbose()) h.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder clientDropped = new LongAdder();
+        final Map<String, LongAdder> outcomes = new HashMap<>();
+        Histogram interval;
+        long totalErrors;
+        long totalDropped;
+
+        Endpoint(String name) {
+            this.name = name;
+            for (String o : OUTCOMES) outcomes.put(o, new LongAdder());
+            this.interval = recorder.getIntervalHistogram();
+        }
+
+        /** Cheap substring checks on the JSON body; counted over the whole run including warm-up. */
+        void countOutcomes(String body) {
+            if (body.contains("\"decision\":\"ALLOW\"")) outcomes.get("ALLOW").increment();
+            else if (body.contains("\"decision\":\"MFA\"")) outcomes.get("MFA").increment();
+            else if (body.contains("\"decision\":\"TERMINATE\"")) outcomes.get("TERMINATE").increment();
+            if (body.contains("\"degraded\":true")) outcomes.get("degraded").increment();
+            if (body.contains("\"suspiciousReferrer\":true")) outcomes.get("suspiciousReferrer").increment();
+        }
+    }
+
+    private static SessionTokenCodec sessionTokenCodec(String sessionKey) {
+        int colon = sessionKey.indexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("--session-key must be kid:base64key");
+        return new SessionTokenCodec(sessionKey.substring(0, colon), Base64.getDecoder().decode(sessionKey.substring(colon + 1)));
+    }
+
+    record Options(String target, double rate, int warmupS, int durationS, double loginShare, double botShare,
+                   double phishingShare, int users, int maxInFlight, int timeoutS, int reportIntervalS, long seed,
+                   String hlog, boolean verbose, String sessionKey) {
+
+        static Options parse(String[] args) {
+            Map<String, String> a = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) throw new IllegalArgumentException("unexpected argument: " + arg);
+                int eq = arg.indexOf('=');
+                a.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+            }
+            Options o = new Options(
+                    a.get("target"),
+                    Double.parseDouble(a.getOrDefault("rate", "200")),
+                    Integer.parseInt(a.getOrDefault("warmup-s", "10")),
+                    Integer.parseInt(a.getOrDefault("duration-s", "60")),
+                    Double.parseDouble(a.getOrDefault("login-share", "0.1")),
+                    Double.parseDouble(a.getOrDefault("bot-share", "0.05")),
+                    Double.parseDouble(a.getOrDefault("phishing-share", "0.02")),
+                    Integer.parseInt(a.getOrDefault("users", "10000")),
+                    Integer.parseInt(a.getOrDefault("max-in-flight", "5000")),
+                    Integer.parseInt(a.getOrDefault("timeout-s", "10")),
+                    Integer.parseInt(a.getOrDefault("report-interval-s", "1")),
+                    Long.parseLong(a.getOrDefault("seed", "42")),
+                    a.get("hlog"),
+                    Boolean.parseBoolean(a.getOrDefault("verbose", "false")),
+                    a.getOrDefault("session-key", DEFAULT_SESSION_KEY));
+            if (o.rate <= 0 || o.durationS <= 0 || o.users <= 0) {
+                throw new IllegalArgumentException("rate, duration-s and users must be positive");
+            }
+            return o;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.riskengine.loadtest;
+
+import com.riskengine.util.HashUtil;
+import com.riskengine.util.SessionTokenCodec;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Synthesizes {@code /risk/collect} and {@code /login} bodies with the same shape risk-agent.js sends
+ * (stage1 / stage2 / stage3 / iframeSignals). Traffic comes from a fixed population of users:
+ * <ul>
+ *   <li>humans: one or two stable devices per user (UA, screen, timezone, fingerprint hashes derived
+ *       from the user index), with an occasional new device or travel timezone</li>
+ *   <li>bots ({@code botShare}): headless or stealth automation on a small shared pool of farm
+ *       fingerprints, so many accounts link to the same devices</li>
+ *   <li>phishing ({@code phishingShare}): referrer and page origin on {@link #PHISHING_HOSTS} with
+ *       hidden cross-origin iframes</li>
+ * </ul>
+ * With a {@link SessionTokenCodec} each collect body carries a {@code sessionToken} for its session,
+ * as if the user had logged in with the engine's key. Not thread-safe; the generator calls it from its single scheduling thread.
+ */
+final class PayloadFactory {
+
+    static final List<String> PHISHING_HOSTS = List.of(
+            "secure-login-verify.example-phish.test",
+            "account-update.bank-alerts.test",
+            "signin.micros0ft-support.test");
+
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:125.0) Gecko/20100101 Firefox/125.0",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36 Edg/124.0.0.0"
+    };
+    private static final String HEADLESS_UA =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) HeadlessChrome/124.0.0.0 Safari/537.36";
+    private static final int[][] SCREENS = {{1920, 1080}, {2560, 1440}, {1440, 900}, {1536, 864}, {390, 844}, {412, 915}};
+    private static final String[] TIMEZONES = {
+            "America/New_York", "America/Chicago", "America/Los_Angeles", "Europe/London", "Europe/Berlin", "Asia/Kolkata"};
+    private static final String ORG_ORIGIN = "http://localhost:8080";
+    private static final int BOT_FARM_DEVICES = 20;
+
+    /** What a generated request is meant to look like; used to tag results. */
+    enum Kind { HUMAN, BOT, PHISHING }
+
+    record Payload(Kind kind, Map<String, Object> body) {}
+
+    private final SplittableRandom random;
+    private final int users;
+    private final double botShare;
+    private final double phishingShare;
+    private final int[] sessionCounter;
+    private final SessionTokenCodec tokens;
+
+    /** {@code tokens} signs a session token into each collect body; null leaves tokens out. */
+    PayloadFactory(long seed, int users, double botShare, double phishingShare, SessionTokenCodec tokens) {
+        this.random = new SplittableRandom(seed);
+        this.users = users;
+        this.botShare = botShare;
+        this.phishingShare = phishingShare;
+        this.sessionCounter = new int[users];
+        this.tokens = tokens;
+    }
+
+    Payload collect() {
+        int user = random.nextInt(users);
+        // About half of page loads start a new session; the rest repeat within the current one.
+        if (random.nextBoolean()) sessionCounter[user]++;
+        double roll = random.nextDouble();
+        Kind kind = roll < botShare ? Kind.BOT : roll < botShare + phishingShare ? Kind.PHISHING : Kind.HUMAN;
+
+        int device = kind == Kind.BOT ? random.nextInt(BOT_FARM_DEVICES)
+                : (user % 3 == 0 ? user * 2 + random.nextInt(2) : user * 2);
+        if (kind == Kind.HUMAN && random.nextInt(50) == 0) device = users * 2 + random.nextInt(users); // new device
+        String timezone = TIMEZONES[(user + (random.nextInt(50) == 0 ? 1 : 0)) % TIMEZONES.length];
+        int[] screen = SCREENS[device % SCREENS.length];
+
+        Map<String, Object> stage1 = new LinkedHashMap<>();
+        stage1.put("userAgent", kind == Kind.BOT && random.nextBoolean() ? HEADLESS_UA : USER_AGENTS[device % USER_AGENTS.length]);
+        stage1.put("platform", "Win32");
+        stage1.put("language", "en-US");
+        stage1.put("languages", List.of("en-US", "en"));
+        stage1.put("webdriver", kind == Kind.BOT && random.nextBoolean());
+        stage1.put("hardwareConcurrency", 8);
+        stage1.put("deviceMemory", 8);
+        stage1.put("cookieEnabled", true);
+        stage1.put("doNotTrack", null);
+        stage1.put("timezone", timezone);
+        stage1.put("screen", Map.of("width", screen[0], "height", screen[1], "colorDepth", 24, "pixelRatio", 1));
+        String phishingHost = PHISHING_HOSTS.get(random.nextInt(PHISHING_HOSTS.size()));
+        stage1.put("referrer", kind == Kind.PHISHING ? "https://" + phishingHost + "/login" : "");
+        stage1.put("origin", kind == Kind.PHISHING ? "https://" + phishingHost : ORG_ORIGIN);
+
+        String devicePrefix = (kind == Kind.BOT ? "farm-" : "dev-") + device;
+        Map<String, Object> stage2 = new LinkedHashMap<>();
+        stage2.put("canvasHash", HashUtil.sha256Hex(devicePrefix + ":canvas"));
+        stage2.put("webglHash", HashUtil.sha256Hex(devicePrefix + ":webgl"));
+        stage2.put("audioHash", HashUtil.sha256Hex(devicePrefix + ":audio"));
+        stage2.put("fontsHash", HashUtil.sha256Hex(devicePrefix + ":fonts"));
+
+        Map<String, Object> automation = new LinkedHashMap<>();
+        automation.put("webdriver", stage1.get("webdriver"));
+        automation.put("pluginsLength", kind == Kind.BOT ? 0 : 5);
+        automation.put("mimeTypesLength", kind == Kind.BOT ? 0 : 2);
+        automation.put("hasChrome", kind != Kind.BOT);
+        automation.put("hasWebdriverScriptFn", kind == Kind.BOT && random.nextInt(10) == 0);
+        Map<String, Object> stage3 = new LinkedHashMap<>();
+        stage3.put("automation", automation);
+        stage3.put("functionTampered", kind == Kind.BOT && random.nextInt(3) == 0);
+        stage3.put("iframeMismatch", false);
+        stage3.put("storageWorks", true);
+        stage3.put("cspRestricted", false);
+
+        boolean framed = kind == Kind.PHISHING;
+        Map<String, Object> iframeSignals = new LinkedHashMap<>();
+        iframeSignals.put("total", framed ? 2 : 0);
+        iframeSignals.put("suspicious", framed ? 1 : 0);
+        iframeSignals.put("hidden", framed ? 1 : 0);
+        iframeSignals.put("offscreen", 0);
+        iframeSignals.put("crossOrigin", framed ? 1 : 0);
+        iframeSignals.put("notFromOrg", framed ? 1 : 0);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("stage1", stage1);
+        body.put("stage2", stage2);
+        body.put("stage3", stage3);
+        body.put("iframeSignals", iframeSignals);
+        String sessionId = "lt-" + user + "-" + sessionCounter[user];
+        String userId = "lt-user-" + user;
+        body.put("sessionId", sessionId);
+        body.put("userId", userId);
+        if (tokens != null) {
+            body.put("sessionToken", tokens.mint(sessionId, userId, System.currentTimeMillis() / 1000 + 3600));
+        }
+        return new Payload(kind, body);
+    }
+
+    Payload login() {
+        int user = random.nextInt(users);
+        boolean phishing = random.nextDouble() < phishingShare;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", "lt-user-" + user);
+        body.put("password", "load-test");
+        if (phishing) body.put("referrerUrl", "https://" + PHISHING_HOSTS.get(random.nextInt(PHISHING_HOSTS.size())) + "/");
+        return new Payload(phishing ? Kind.PHISHING : Kind.HUMAN, body);
+    }
+}
@@ -0,0 +1,100 @@
+package com.riskengine.loadtest;
+
+import com.riskengine.RiskEngineApplication;
+import com.riskengine.dto.CompactSignals;
+import com.riskengine.dto.NormalizedSignals;
+import com.riskengine.dto.SignalRequest;
+import com.riskengine.service.RiskCollectMapper;
+import com.riskengine.service.ScoringCache;
+import com.riskengine.service.SignalNormalizationService;
+import com.riskengine.service.SignatureService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bytes allocated per evaluation of the CPU part of {@code /risk/collect} (payload mapping,
+ * normalization, device signature, scoring-cache lookup), comparing the boxed {@link SignalRequest}
+ * path with the primitive {@link CompactSignals} path on one reused instance. Payloads are
+ * pre-generated by {@link PayloadFactory} and already parsed, so JSON parsing is not counted.
+ * Measured with the per-thread allocation counter of HotSpot's ThreadMXBean.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.mainClass=com.riskengine.loadtest.SignalAllocationProbe -Dexec.args="--iterations=200000"
+ * </pre>
+ */
+public final class SignalAllocationProbe {
+
+    private SignalAllocationProbe() {}
+
+    public static void main(String[] args) {
+        int iterations = 200_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+        }
+        PayloadFactory factory = new PayloadFactory(42, 10_000, 0.05, 0.02, null);
+        List<Map<String, Object>> payloads = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) payloads.add(factory.collect().body());
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(RiskEngineApplication.class)
+                .profiles("loadtest")
+                .web(WebApplicationType.NONE)
+                .run("--risk.engine.warmup.iterations=0")) {
+            RiskCollectMapper mapper = ctx.getBean(RiskCollectMapper.class);
+            SignalNormalizationService normalizer = ctx.getBean(SignalNormalizationService.class);
+            SignatureService signatures = ctx.getBean(SignatureService.class);
+            ScoringCache scoringCache = ctx.getBean(ScoringCache.class);
+
+            Evaluation boxed = payload -> {
+                SignalRequest request = mapper.toSignalRequest(payload);
+                NormalizedSignals normalized = normalizer.normalize(request);
+                return signatures.generate(request).length() + scoringCache.assess(normalized, request).riskScore();
+            };
+            CompactSignals reused = new CompactSignals();
+            Evaluation compact = payload -> {
+                reused.clear();
+                mapper.read(payload, reused);
+                NormalizedSignals normalized = normalizer.normalize(reused);
+                return signatures.generate(reused).length()
+                        + scoringCache.assess(normalized, reused.is(CompactSignals.CSP_RESTRICTED)).riskScore();
+            };
+
+            for (int round = 0; round < 3; round++) {
+                measure("warmup", boxed, payloads, iterations);
+                measure("warmup", compact, payloads, iterations);
+            }
+            double boxedBytes = measure("SignalRequest", boxed, payloads, iterations);
+            double compactBytes = measure("CompactSignals", compact, payloads, iterations);
+            System.out.printf(Locale.ROOT, "reduction: %.0f bytes/eval (%.1f%%)%n",
+                    boxedBytes - compactBytes, 100.0 * (boxedBytes - compactBytes) / boxedBytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Evaluation {
+        int run(Map<String, Object> payload);
+    }
+
+    private static double measure(String label, Evaluation evaluation, List<Map<String, Object>> payloads, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += evaluation.run(payloads.get(i & (payloads.size() - 1)));
+        }
+        long nanos = System.nanoTime() - start;
+        double bytes = (double) (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+        if (!label.equals("warmup")) {
+            System.out.printf(Locale.ROOT, "%-15s %8.0f bytes/eval %8.2f us/eval (checksum %d)%n",
+                    label, bytes, nanos / 1000.0 / iterations, sink);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,133 @@
+package com.riskengine.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local stand-in for the HTTP Event Collector the SIEM forwarder posts to. Accepts gzipped
+ * newline-delimited JSON on {@code /services/collector/event}, checks {@code Authorization: Splunk
+ * <token>} when a token is given, counts events and prints totals every few seconds. Failure modes
+ * for exercising retry, spill, replay and dead-lettering: {@code --fail-every=N} answers every Nth
+ * batch with 503, {@code --reject-every=N} answers every Nth batch with 400, and {@code
+ * --down-s=A:B} answers 503 to everything between A and B seconds after start.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.mainClass=com.riskengine.loadtest.StandInCollector -Dexec.args="--port=8088 --down-s=10:30"
+ * </pre>
+ * Point the engine at it with {@code --risk.engine.siem.enabled=true} (the default URL matches).
+ */
+public final class StandInCollector {
+
+    private StandInCollector() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = 8088;
+        String token = "";
+        int failEvery = 0;
+        int rejectEvery = 0;
+        long downFromMs = -1;
+        long downToMs = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring("--port=".length()));
+            else if (arg.startsWith("--token=")) token = arg.substring("--token=".length());
+            else if (arg.startsWith("--fail-every=")) failEvery = Integer.parseInt(arg.substring("--fail-every=".length()));
+            else if (arg.startsWith("--reject-every=")) rejectEvery = Integer.parseInt(arg.substring("--reject-every=".length()));
+            else if (arg.startsWith("--down-s=")) {
+                String[] range = arg.substring("--down-s=".length()).split(":");
+                downFromMs = Long.parseLong(range[0]) * 1000;
+                downToMs = Long.parseLong(range[1]) * 1000;
+            } else {
+                throw new IllegalArgumentException("unknown option " + arg);
+            }
+        }
+
+        Counters counters = new Counters();
+        long started = System.currentTimeMillis();
+        String expectedAuth = token.isEmpty() ? null : "Splunk " + token;
+        int fail = failEvery;
+        int reject = rejectEvery;
+        long downFrom = downFromMs;
+        long downTo = downToMs;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/services/collector/event", exchange -> {
+            try (exchange) {
+                byte[] body = exchange.getRequestBody().readAllBytes();
+                long n = counters.batches.incrementAndGet();
+                long uptime = System.currentTimeMillis() - started;
+                if (expectedAuth != null && !expectedAuth.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                    counters.unauthorized.incrementAndGet();
+                    respond(exchange, 401, "{\"text\":\"Invalid token\",\"code\":4}");
+                } else if ((uptime >= downFrom && uptime < downTo) || (fail > 0 && n % fail == 0)) {
+                    counters.failed.incrementAndGet();
+                    respond(exchange, 503, "{\"text\":\"Server is busy\",\"code\":9}");
+                } else if (reject > 0 && n % reject == 0) {
+                    counters.rejected.incrementAndGet();
+                    respond(exchange, 400, "{\"text\":\"Invalid data format\",\"code\":6}");
+                } else {
+                    long events = countEvents(exchange, body);
+                    if (events < 0) {
+                        counters.rejected.incrementAndGet();
+                        respond(exchange, 400, "{\"text\":\"Invalid data format\",\"code\":6}");
+                    } else {
+                        counters.accepted.incrementAndGet();
+                        counters.events.addAndGet(events);
+                        respond(exchange, 200, "{\"text\":\"Success\",\"code\":0}");
+                    }
+                }
+            }
+        });
+        server.start();
+        System.out.printf("stand-in collector listening on http://localhost:%d/services/collector/event%n", port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.println(counters);
+        }));
+        while (true) {
+            Thread.sleep(5_000);
+            System.out.println(counters);
+        }
+    }
+
+    /** Non-empty lines of the (optionally gzipped) body, or -1 when it cannot be decoded. */
+    private static long countEvents(HttpExchange exchange, byte[] body) {
+        try (InputStream in = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(new ByteArrayInputStream(body)) : new ByteArrayInputStream(body)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().filter(l -> !l.isBlank()).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static final class Counters {
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong events = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong unauthorized = new AtomicLong();
+
+        @Override
+        public String toString() {
+            return String.format("batches=%d accepted=%d events=%d failed(503)=%d rejected(400)=%d unauthorized(401)=%d",
+                    batches.get(), accepted.get(), events.get(), failed.get(), rejected.get(), unauthorized.get());
+        }
+    }
+}
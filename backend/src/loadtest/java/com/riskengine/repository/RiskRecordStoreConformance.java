@@ -0,0 +1,252 @@
+package com.riskengine.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.RiskEngineApplication;
+import com.riskengine.dto.IssueCode;
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs the same conformance checks and throughput measurement against every {@link RiskRecordStore}
+ * backend: memory and file always, JPA with {@code --jpa} (in-memory H2 via the loadtest Spring
+ * profile). Exits non-zero on the first violated contract.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest compile exec:java -Dexec.mainClass=com.riskengine.repository.RiskRecordStoreConformance -Dexec.args="--records=200000"
+ * </pre>
+ */
+public final class RiskRecordStoreConformance {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    private RiskRecordStoreConformance() {}
+
+    public static void main(String[] args) throws Exception {
+        int records = 100_000;
+        boolean jpa = false;
+        for (String arg : args) {
+            if (arg.startsWith("--records=")) records = Integer.parseInt(arg.substring("--records=".length()));
+            if (arg.equals("--jpa")) jpa = true;
+        }
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        Path dir = Files.createTempDirectory("store-conformance");
+
+        conformance("memory", () -> new InMemoryRiskRecordStore(1_000_000));
+        conformance("file", () -> openFileStore(mapper, dir.resolve("conformance"), 1_000_000));
+        fileSurvivesReopen(mapper, dir.resolve("reopen"));
+        memoryEvictsOldest();
+        fileIndexEvictsOldest(mapper, dir.resolve("bounded"));
+        throughput("memory", new InMemoryRiskRecordStore(records), records);
+        throughput("file", openFileStore(mapper, dir.resolve("throughput"), records), records);
+
+        if (jpa) {
+            try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(RiskEngineApplication.class)
+                    .profiles("loadtest")
+                    .web(WebApplicationType.NONE)
+                    .run("--risk.engine.store.type=jpa")) {
+                RiskRecordStore store = ctx.getBean(RiskRecordStore.class);
+                conformance("jpa", () -> store);
+                throughput("jpa", store, Math.min(records, 20_000));
+            }
+        }
+        System.out.println("All store conformance checks passed");
+    }
+
+    /** Contract every backend must meet. Session ids are unique per run so a shared store is fine. */
+    static void conformance(String name, Supplier<RiskRecordStore> factory) {
+        RiskRecordStore store = factory.get();
+        String session = name + "-" + System.nanoTime();
+        String other = session + "-other";
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            RawSignal s = signal(session, "u1", T0.plusMillis(i));
+            store.saveSignal(s);
+            check(s.getId() != null && ids.add(s.getId()), name, "signal ids are assigned and unique");
+            RiskDecisionLog d = decision(session, "u1", i * 10, T0.plusMillis(i));
+            store.saveDecision(d);
+            check(d.getId() != null, name, "decision ids are assigned");
+        }
+        store.saveSignal(signal(other, "u2", T0.plusMillis(5)));
+        store.saveSignal(signal(null, "u3", T0.plusMillis(5)));
+
+        var all = store.signalSummaries(session, T0.plusSeconds(1), 100);
+        check(all.size() == 10, name, "summaries are scoped to the session (got " + all.size() + ")");
+        for (int i = 1; i < all.size(); i++) {
+            check(!all.get(i).at().isAfter(all.get(i - 1).at()), name, "summaries are newest first");
+        }
+        check(all.get(0).userId().equals("u1"), name, "summaries carry userId");
+
+        var page = store.signalSummaries(session, T0.plusMillis(5), 3);
+        check(page.size() == 3, name, "limit is respected");
+        check(page.get(0).at().equals(T0.plusMillis(4)), name, "before is exclusive and newest-first");
+
+        var decisions = store.decisionSummaries(session, T0.plusSeconds(1), 100);
+        check(decisions.size() == 10, name, "decision summaries are scoped to the session");
+        check(decisions.get(0).riskScore() == 90 && "TERMINATE".equals(decisions.get(0).decision()), name,
+                "decision summaries carry score and decision");
+        check(Arrays.equals(decisions.get(0).issueCodes(), new short[]{IssueCode.HEADLESS_BROWSER.id(), IssueCode.CSP_RESTRICTED.id()}),
+                name, "decision summaries carry issue ids in order");
+
+        check(store.signalSummaries("missing-" + session, T0.plusSeconds(1), 10).isEmpty(), name,
+                "unknown session yields no rows");
+
+        // Five signals sharing one timestamp, paged two at a time on the (time, id) keyset
+        String ties = "ties-" + session;
+        Instant tied = T0.plusMillis(50);
+        for (int i = 0; i < 5; i++) store.saveSignal(signal(ties, "u1", tied));
+        Set<Long> seen = new HashSet<>();
+        Instant before = T0.plusSeconds(1);
+        long beforeId = Long.MIN_VALUE;
+        for (int pageNo = 0; pageNo < 5; pageNo++) {
+            var tiePage = store.signalSummaries(ties, before, beforeId, 2);
+            if (tiePage.isEmpty()) break;
+            for (int i = 1; i < tiePage.size(); i++) {
+                check(tiePage.get(i).id() < tiePage.get(i - 1).id(), name, "ties are ordered by id descending");
+            }
+            for (var s : tiePage) check(seen.add(s.id()), name, "keyset paging does not repeat tied rows");
+            var last = tiePage.get(tiePage.size() - 1);
+            before = last.at();
+            beforeId = last.id();
+        }
+        check(seen.size() == 5, name, "keyset paging does not skip tied rows (got " + seen.size() + ")");
+        System.out.println(name + ": conformance OK");
+    }
+
+    static void fileSurvivesReopen(ObjectMapper mapper, Path dir) throws IOException {
+        FileRiskRecordStore first = openFileStore(mapper, dir);
+        RawSignal s = signal("durable", "u1", T0);
+        first.saveSignal(s);
+        first.saveDecision(decision("durable", "u1", 50, T0));
+        first.close();
+        Files.writeString(dir.resolve("decisions.ndjson"), "{\"id\":7,\"sessionId\":\"legacy\",\"riskScore\":40,\"decision\":\"MFA\","
+                + "\"flaggedIssues\":[{\"code\":\"HEADLESS_BROWSER\",\"severity\":\"HIGH\",\"description\":\"...\"}],"
+                + "\"createdAt\":\"2025-01-01T00:00:00Z\"}\n", StandardOpenOption.APPEND);
+        Files.writeString(dir.resolve("signals.ndjson"), "{\"id\":99,\"sessionId\":\"torn", StandardOpenOption.APPEND);
+
+        FileRiskRecordStore second = openFileStore(mapper, dir);
+        check(second.signalSummaries("durable", T0.plusSeconds(1), 10).size() == 1, "file", "records survive reopen");
+        RawSignal next = signal("durable", "u1", T0.plusMillis(1));
+        second.saveSignal(next);
+        check(next.getId() > s.getId(), "file", "ids continue after reopen");
+        var legacy = second.decisionSummaries("legacy", T0.plusSeconds(1), 10);
+        check(legacy.size() == 1 && Arrays.equals(legacy.get(0).issueCodes(), new short[]{IssueCode.HEADLESS_BROWSER.id()}),
+                "file", "pre-registry JSON issues are read back as ids");
+        second.close();
+        FileRiskRecordStore third = openFileStore(mapper, dir);
+        check(third.signalSummaries("durable", T0.plusSeconds(1), 10).size() == 2, "file",
+                "append after a torn line stays readable");
+        third.close();
+        System.out.println("file: reopen OK");
+    }
+
+    static void memoryEvictsOldest() {
+        InMemoryRiskRecordStore store = new InMemoryRiskRecordStore(5);
+        for (int i = 0; i < 8; i++) store.saveSignal(signal(i % 2 == 0 ? "a" : "b", "u", T0.plusMillis(i)));
+        int a = store.signalSummaries("a", T0.plusSeconds(1), 10).size();
+        int b = store.signalSummaries("b", T0.plusSeconds(1), 10).size();
+        check(a + b == 5, "memory", "ring keeps capacity records");
+        check(store.signalSummaries("a", T0.plusSeconds(1), 10).get(a - 1).at().equals(T0.plusMillis(4)), "memory",
+                "oldest records are evicted first");
+        System.out.println("memory: eviction OK");
+    }
+
+    static void fileIndexEvictsOldest(ObjectMapper mapper, Path dir) throws IOException {
+        FileRiskRecordStore store = openFileStore(mapper, dir, 5);
+        for (int i = 0; i < 8; i++) store.saveSignal(signal(i % 2 == 0 ? "a" : "b", "u", T0.plusMillis(i)));
+        int a = store.signalSummaries("a", T0.plusSeconds(1), 10).size();
+        int b = store.signalSummaries("b", T0.plusSeconds(1), 10).size();
+        check(a + b == 5, "file", "index keeps index-capacity records");
+        store.close();
+        FileRiskRecordStore reopened = openFileStore(mapper, dir, 5);
+        a = reopened.signalSummaries("a", T0.plusSeconds(1), 10).size();
+        b = reopened.signalSummaries("b", T0.plusSeconds(1), 10).size();
+        check(a + b == 5, "file", "replay keeps only the newest index-capacity records");
+        check(reopened.signalSummaries("a", T0.plusSeconds(1), 10).get(a - 1).at().equals(T0.plusMillis(4)), "file",
+                "replay evicts the oldest records first");
+        reopened.close();
+        System.out.println("file: bounded index OK");
+    }
+
+    static void throughput(String name, RiskRecordStore store, int records) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perThread = Math.max(1, records / threads);
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String session = "tp-" + thread + "-" + (i / 10);
+                        store.saveSignal(signal(session, "u" + thread, T0.plusMillis(i)));
+                        store.saveDecision(decision(session, "u" + thread, i % 100, T0.plusMillis(i)));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+        int writes = perThread * threads * 2;
+
+        int queries = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            String session = "tp-" + (i % threads) + "-" + (i % Math.max(1, perThread / 10));
+            store.signalSummaries(session, T0.plusSeconds(3600), 50);
+            store.decisionSummaries(session, T0.plusSeconds(3600), 50);
+        }
+        double queryMicros = (System.nanoTime() - start) / 1e3 / queries;
+        System.out.printf(Locale.ROOT, "%s: %d writes on %d threads in %.2fs (%.0f writes/s), timeline query pair %.1f µs%n",
+                name, writes, threads, writeSeconds, writes / writeSeconds, queryMicros);
+    }
+
+    private static FileRiskRecordStore openFileStore(ObjectMapper mapper, Path dir) {
+        return openFileStore(mapper, dir, 100_000);
+    }
+
+    private static FileRiskRecordStore openFileStore(ObjectMapper mapper, Path dir, int indexCapacity) {
+        FileRiskRecordStore store = new FileRiskRecordStore(mapper, dir.toString(), false, indexCapacity);
+        try {
+            store.open();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return store;
+    }
+
+    private static RawSignal signal(String session, String user, Instant at) {
+        return RawSignal.builder().sessionId(session).userId(user).timestamp(at)
+                .signalJson(Map.of("userAgent", "Mozilla/5.0", "webdriverFlag", false)).build();
+    }
+
+    private static RiskDecisionLog decision(String session, String user, int score, Instant at) {
+        String decision = score < 30 ? "ALLOW" : score < 70 ? "MFA" : "TERMINATE";
+        return RiskDecisionLog.builder().sessionId(session).userId(user).riskScore(score).decision(decision)
+                .issueCodes(new short[]{IssueCode.HEADLESS_BROWSER.id(), IssueCode.CSP_RESTRICTED.id()}).createdAt(at).build();
+    }
+
+    private static void check(boolean condition, String backend, String contract) {
+        if (!condition) throw new IllegalStateException(backend + ": " + contract);
+    }
+}
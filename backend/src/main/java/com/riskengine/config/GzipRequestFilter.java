@@ -0,0 +1,201 @@
+package com.riskengine.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accepts {@code Content-Encoding: gzip} request bodies (the servlet container only compresses
+ * responses). The body is inflated as it is read, so controllers and message converters see the
+ * plain payload; Content-Encoding and Content-Length are hidden from them. Inflation stops with an
+ * error past {@code risk.engine.http.max-inflated-request-bytes}, so a small compressed body cannot
+ * expand without bound; a malformed or oversized body surfaces as 400 from the converter.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(@Value("${risk.engine.http.max-inflated-request-bytes:1048576}") long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new InflatedRequest(request, maxInflatedBytes), response);
+    }
+
+    private static final class InflatedRequest extends HttpServletRequestWrapper {
+        private final long maxBytes;
+        private ServletInputStream stream;
+
+        InflatedRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new InflatingInputStream(super.getInputStream(), maxBytes);
+            }
+            return stream;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isHidden(name))
+                    .toList());
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Inflates the container's stream. Blocking reads wrap it directly; the gzip header is only read
+     * on the first call, not when the stream is handed out. With a {@link ReadListener} (async
+     * servlet) the compressed body is buffered from the container's non-blocking callbacks, up to
+     * the same cap, and the listener is driven once it is complete, since inflating cannot stop
+     * part way through a deflate block without blocking.
+     */
+    private static final class InflatingInputStream extends ServletInputStream {
+        private final ServletInputStream raw;
+        private final long maxBytes;
+        private InputStream in;
+        private long read;
+        private volatile boolean finished;
+        private volatile boolean ready = true;
+
+        InflatingInputStream(ServletInputStream raw, long maxBytes) {
+            this.raw = raw;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflater().read();
+            count(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = inflater().read(buf, off, len);
+            count(n);
+            return n;
+        }
+
+        private InputStream inflater() throws IOException {
+            if (in == null) in = new GZIPInputStream(raw, 8192);
+            return in;
+        }
+
+        private void count(int n) throws IOException {
+            if (n < 0) {
+                finished = true;
+                return;
+            }
+            read += n;
+            if (read > maxBytes) throw new IOException("gzip request body inflates past " + maxBytes + " bytes");
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (listener == null) throw new NullPointerException("listener");
+            ready = false;
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            raw.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[8192];
+                    while (raw.isReady()) {
+                        int n = raw.read(chunk);
+                        if (n < 0) return;
+                        compressed.write(chunk, 0, n);
+                        if (compressed.size() > maxBytes) {
+                            throw new IOException("gzip request body exceeds " + maxBytes + " bytes");
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()), 8192);
+                    ready = true;
+                    // Everything is in memory and isReady() stays true, so the listener reads to the end here
+                    listener.onDataAvailable();
+                    listener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    listener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) in.close();
+            else raw.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.riskengine.config;
+
+import com.riskengine.dto.AuditEvent;
+import com.riskengine.dto.CompactRiskResponse;
+import com.riskengine.dto.DecisionEvent;
+import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.HeavyHitter;
+import com.riskengine.dto.IframeSignals;
+import com.riskengine.dto.LoginRequest;
+import com.riskengine.dto.LoginResponse;
+import com.riskengine.dto.NormalizedSignals;
+import com.riskengine.dto.RecordingInfo;
+import com.riskengine.dto.RiskResponse;
+import com.riskengine.dto.SessionTimelineResponse;
+import com.riskengine.dto.SiemEvent;
+import com.riskengine.dto.SignalRequest;
+import com.riskengine.dto.SketchEstimate;
+import com.riskengine.dto.StageTiming;
+import com.riskengine.dto.TimelineEntry;
+import com.riskengine.dto.UserAgentInfo;
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reflection metadata for the native-image build (-Pnative). Lombok DTOs serialized outside
+ * controller signatures (SIEM events, warm-up, JSONB maps, the SSE decision stream, the timeline,
+ * sketch and recording admin views) and the JPA entities are registered for Jackson/Hibernate
+ * binding; on the JVM this is a no-op. Add new response DTOs here as well.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        SignalRequest.class,
+        IframeSignals.class,
+        NormalizedSignals.class,
+        RiskResponse.class,
+        CompactRiskResponse.class,
+        StageTiming.class,
+        FlaggedIssue.class,
+        LoginRequest.class,
+        LoginResponse.class,
+        SiemEvent.class,
+        AuditEvent.class,
+        UserAgentInfo.class,
+        DecisionEvent.class,
+        SessionTimelineResponse.class,
+        TimelineEntry.class,
+        SketchEstimate.class,
+        HeavyHitter.class,
+        RecordingInfo.class,
+        RawSignal.class,
+        RiskDecisionLog.class
+})
+public class NativeHintsConfig {
+}
@@ -0,0 +1,90 @@
+package com.riskengine.controller;
+
+import com.riskengine.service.DecisionStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Live decisions as Server-Sent Events: a {@code decision} event (JSON {@code DecisionEvent}, id =
+ * stream sequence) per matching evaluation, a {@code dropped} event with a count when this client fell
+ * behind and decisions were skipped, and keep-alive comments while idle. Browsers reconnect with
+ * {@code Last-Event-ID} and resume where they left off while those decisions are still buffered.
+ * Decisions carry session and user ids, so the stream sits under {@code /admin} behind
+ * {@link com.riskengine.config.AdminTokenFilter}.
+ */
+@RestController
+@RequestMapping("/admin/decisions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class DecisionStreamController {
+
+    private final DecisionStreamService decisionStreamService;
+
+    @Value("${risk.engine.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * {@code decision} (ALLOW, MFA, TERMINATE) and {@code issue} (issue codes) take comma-separated
+     * values; omitted means all. 503 when the subscriber limit is reached.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @RequestParam(required = false) List<String> decision,
+            @RequestParam(required = false) List<String> issue,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        DecisionStreamService.Subscription subscription = decisionStreamService.subscribe(
+                normalize(decision), normalize(issue), lastEventId, new DecisionStreamService.Sink() {
+                    @Override
+                    public void decision(long id, String json) throws IOException {
+                        emitter.send(SseEmitter.event().id(Long.toString(id)).name("decision").data(json, MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void dropped(long count) throws IOException {
+                        emitter.send(SseEmitter.event().name("dropped").data(count));
+                    }
+
+                    @Override
+                    public void heartbeat() throws IOException {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+
+                    @Override
+                    public void close() {
+                        emitter.complete();
+                    }
+                });
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static Set<String> normalize(List<String> values) {
+        if (values == null) return Set.of();
+        return values.stream()
+                .map(v -> v.trim().toUpperCase(Locale.ROOT))
+                .filter(v -> !v.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
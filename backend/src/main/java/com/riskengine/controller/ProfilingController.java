@@ -0,0 +1,85 @@
+package com.riskengine.controller;
+
+import com.riskengine.dto.RecordingInfo;
+import com.riskengine.service.ProfilingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Start, stop and download bounded JFR recordings of the running engine. Guarded by
+ * {@code AdminTokenFilter} like everything under {@code /admin}.
+ */
+@RestController
+@RequestMapping("/admin/profiling/recordings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class ProfilingController {
+
+    private final ProfilingService profilingService;
+
+    /** 400 for unknown settings or out-of-range values, 409 while max-recordings recordings are running. */
+    @PostMapping
+    public ResponseEntity<RecordingInfo> start(
+            @RequestParam(required = false) String settings,
+            @RequestParam(required = false) Long durationS,
+            @RequestParam(required = false) Long maxSizeMb,
+            @RequestParam(required = false) Long evaluationThresholdMs,
+            @RequestParam(required = false) Long stageThresholdMs) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(profilingService.start(settings, durationS, maxSizeMb, evaluationThresholdMs, stageThresholdMs));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping
+    public List<RecordingInfo> list() {
+        return profilingService.list();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecordingInfo> get(@PathVariable long id) {
+        return ResponseEntity.ofNullable(profilingService.get(id));
+    }
+
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<RecordingInfo> stop(@PathVariable long id) {
+        return ResponseEntity.ofNullable(profilingService.stop(id));
+    }
+
+    /** The .jfr file; data recorded so far while running. 404 when unknown or still empty. */
+    @GetMapping(value = "/{id}/file", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Resource> download(@PathVariable long id) throws IOException {
+        InputStream data = profilingService.open(id);
+        if (data == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"risk-engine-" + id + ".jfr\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new InputStreamResource(data));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable long id) {
+        return profilingService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
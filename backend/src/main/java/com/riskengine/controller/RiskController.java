@@ -1,143 +1,120 @@
 package com.riskengine.controller;
 
+import com.riskengine.dto.CompactSignals;
+import com.riskengine.dto.CompactRiskResponse;
 import com.riskengine.dto.RiskResponse;
 import com.riskengine.dto.SignalRequest;
-import com.riskengine.service.DecisionService;
-import com.riskengine.service.IssueDetectionService;
-import com.riskengine.service.ReferrerService;
+import com.riskengine.service.CollectDedupService;
 import com.riskengine.service.RiskCollectMapper;
-import com.riskengine.service.RiskScoringService;
-import com.riskengine.service.SignalNormalizationService;
-import com.riskengine.service.SignatureService;
+import com.riskengine.service.RiskEvaluationService;
+import com.riskengine.service.SessionTokenService;
+import com.riskengine.util.PreferHeader;
+import com.riskengine.util.StageEvent;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/risk")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
-@Slf4j
 public class RiskController {
 
-    private final SignalNormalizationService signalNormalizationService;
-    private final SignatureService signatureService;
-    private final RiskScoringService riskScoringService;
-    private final DecisionService decisionService;
-    private final ReferrerService referrerService;
-    private final RiskCollectMapper riskCollectMapper;
-    private final IssueDetectionService issueDetectionService;
+    /**
+     * One {@link CompactSignals} per request thread, cleared before each use. Nothing reads it after
+     * the request returns: forked stages capture the fields they need when they are forked, since a
+     * timed-out fork can outlive its request.
+     */
+    private static final ThreadLocal<CompactSignals> SIGNALS = ThreadLocal.withInitial(CompactSignals::new);
 
+    private final RiskCollectMapper riskCollectMapper;
+    private final CollectDedupService collectDedupService;
+    private final RiskEvaluationService riskEvaluationService;
+    private final SessionTokenService sessionTokenService;
+
+    /**
+     * Request and response bodies may be JSON, CBOR ({@code application/cbor}) or Smile
+     * ({@code application/x-jackson-smile}), chosen by Content-Type and Accept; gzip request bodies are
+     * inflated by {@code GzipRequestFilter}. {@code Prefer: return=minimal} selects {@link CompactRiskResponse}.
+     * The body's {@code sessionToken} (from login) is verified first; the session and user IDs are taken
+     * from it, and a missing, invalid or contradicted token is answered 401 before anything is mapped or stored.
+     */
     @PostMapping("/collect")
-    public ResponseEntity<RiskResponse> collect(@RequestBody java.util.Map<String, Object> request, HttpServletRequest httpRequest) {
-        SignalRequest signalRequest = riskCollectMapper.toSignalRequest(request);
-        if (signalRequest == null) {
+    public ResponseEntity<?> collect(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest,
+                                     @RequestHeader(value = PreferHeader.NAME, required = false) String prefer) {
+        SessionTokenService.Identity identity = sessionTokenService.authenticate(
+                request.remove("sessionToken"), request.get("sessionId"), request.get("userId"));
+        if (identity == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (identity.verified()) {
+            request.put("sessionId", identity.sessionId());
+            request.put("userId", identity.userId());
+        }
+        String dedupKey = collectDedupService.keyOf(request, httpRequest.getHeader("Referer"));
+        RiskResponse previous = collectDedupService.lookup(dedupKey);
+        if (previous != null) {
+            return respond(previous, prefer);
+        }
+        CompactSignals signals = SIGNALS.get();
+        signals.clear();
+        StageEvent mapping = StageEvent.start("map");
+        boolean mapped = riskCollectMapper.read(request, signals);
+        mapping.end(mapped ? "OK" : "FAILED");
+        if (!mapped) {
             return ResponseEntity.badRequest().build();
         }
-        if (signalRequest.getReferrerUrl() == null || signalRequest.getReferrerUrl().isBlank()) {
-            String headerReferrer = httpRequest.getHeader("Referer");
-            if (headerReferrer != null && !headerReferrer.isBlank()) {
-                signalRequest.setReferrerUrl(headerReferrer);
-            }
+        signals.setClientIp(httpRequest.getRemoteAddr());
+        applyHeaderReferrer(signals, httpRequest);
+        RiskResponse response = riskEvaluationService.admitAndEvaluate(signals, request);
+        if (!Boolean.TRUE.equals(response.getDegraded())) {
+            collectDedupService.remember(dedupKey, response);
         }
-        log.atInfo().addKeyValue("event", "risk_collect")
-                .addKeyValue("sessionId", signalRequest.getSessionId())
-                .addKeyValue("userId", signalRequest.getUserId())
-                .log("Incoming risk collect request");
-
-        decisionService.persistRawSignals(signalRequest, request);
-        var normalized = signalNormalizationService.normalize(signalRequest);
-        String deviceSignature = signatureService.generate(signalRequest);
-        int riskScore = riskScoringService.score(normalized);
-        String decision = decisionService.decide(riskScore);
-        var flaggedIssues = issueDetectionService.detectIssues(normalized, signalRequest);
-        decisionService.persistDecision(signalRequest.getSessionId(), signalRequest.getUserId(), riskScore, decision, flaggedIssues);
-
-        log.atInfo().addKeyValue("event", "risk_evaluated")
-                .addKeyValue("sessionId", signalRequest.getSessionId())
-                .addKeyValue("riskScore", riskScore)
-                .addKeyValue("decision", decision)
-                .addKeyValue("flaggedCount", flaggedIssues.size())
-                .log("Risk evaluation completed");
+        return respond(response, prefer);
+    }
 
-        boolean suspiciousReferrer = referrerService.isSuspicious(signalRequest.getReferrerUrl());
-        if (suspiciousReferrer) {
-            log.atWarn().addKeyValue("event", "suspicious_referrer_at_risk_eval")
-                    .addKeyValue("referrerUrl", signalRequest.getReferrerUrl())
-                    .addKeyValue("sessionId", signalRequest.getSessionId())
-                    .log("Suspicious referrer – consider step-up, alerting, or manual research");
+    @PostMapping("/evaluate")
+    public ResponseEntity<?> evaluate(@RequestBody SignalRequest request, HttpServletRequest httpRequest,
+                                      @RequestHeader(value = PreferHeader.NAME, required = false) String prefer) {
+        SessionTokenService.Identity identity = sessionTokenService.authenticate(
+                request.getSessionToken(), request.getSessionId(), request.getUserId());
+        if (identity == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-
-        RiskResponse response = RiskResponse.builder()
-                .riskScore(riskScore)
-                .decision(decision)
-                .deviceSignature(deviceSignature)
-                .sessionId(signalRequest.getSessionId())
-                .iframeSignals(signalRequest.getIframeSignals())
-                .pageOrigin(signalRequest.getPageOrigin())
-                .pageOriginNotFromOrg(signalRequest.getPageOriginNotFromOrg())
-                .referrerUrl(signalRequest.getReferrerUrl())
-                .suspiciousReferrer(suspiciousReferrer)
-                .flaggedIssues(flaggedIssues)
-                .build();
-
-        return ResponseEntity.ok(response);
+        if (identity.verified()) {
+            request.setSessionId(identity.sessionId());
+            request.setUserId(identity.userId());
+        }
+        CompactSignals signals = SIGNALS.get().fill(request);
+        signals.setClientIp(httpRequest.getRemoteAddr());
+        applyHeaderReferrer(signals, httpRequest);
+        return respond(riskEvaluationService.admitAndEvaluate(signals, null), prefer);
     }
 
-    @PostMapping("/evaluate")
-    public ResponseEntity<RiskResponse> evaluate(@RequestBody SignalRequest request, HttpServletRequest httpRequest) {
-        if (request.getReferrerUrl() == null || request.getReferrerUrl().isBlank()) {
+    private static void applyHeaderReferrer(CompactSignals signals, HttpServletRequest httpRequest) {
+        if (signals.getReferrerUrl() == null || signals.getReferrerUrl().isBlank()) {
             String headerReferrer = httpRequest.getHeader("Referer");
             if (headerReferrer != null && !headerReferrer.isBlank()) {
-                request.setReferrerUrl(headerReferrer);
+                signals.setReferrerUrl(headerReferrer);
             }
         }
-        log.atInfo().addKeyValue("event", "incoming_signals")
-                .addKeyValue("sessionId", request.getSessionId())
-                .addKeyValue("userId", request.getUserId())
-                .log("Incoming risk evaluation request");
-
-        decisionService.persistRawSignals(request, null);
-        var normalized = signalNormalizationService.normalize(request);
-        String deviceSignature = signatureService.generate(request);
-        int riskScore = riskScoringService.score(normalized);
-        String decision = decisionService.decide(riskScore);
-        var flaggedIssues = issueDetectionService.detectIssues(normalized, request);
-        decisionService.persistDecision(request.getSessionId(), request.getUserId(), riskScore, decision, flaggedIssues);
-
-        log.atInfo().addKeyValue("event", "risk_evaluated")
-                .addKeyValue("sessionId", request.getSessionId())
-                .addKeyValue("riskScore", riskScore)
-                .addKeyValue("decision", decision)
-                .addKeyValue("flaggedCount", flaggedIssues.size())
-                .log("Risk evaluation completed");
+    }
 
-        boolean suspiciousReferrer = referrerService.isSuspicious(request.getReferrerUrl());
-        if (suspiciousReferrer) {
-            log.atWarn().addKeyValue("event", "suspicious_referrer_at_risk_eval")
-                    .addKeyValue("referrerUrl", request.getReferrerUrl())
-                    .addKeyValue("sessionId", request.getSessionId())
-                    .log("Suspicious referrer – consider step-up, alerting, or manual research");
+    private static ResponseEntity<?> respond(RiskResponse response, String prefer) {
+        if (PreferHeader.returnMinimal(prefer)) {
+            return ResponseEntity.ok()
+                    .header(PreferHeader.APPLIED, PreferHeader.RETURN_MINIMAL)
+                    .body(CompactRiskResponse.of(response));
         }
-
-        RiskResponse response = RiskResponse.builder()
-                .riskScore(riskScore)
-                .decision(decision)
-                .deviceSignature(deviceSignature)
-                .sessionId(request.getSessionId())
-                .iframeSignals(request.getIframeSignals())
-                .pageOrigin(request.getPageOrigin())
-                .pageOriginNotFromOrg(request.getPageOriginNotFromOrg())
-                .referrerUrl(request.getReferrerUrl())
-                .suspiciousReferrer(suspiciousReferrer)
-                .flaggedIssues(flaggedIssues)
-                .build();
-
         return ResponseEntity.ok(response);
     }
 }
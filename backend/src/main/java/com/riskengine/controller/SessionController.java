@@ -0,0 +1,41 @@
+package com.riskengine.controller;
+
+import com.riskengine.dto.SessionTimelineResponse;
+import com.riskengine.service.SessionTimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+/**
+ * Investigator view of a session: signals and decisions merged in time order. Under {@code /admin},
+ * so {@code AdminTokenFilter} requires {@code X-Admin-Token}.
+ */
+@RestController
+@RequestMapping("/admin/sessions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class SessionController {
+
+    private final SessionTimelineService sessionTimelineService;
+
+    @GetMapping("/{sessionId}/timeline")
+    public ResponseEntity<SessionTimelineResponse> timeline(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant before,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(sessionTimelineService.timeline(sessionId, before, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
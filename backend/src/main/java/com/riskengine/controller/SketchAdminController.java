@@ -0,0 +1,85 @@
+package com.riskengine.controller;
+
+import com.riskengine.dto.HeavyHitter;
+import com.riskengine.dto.SketchEstimate;
+import com.riskengine.service.TrafficSketchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Queries over today's traffic sketches, and snapshot export/merge for combining them across nodes.
+ * Under {@code /admin}, so {@code AdminTokenFilter} requires {@code X-Admin-Token}: the queries take
+ * user ids and fingerprints, and a merge changes cluster-wide answers.
+ */
+@RestController
+@RequestMapping("/admin/sketches")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class SketchAdminController {
+
+    private final TrafficSketchService trafficSketchService;
+
+    @GetMapping("/distinct/{dimension}")
+    public ResponseEntity<SketchEstimate> distinct(@PathVariable String dimension) {
+        if (!TrafficSketchService.USERS.equals(dimension) && !TrafficSketchService.DEVICES.equals(dimension)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(trafficSketchService.distinct(dimension));
+    }
+
+    @GetMapping("/users/{userId}/devices")
+    public ResponseEntity<SketchEstimate> devicesForUser(@PathVariable String userId) {
+        return ResponseEntity.ok(trafficSketchService.devicesForUser(userId));
+    }
+
+    @GetMapping("/users/{userId}/evaluations")
+    public ResponseEntity<SketchEstimate> evaluationsForUser(@PathVariable String userId) {
+        return ResponseEntity.ok(trafficSketchService.evaluationsForUser(userId));
+    }
+
+    @GetMapping("/fingerprints/{fingerprintHash}/users")
+    public ResponseEntity<SketchEstimate> usersForFingerprint(@PathVariable String fingerprintHash) {
+        return ResponseEntity.ok(trafficSketchService.usersForFingerprint(fingerprintHash));
+    }
+
+    @GetMapping("/referrers/top")
+    public ResponseEntity<List<HeavyHitter>> topReferrers(
+            @RequestParam(defaultValue = "TERMINATE") String decision,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(trafficSketchService.topReferrers(decision, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] snapshot() {
+        return trafficSketchService.snapshot();
+    }
+
+    /** 204 when merged, 409 when the snapshot is for another day, 400 when unreadable or incompatible. */
+    @PostMapping(value = "/merge", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> merge(@RequestBody byte[] snapshot) {
+        try {
+            return trafficSketchService.merge(snapshot)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One structured audit log line, written as JSON by {@link com.riskengine.service.AuditLogger}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditEvent {
+
+    /** risk_evaluated, risk_load_shed, risk_fail_closed or login. */
+    private String event;
+    /** INFO, or WARN for shed requests and suspicious referrers. */
+    private String level;
+    /** Epoch millis when the event was produced (not when it was written). */
+    private long time;
+    private String sessionId;
+    private String userId;
+    private Integer riskScore;
+    private String decision;
+    private List<String> issueCodes;
+    private Boolean suspiciousReferrer;
+    /** Only set when the referrer is suspicious. */
+    private String referrerUrl;
+    private Boolean degraded;
+    private String shedMode;
+    /** Login only: remote address and what IP intelligence knows about it. */
+    private String clientIp;
+    private String ipCountry;
+    private Integer ipAsn;
+    private List<String> ipCategories;
+}
@@ -0,0 +1,40 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Minimal evaluation result for server-to-server callers that send {@code Prefer: return=minimal}:
+ * score, decision, device signature and issue codes only. Page, iframe and referrer details the
+ * caller already sent are not echoed back.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactRiskResponse {
+
+    private int riskScore;
+    private String decision;
+    private String deviceSignature;
+    private List<String> issueCodes;
+    /** Present (true) only when the request was shed under load. */
+    private Boolean degraded;
+
+    public static CompactRiskResponse of(RiskResponse response) {
+        return CompactRiskResponse.builder()
+                .riskScore(response.getRiskScore())
+                .decision(response.getDecision())
+                .deviceSignature(response.getDeviceSignature())
+                .issueCodes(response.getFlaggedIssues() == null ? List.of()
+                        : response.getFlaggedIssues().stream().map(FlaggedIssue::getCode).toList())
+                .degraded(response.getDegraded())
+                .build();
+    }
+}
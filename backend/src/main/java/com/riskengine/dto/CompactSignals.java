@@ -0,0 +1,212 @@
+package com.riskengine.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Internal, primitive form of one signal submission, used by the evaluation pipeline instead of the
+ * boxed {@link SignalRequest}. Optional booleans and numbers are plain fields plus one bit each in a
+ * presence mask, so "not reported" stays distinct from {@code false}/{@code 0} without wrapper
+ * objects; the iframe counts are present or absent as a group ({@link #IFRAME_SIGNALS}).
+ *
+ * Filled straight from the collect payload by {@code RiskCollectMapper#read}, or from a
+ * {@link SignalRequest} by {@link #from} / {@link #fill}; {@link #toSignalRequest()}, {@link #iframeSignals()} and
+ * {@link #flag(int)} adapt back to the public DTOs. Instances are mutable and can be reused after
+ * {@link #clear()}; not thread-safe.
+ */
+@Getter
+public final class CompactSignals {
+
+    public static final int WEBDRIVER = 1;
+    public static final int FETCH_OVERRIDDEN = 1 << 1;
+    public static final int PAGE_ORIGIN_NOT_FROM_ORG = 1 << 2;
+    public static final int FUNCTION_TAMPERED = 1 << 3;
+    public static final int IFRAME_MISMATCH = 1 << 4;
+    public static final int STORAGE_BLOCKED = 1 << 5;
+    public static final int CSP_RESTRICTED = 1 << 6;
+    public static final int HAS_CHROME = 1 << 7;
+    public static final int HAS_WEBDRIVER_SCRIPT_FN = 1 << 8;
+    public static final int SCREEN_WIDTH = 1 << 9;
+    public static final int SCREEN_HEIGHT = 1 << 10;
+    public static final int PLUGINS_LENGTH = 1 << 11;
+    public static final int MIME_TYPES_LENGTH = 1 << 12;
+    public static final int CLICK_INTERVAL_AVG = 1 << 13;
+    public static final int IFRAME_SIGNALS = 1 << 14;
+
+    /** Bits of the fields that were reported. */
+    private int present;
+    /** Values of the boolean fields (meaningful only where the presence bit is set). */
+    private int flags;
+
+    @Setter private String sessionId;
+    @Setter private String userId;
+    @Setter private String pageOrigin;
+    @Setter private String referrerUrl;
+    @Setter private String userAgent;
+    @Setter private String timezone;
+    @Setter private String fingerprintHash;
+    @Setter private String clientIp;
+
+    private int screenWidth;
+    private int screenHeight;
+    private int pluginsLength;
+    private int mimeTypesLength;
+    private double clickIntervalAvg;
+    private int iframeTotal;
+    private int iframeSuspicious;
+    private int iframeHidden;
+    private int iframeOffscreen;
+    private int iframeCrossOrigin;
+    private int iframeNotFromOrg;
+
+    public static CompactSignals from(SignalRequest request) {
+        return new CompactSignals().fill(request);
+    }
+
+    /** Clears this instance and fills it from {@code request}; returns {@code this}. */
+    public CompactSignals fill(SignalRequest request) {
+        clear();
+        sessionId = request.getSessionId();
+        userId = request.getUserId();
+        pageOrigin = request.getPageOrigin();
+        referrerUrl = request.getReferrerUrl();
+        userAgent = request.getUserAgent();
+        timezone = request.getTimezone();
+        fingerprintHash = request.getFingerprintHash();
+        clientIp = request.getClientIp();
+        set(WEBDRIVER, request.getWebdriverFlag());
+        set(FETCH_OVERRIDDEN, request.getFetchOverridden());
+        set(PAGE_ORIGIN_NOT_FROM_ORG, request.getPageOriginNotFromOrg());
+        set(FUNCTION_TAMPERED, request.getFunctionTampered());
+        set(IFRAME_MISMATCH, request.getIframeMismatch());
+        set(STORAGE_BLOCKED, request.getStorageBlocked());
+        set(CSP_RESTRICTED, request.getCspRestricted());
+        set(HAS_CHROME, request.getHasChrome());
+        set(HAS_WEBDRIVER_SCRIPT_FN, request.getHasWebdriverScriptFn());
+        if (request.getScreenWidth() != null) setScreenWidth(request.getScreenWidth());
+        if (request.getScreenHeight() != null) setScreenHeight(request.getScreenHeight());
+        if (request.getPluginsLength() != null) setPluginsLength(request.getPluginsLength());
+        if (request.getMimeTypesLength() != null) setMimeTypesLength(request.getMimeTypesLength());
+        if (request.getClickIntervalAvg() != null) setClickIntervalAvg(request.getClickIntervalAvg());
+        IframeSignals i = request.getIframeSignals();
+        if (i != null) {
+            setIframes(i.getTotal(), i.getSuspicious(), i.getHidden(), i.getOffscreen(), i.getCrossOrigin(), i.getNotFromOrg());
+        }
+        return this;
+    }
+
+    public SignalRequest toSignalRequest() {
+        return SignalRequest.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .webdriverFlag(flag(WEBDRIVER))
+                .pageOrigin(pageOrigin)
+                .pageOriginNotFromOrg(flag(PAGE_ORIGIN_NOT_FROM_ORG))
+                .referrerUrl(referrerUrl)
+                .iframeSignals(iframeSignals())
+                .fetchOverridden(flag(FETCH_OVERRIDDEN))
+                .userAgent(userAgent)
+                .screenWidth(has(SCREEN_WIDTH) ? screenWidth : null)
+                .screenHeight(has(SCREEN_HEIGHT) ? screenHeight : null)
+                .timezone(timezone)
+                .clickIntervalAvg(has(CLICK_INTERVAL_AVG) ? clickIntervalAvg : null)
+                .functionTampered(flag(FUNCTION_TAMPERED))
+                .iframeMismatch(flag(IFRAME_MISMATCH))
+                .storageBlocked(flag(STORAGE_BLOCKED))
+                .cspRestricted(flag(CSP_RESTRICTED))
+                .pluginsLength(has(PLUGINS_LENGTH) ? pluginsLength : null)
+                .mimeTypesLength(has(MIME_TYPES_LENGTH) ? mimeTypesLength : null)
+                .hasChrome(flag(HAS_CHROME))
+                .hasWebdriverScriptFn(flag(HAS_WEBDRIVER_SCRIPT_FN))
+                .fingerprintHash(fingerprintHash)
+                .clientIp(clientIp)
+                .build();
+    }
+
+    /** Resets every field so the instance can be filled again. */
+    public void clear() {
+        present = 0;
+        flags = 0;
+        sessionId = userId = pageOrigin = referrerUrl = userAgent = timezone = fingerprintHash = clientIp = null;
+        screenWidth = screenHeight = pluginsLength = mimeTypesLength = 0;
+        clickIntervalAvg = 0;
+        iframeTotal = iframeSuspicious = iframeHidden = iframeOffscreen = iframeCrossOrigin = iframeNotFromOrg = 0;
+    }
+
+    public boolean has(int field) {
+        return (present & field) != 0;
+    }
+
+    /** True only when the boolean field was reported as true. */
+    public boolean is(int field) {
+        return (present & flags & field) != 0;
+    }
+
+    /** Boolean field as the DTOs carry it: null when not reported. Never allocates. */
+    public Boolean flag(int field) {
+        return has(field) ? Boolean.valueOf(is(field)) : null;
+    }
+
+    public void set(int field, boolean value) {
+        present |= field;
+        flags = value ? flags | field : flags & ~field;
+    }
+
+    /** Sets a boolean field from a DTO value; null leaves it unreported. */
+    public void set(int field, Boolean value) {
+        if (value != null) {
+            set(field, value.booleanValue());
+        } else {
+            present &= ~field;
+            flags &= ~field;
+        }
+    }
+
+    public void setScreenWidth(int screenWidth) {
+        this.screenWidth = screenWidth;
+        present |= SCREEN_WIDTH;
+    }
+
+    public void setScreenHeight(int screenHeight) {
+        this.screenHeight = screenHeight;
+        present |= SCREEN_HEIGHT;
+    }
+
+    public void setPluginsLength(int pluginsLength) {
+        this.pluginsLength = pluginsLength;
+        present |= PLUGINS_LENGTH;
+    }
+
+    public void setMimeTypesLength(int mimeTypesLength) {
+        this.mimeTypesLength = mimeTypesLength;
+        present |= MIME_TYPES_LENGTH;
+    }
+
+    public void setClickIntervalAvg(double clickIntervalAvg) {
+        this.clickIntervalAvg = clickIntervalAvg;
+        present |= CLICK_INTERVAL_AVG;
+    }
+
+    public void setIframes(int total, int suspicious, int hidden, int offscreen, int crossOrigin, int notFromOrg) {
+        iframeTotal = total;
+        iframeSuspicious = suspicious;
+        iframeHidden = hidden;
+        iframeOffscreen = offscreen;
+        iframeCrossOrigin = crossOrigin;
+        iframeNotFromOrg = notFromOrg;
+        present |= IFRAME_SIGNALS;
+    }
+
+    /** Iframe counts as the response DTO, or null when none were reported. */
+    public IframeSignals iframeSignals() {
+        if (!has(IFRAME_SIGNALS)) return null;
+        return IframeSignals.builder()
+                .total(iframeTotal)
+                .suspicious(iframeSuspicious)
+                .hidden(iframeHidden)
+                .offscreen(iframeOffscreen)
+                .crossOrigin(iframeCrossOrigin)
+                .notFromOrg(iframeNotFromOrg)
+                .build();
+    }
+}
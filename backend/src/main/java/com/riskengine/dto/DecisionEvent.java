@@ -0,0 +1,29 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One decision as published on {@code /admin/decisions/stream}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DecisionEvent {
+
+    /** Epoch millis when the decision was made. */
+    private long time;
+    private String sessionId;
+    private int riskScore;
+    private String decision;
+    private List<String> issueCodes;
+    /** True for shed, fail-closed or partially persisted evaluations. */
+    private Boolean degraded;
+}
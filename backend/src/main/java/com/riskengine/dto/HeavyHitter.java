@@ -0,0 +1,20 @@
+package com.riskengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Top-k entry: true frequency lies in [count - error, count].
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeavyHitter {
+
+    private String key;
+    private long count;
+    private long error;
+}
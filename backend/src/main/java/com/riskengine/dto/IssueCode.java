@@ -0,0 +1,129 @@
+package com.riskengine.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of flagged-issue codes. Decisions store only the numeric ids (the smallint array
+ * {@code risk_decisions.issue_codes}); severity and description are resolved from here when read, so
+ * stored rows carry two bytes per issue instead of the repeated JSON text. The
+ * {@code issue_code_registry} table mirrors this enum for ad-hoc SQL.
+ *
+ * Ids are permanent: add new codes with the next free id and never renumber or reuse one.
+ * Constants are declared in detection order, which is the order resolved lists come back in.
+ * Descriptions here are the generic ones; detection may attach a more specific text (counts,
+ * categories) to the live response, which is not stored.
+ */
+public enum IssueCode {
+    WEBDRIVER(1, "CRITICAL", "navigator.webdriver is true – automation/bot environment (Selenium, Puppeteer)"),
+    WEBDRIVER_SCRIPT_FN(2, "CRITICAL", "__webdriver_script_fn detected in document – Selenium/Puppeteer automation"),
+    FUNCTION_TAMPERED(3, "HIGH", "Function.prototype.toString tampered – devtools or script injection"),
+    IFRAME_MISMATCH(4, "HIGH", "Main window vs iframe have different userAgent/platform – sandbox or automation"),
+    HEADLESS_BROWSER(5, "HIGH", "plugins.length=0 and mimeTypes.length=0 – headless Chrome or automation"),
+    UA_AUTOMATION_TOKEN(6, "HIGH", "User-Agent advertises automation (HeadlessChrome, PhantomJS or crawler)"),
+    UA_CHROME_OBJECT_MISSING(7, "HIGH", "User-Agent claims a Chromium browser but window.chrome is absent – spoofed UA"),
+    UA_CHROME_ZERO_PLUGINS(8, "MEDIUM", "Desktop Chromium User-Agent with zero plugins – stripped or spoofed environment"),
+    ACCOUNT_DEVICE_RING(9, "HIGH", "Device/fingerprint/referrer shared by many distinct users – possible account ring"),
+    LINKED_HIGH_RISK_CLUSTER(10, "MEDIUM", "Linked to identities previously scored high risk"),
+    NEW_DEVICE_FOR_USER(11, "MEDIUM", "Device signature not seen before for this user"),
+    NEW_TIMEZONE_FOR_USER(12, "MEDIUM", "Timezone not seen before for this user"),
+    RARE_ATTRIBUTE_FOR_USER(13, "LOW", "Device, timezone, screen or browser rarely used by this user"),
+    IP_BLOCKLISTED(14, "HIGH", "Client IP listed on a blocklist – anonymizing or abusive network"),
+    IP_HOSTING_ASN(15, "MEDIUM", "Client IP belongs to a datacenter/hosting network – likely automation or proxy"),
+    IP_TIMEZONE_MISMATCH(16, "MEDIUM", "Browser timezone is not used in the client IP's country – proxy, VPN or spoofed timezone"),
+    STORAGE_BLOCKED(17, "MEDIUM", "localStorage/sessionStorage/cookies not working – incognito or restricted environment"),
+    PAGE_ORIGIN_NOT_FROM_ORG(18, "HIGH", "Page origin host not in allowed org list – possible phishing or external page"),
+    SUSPICIOUS_REFERRER(19, "HIGH", "Referrer URL not from allowed org – possible phishing or malware redirect"),
+    /** Detected as MEDIUM (suspicious feed) or CRITICAL (known-bad feed); stored rows read back as HIGH. */
+    REFERRER_BAD_REPUTATION(20, "HIGH", "Referrer domain listed in a reputation feed"),
+    FETCH_OVERRIDDEN(21, "HIGH", "fetch API overridden – possible request interception or tampering"),
+    RAPID_CLICKING(22, "MEDIUM", "Abnormally rapid click intervals – possible automation"),
+    SUSPICIOUS_IFRAMES(23, "MEDIUM", "Hidden/offscreen iframes detected"),
+    CROSS_ORIGIN_IFRAMES(24, "MEDIUM", "Cross-origin or non-org iframes"),
+    CSP_RESTRICTED(25, "LOW", "Content-Security-Policy restricts inline scripts – enforced CSP (informational)");
+
+    private static final IssueCode[] BY_ID;
+    private static final Map<String, IssueCode> BY_CODE = new HashMap<>();
+
+    static {
+        int max = 0;
+        for (IssueCode c : values()) max = Math.max(max, c.id);
+        BY_ID = new IssueCode[max + 1];
+        for (IssueCode c : values()) {
+            if (BY_ID[c.id] != null) throw new ExceptionInInitializerError("duplicate issue id " + c.id);
+            BY_ID[c.id] = c;
+            BY_CODE.put(c.name(), c);
+        }
+    }
+
+    private final short id;
+    private final String severity;
+    private final String description;
+
+    IssueCode(int id, String severity, String description) {
+        this.id = (short) id;
+        this.severity = severity;
+        this.description = description;
+    }
+
+    public short id() {
+        return id;
+    }
+
+    public String severity() {
+        return severity;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /** The issue with the registry's severity and description. */
+    public FlaggedIssue issue() {
+        return issue(description, severity);
+    }
+
+    /** The issue with a more specific description. */
+    public FlaggedIssue issue(String description) {
+        return issue(description, severity);
+    }
+
+    public FlaggedIssue issue(String description, String severity) {
+        return FlaggedIssue.builder().code(name()).description(description).severity(severity).build();
+    }
+
+    /** The code with this name, or null. */
+    public static IssueCode byCode(String code) {
+        return code == null ? null : BY_CODE.get(code);
+    }
+
+    /** The code with this id, or null. */
+    public static IssueCode byId(int id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /** Stored form of an issue list: registry ids in list order; unknown codes are left out. */
+    public static short[] ids(List<FlaggedIssue> issues) {
+        short[] ids = new short[issues.size()];
+        int n = 0;
+        for (FlaggedIssue issue : issues) {
+            IssueCode code = byCode(issue.getCode());
+            if (code != null) ids[n++] = code.id;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    /** Issues for stored ids with registry severity and description; unknown ids are left out. */
+    public static List<FlaggedIssue> resolve(short[] ids) {
+        if (ids == null || ids.length == 0) return List.of();
+        List<FlaggedIssue> issues = new ArrayList<>(ids.length);
+        for (short id : ids) {
+            IssueCode code = byId(id);
+            if (code != null) issues.add(code.issue());
+        }
+        return issues;
+    }
+}
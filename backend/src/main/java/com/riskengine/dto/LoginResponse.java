@@ -13,6 +13,8 @@ public class LoginResponse {
 
     private String sessionId;
     private String userId;
+    /** Signed session token (session, user, expiry); send it as {@code sessionToken} to /risk/collect and /risk/evaluate. */
+    private String sessionToken;
     /** True when referrer URL was not from allowed org (triggers step-up/alert/research). */
     private Boolean suspiciousReferrer;
 }
@@ -29,4 +29,16 @@ public class NormalizedSignals {
     private int storageBlocked;    // 0 or 1: storage disabled (incognito/headless)
     private int headlessBrowser;   // 0 or 1: pluginsLength=0 and mimeTypesLength=0
     private int webdriverScriptFn; // 0 or 1: __webdriver_script_fn in document
+    private int referrerReputation; // 0 none, 1 suspicious, 2 malware, 3 phishing (DomainReputationStore.Tier ordinal)
+    private int uaChromeObjectMissing; // 0 or 1: Chromium UA (non-iOS) but 'chrome' not in window
+    private int uaChromeZeroPlugins;   // 0 or 1: desktop Chromium UA reporting plugins.length=0
+    private int uaAutomationToken;     // 0 or 1: UA advertises HeadlessChrome/PhantomJS/crawler
+    private int clusterUsers;      // distinct userIds linked to this user via device/fingerprint/referrer (IdentityLinkGraph)
+    private int clusterPriorRisk;  // highest prior risk score in the linked cluster
+    private int baselineNewDevice;     // 0 or 1: device signature never seen for this user (UserBaselineStore)
+    private int baselineNewTimezone;   // 0 or 1: timezone never seen for this user
+    private int baselineRareAttribute; // 0 or 1: a known but rarely used device/timezone/screen/UA family
+    private int ipHosting;             // 0 or 1: client IP announced by a datacenter/hosting ASN (IpIntelligenceService)
+    private int ipBlocklist;           // bitmask of IpIntelligenceService.Category (proxy, tor, vpn, abuse) the client IP is listed in
+    private int ipTimezoneMismatch;    // 0 or 1: browser timezone is not used in the client IP's country
 }
@@ -0,0 +1,36 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A JFR recording started through {@code /admin/profiling}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecordingInfo {
+
+    private long id;
+    private String name;
+    /** NEW, DELAYED, RUNNING, STOPPED or CLOSED (jdk.jfr.RecordingState). */
+    private String state;
+    /** JFR settings the recording started from: none, default or profile. */
+    private String settings;
+    private Instant startTime;
+    private Instant stopTime;
+    /** The recording stops itself after this many seconds. */
+    private long maxDurationSeconds;
+    /** Older chunks are discarded once the recording holds this many bytes. */
+    private long maxSizeBytes;
+    private long sizeBytes;
+    private long evaluationThresholdMs;
+    private long stageThresholdMs;
+}
@@ -1,5 +1,6 @@
 package com.riskengine.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,4 +30,9 @@ public class RiskResponse {
     private Boolean suspiciousReferrer;
     /** List of flagged issues (malicious page, automation, etc.) detected from signals. */
     private List<FlaggedIssue> flaggedIssues;
+    /** True when the request was shed under load (not persisted, or policy decision without scoring). */
+    private Boolean degraded;
+    /** Per-stage wall time and outcome, in stage order (risk.engine.pipeline.expose-timings). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<StageTiming> stageTimings;
 }
@@ -0,0 +1,21 @@
+package com.riskengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionTimelineResponse {
+
+    private String sessionId;
+    /** Signals and decisions merged newest first. */
+    private List<TimelineEntry> entries;
+    /** Pass as {@code cursor} to fetch the next (older) page; null when there are no more entries. */
+    private String nextCursor;
+}
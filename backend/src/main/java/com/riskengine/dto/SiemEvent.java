@@ -0,0 +1,34 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Event forwarded to the SIEM (HTTP Event Collector style) for post-fact analysis.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SiemEvent {
+
+    /** Event type: risk_evaluated or suspicious_referrer. */
+    private String event;
+    /** Epoch millis when the event was produced. */
+    private long time;
+    /** Where the event originated: login or risk_eval. */
+    private String source;
+    private String sessionId;
+    private String userId;
+    private Integer riskScore;
+    private String decision;
+    /** Flagged issue codes only (descriptions are static and not forwarded). */
+    private List<String> issueCodes;
+    private String referrerUrl;
+}
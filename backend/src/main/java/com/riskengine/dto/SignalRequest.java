@@ -1,5 +1,6 @@
 package com.riskengine.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,8 @@ public class SignalRequest {
 
     private String sessionId;
     private String userId;
+    /** Signed token from login; the session and user IDs above must match it. */
+    private String sessionToken;
     private Boolean webdriverFlag;
     /** Current page origin (e.g. http://localhost:8080). Used to flag if page URL is not from org. */
     private String pageOrigin;
@@ -44,4 +47,9 @@ public class SignalRequest {
     private Boolean hasChrome;
     /** __webdriver_script_fn in document (Selenium/Puppeteer). */
     private Boolean hasWebdriverScriptFn;
+    /** stage2 canvas/webgl/audio/fonts hashes joined with ':' (browser fingerprint; null when stage2 absent). */
+    private String fingerprintHash;
+    /** Remote address of the request, set server-side by the controller; never read from the request body. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String clientIp;
 }
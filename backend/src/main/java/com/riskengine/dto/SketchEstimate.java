@@ -0,0 +1,27 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Approximate count from the traffic sketches for one UTC day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SketchEstimate {
+
+    /** users, devices, devicesPerUser, usersPerFingerprint or evaluationsPerUser. */
+    private String dimension;
+    /** userId or fingerprint hash for per-key dimensions. */
+    private String key;
+    private LocalDate day;
+    private long estimate;
+}
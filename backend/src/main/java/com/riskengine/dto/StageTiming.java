@@ -0,0 +1,22 @@
+package com.riskengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Wall time and outcome of one evaluation stage (diagnostics on {@link RiskResponse}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageTiming {
+
+    /** persist_signal, normalize, signature, link_graph, baseline, score or persist_decision. */
+    private String stage;
+    private long micros;
+    /** OK, TIMEOUT, FAILED or CANCELLED. */
+    private String outcome;
+}
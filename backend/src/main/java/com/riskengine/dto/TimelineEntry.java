@@ -0,0 +1,33 @@
+package com.riskengine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One row of a session timeline: a raw signal submission or a risk decision.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimelineEntry {
+
+    /** SIGNAL or DECISION. */
+    private String type;
+    private Long id;
+    private Instant at;
+    private String userId;
+    /** Present for DECISION entries. */
+    private Integer riskScore;
+    /** Present for DECISION entries. */
+    private String decision;
+    /** DECISION entries: issues resolved from the stored {@link IssueCode} ids (registry descriptions). */
+    private List<FlaggedIssue> flaggedIssues;
+}
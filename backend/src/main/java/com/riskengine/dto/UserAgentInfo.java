@@ -0,0 +1,30 @@
+package com.riskengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Structured view of a User-Agent string (browser family/version, OS, device class).
+ * Instances are cached and shared across requests; treat as read-only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAgentInfo {
+
+    /** Chrome, Edge, Opera, SamsungBrowser, Firefox, Safari, HeadlessChrome, PhantomJS, Other. */
+    private String browserFamily;
+    /** Major version, 0 when unknown. */
+    private int browserMajor;
+    /** Windows, macOS, iOS, Android, ChromeOS, Linux, Other. */
+    private String os;
+    /** DESKTOP, MOBILE, TABLET, BOT. */
+    private String deviceClass;
+    /** Blink-based browser, which exposes window.chrome and (on desktop) the built-in PDF plugins. */
+    private boolean chromium;
+    /** UA itself advertises automation (HeadlessChrome, PhantomJS, crawler tokens). */
+    private boolean automation;
+}
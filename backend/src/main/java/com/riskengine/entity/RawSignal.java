@@ -12,7 +12,7 @@ import java.time.Instant;
 import java.util.Map;
 
 @Entity
-@Table(name = "raw_signals")
+@Table(name = "raw_signals", indexes = @Index(name = "idx_raw_signals_session_ts_id", columnList = "session_id, timestamp, id"))
 @Data
 @Builder
 @NoArgsConstructor
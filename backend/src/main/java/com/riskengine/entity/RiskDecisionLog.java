@@ -1,5 +1,8 @@
 package com.riskengine.entity;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.IssueCode;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "risk_decisions")
+@Table(name = "risk_decisions", indexes = @Index(name = "idx_risk_decisions_session_created_id", columnList = "session_id, created_at, id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -36,10 +39,20 @@ public class RiskDecisionLog {
     @Column(name = "decision", length = 20, nullable = false)
     private String decision;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "flagged_issues", columnDefinition = "jsonb")
-    private List<Map<String, Object>> flaggedIssues;
+    /** {@link IssueCode} ids in detection order (GIN-indexed in PostgreSQL, see schema.sql). */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "issue_codes", columnDefinition = "smallint array")
+    private short[] issueCodes;
 
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
+
+    /** Reads decisions written as JSON before issue codes were stored as ids (file store NDJSON). */
+    @JsonSetter("flaggedIssues")
+    void setLegacyFlaggedIssues(List<Map<String, Object>> flaggedIssues) {
+        if (issueCodes != null || flaggedIssues == null) return;
+        issueCodes = IssueCode.ids(flaggedIssues.stream()
+                .map(m -> FlaggedIssue.builder().code(String.valueOf(m.get("code"))).build())
+                .toList());
+    }
 }
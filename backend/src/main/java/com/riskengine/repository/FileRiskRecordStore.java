@@ -0,0 +1,196 @@
+package com.riskengine.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Append-only local file backend for edge deployments without a database: one NDJSON file per
+ * record type ({@code signals.ndjson}, {@code decisions.ndjson}) under {@code dir}. Records are
+ * serialized outside the lock; the append itself is a single channel write, optionally followed by
+ * fsync ({@code fsync=true} trades throughput for surviving power loss).
+ *
+ * On startup the files are replayed to rebuild the id counters and an in-memory summary index
+ * (session, time, scalar columns) used for timeline queries; full payloads stay on disk only. The
+ * index is a FIFO ring of {@code index-capacity} records per type, like the memory store, so its heap
+ * stays bounded however large the files grow; older records remain on disk but drop out of the
+ * timeline. A torn last line from a crash is skipped and newline-terminated so later appends stay
+ * readable.
+ */
+@Component
+@ConditionalOnProperty(name = "risk.engine.store.type", havingValue = "file")
+@Slf4j
+public class FileRiskRecordStore implements RiskRecordStore {
+
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final AppendLog<RawSignal, SignalSummary> signals;
+    private final AppendLog<RiskDecisionLog, DecisionSummary> decisions;
+
+    public FileRiskRecordStore(ObjectMapper objectMapper,
+                               @Value("${risk.engine.store.file.dir:data}") String dir,
+                               @Value("${risk.engine.store.file.fsync:false}") boolean fsync,
+                               @Value("${risk.engine.store.file.index-capacity:100000}") int indexCapacity) {
+        if (indexCapacity <= 0) throw new IllegalArgumentException("risk.engine.store.file.index-capacity must be positive");
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        this.signals = new AppendLog<>(Paths.get(dir, "signals.ndjson"), RawSignal.class, indexCapacity,
+                RawSignal::getId, RawSignal::getSessionId, SignalSummary::of, SignalSummary::at);
+        this.decisions = new AppendLog<>(Paths.get(dir, "decisions.ndjson"), RiskDecisionLog.class, indexCapacity,
+                RiskDecisionLog::getId, RiskDecisionLog::getSessionId, DecisionSummary::of, DecisionSummary::at);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        signals.open();
+        decisions.open();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        signals.close();
+        decisions.close();
+    }
+
+    @Override
+    public void saveSignal(RawSignal signal) {
+        signal.setId(signals.ids.incrementAndGet());
+        signals.append(signal);
+    }
+
+    @Override
+    public void saveDecision(RiskDecisionLog decision) {
+        decision.setId(decisions.ids.incrementAndGet());
+        decisions.append(decision);
+    }
+
+    @Override
+    public List<SignalSummary> signalSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return signals.index.newestBefore(sessionId, before, beforeId, limit, Indexed::summary);
+    }
+
+    @Override
+    public List<DecisionSummary> decisionSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return decisions.index.newestBefore(sessionId, before, beforeId, limit, Indexed::summary);
+    }
+
+    /** Index entry: the summary plus the session and (time, id) it is keyed by. */
+    private record Indexed<S>(String sessionId, Instant at, long id, S summary) {}
+
+    private final class AppendLog<T, S> {
+        final Path path;
+        final Class<T> type;
+        final Function<T, Long> idOf;
+        final Function<T, String> sessionOf;
+        final Function<T, S> summarize;
+        final Function<S, Instant> timeOf;
+        final SessionIndex<Indexed<S>> index;
+        final AtomicLong ids = new AtomicLong();
+        FileChannel channel;
+
+        AppendLog(Path path, Class<T> type, int indexCapacity, Function<T, Long> idOf, Function<T, String> sessionOf,
+                  Function<T, S> summarize, Function<S, Instant> timeOf) {
+            this.path = path;
+            this.type = type;
+            this.index = new SessionIndex<>(indexCapacity, Indexed::sessionId, Indexed::at, Indexed::id);
+            this.idOf = idOf;
+            this.sessionOf = sessionOf;
+            this.summarize = summarize;
+            this.timeOf = timeOf;
+        }
+
+        void open() throws IOException {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            long replayed = 0;
+            long skipped = 0;
+            if (Files.exists(path)) {
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) continue;
+                        try {
+                            T record = objectMapper.readValue(line, type);
+                            addToIndex(record);
+                            Long id = idOf.apply(record);
+                            if (id != null) ids.accumulateAndGet(id, Math::max);
+                            replayed++;
+                        } catch (IOException e) {
+                            skipped++;
+                        }
+                    }
+                }
+            }
+            boolean torn = endsMidLine();
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (torn) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+            log.atInfo().addKeyValue("event", "file_store_opened").addKeyValue("file", path.toString())
+                    .addKeyValue("records", replayed).addKeyValue("skipped", skipped)
+                    .log("File record store opened");
+        }
+
+        void append(T record) {
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+            synchronized (this) {
+                try {
+                    while (line.hasRemaining()) channel.write(line);
+                    if (fsync) channel.force(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("append to " + path + " failed", e);
+                }
+            }
+            addToIndex(record);
+        }
+
+        void close() throws IOException {
+            if (channel == null) return;
+            synchronized (this) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+
+        private void addToIndex(T record) {
+            S summary = summarize.apply(record);
+            Long id = idOf.apply(record);
+            index.add(new Indexed<>(sessionOf.apply(record), timeOf.apply(summary), id == null ? 0L : id, summary));
+        }
+
+        private boolean endsMidLine() throws IOException {
+            if (!Files.exists(path) || Files.size(path) == 0) return false;
+            try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                reader.read(last, reader.size() - 1);
+                return last.get(0) != '\n';
+            }
+        }
+    }
+}
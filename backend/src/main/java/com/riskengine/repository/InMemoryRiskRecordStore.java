@@ -0,0 +1,53 @@
+package com.riskengine.repository;
+
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory backend for dev, benchmarking and tests: the latest {@code capacity} signals and
+ * decisions are kept in FIFO rings, older ones are dropped. Nothing survives a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "risk.engine.store.type", havingValue = "memory")
+public class InMemoryRiskRecordStore implements RiskRecordStore {
+
+    private final AtomicLong signalIds = new AtomicLong();
+    private final AtomicLong decisionIds = new AtomicLong();
+    private final SessionIndex<RawSignal> signals;
+    private final SessionIndex<RiskDecisionLog> decisions;
+
+    public InMemoryRiskRecordStore(@Value("${risk.engine.store.memory.capacity:100000}") int capacity) {
+        this.signals = new SessionIndex<>(capacity, RawSignal::getSessionId, RawSignal::getTimestamp, RawSignal::getId);
+        this.decisions = new SessionIndex<>(capacity, RiskDecisionLog::getSessionId, RiskDecisionLog::getCreatedAt,
+                RiskDecisionLog::getId);
+    }
+
+    @Override
+    public void saveSignal(RawSignal signal) {
+        signal.setId(signalIds.incrementAndGet());
+        signals.add(signal);
+    }
+
+    @Override
+    public void saveDecision(RiskDecisionLog decision) {
+        decision.setId(decisionIds.incrementAndGet());
+        decisions.add(decision);
+    }
+
+    @Override
+    public List<SignalSummary> signalSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return signals.newestBefore(sessionId, before, beforeId, limit, SignalSummary::of);
+    }
+
+    @Override
+    public List<DecisionSummary> decisionSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return decisions.newestBefore(sessionId, before, beforeId, limit, DecisionSummary::of);
+    }
+}
@@ -0,0 +1,49 @@
+package com.riskengine.repository;
+
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Default backend: the JPA repositories on PostgreSQL. Summaries use the projection queries, so no
+ * JSONB is read.
+ */
+@Component
+@ConditionalOnProperty(name = "risk.engine.store.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRiskRecordStore implements RiskRecordStore {
+
+    private final RawSignalRepository rawSignalRepository;
+    private final RiskDecisionRepository riskDecisionRepository;
+
+    @Override
+    public void saveSignal(RawSignal signal) {
+        rawSignalRepository.save(signal);
+    }
+
+    @Override
+    public void saveDecision(RiskDecisionLog decision) {
+        riskDecisionRepository.save(decision);
+    }
+
+    @Override
+    public List<SignalSummary> signalSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return rawSignalRepository.findSummaries(sessionId, before, beforeId, PageRequest.of(0, limit)).stream()
+                .map(s -> new SignalSummary(s.getId(), s.getAt(), s.getUserId()))
+                .toList();
+    }
+
+    @Override
+    public List<DecisionSummary> decisionSummaries(String sessionId, Instant before, long beforeId, int limit) {
+        return riskDecisionRepository.findSummaries(sessionId, before, beforeId, PageRequest.of(0, limit)).stream()
+                .map(d -> new DecisionSummary(d.getId(), d.getAt(), d.getUserId(), d.getRiskScore(), d.getDecision(),
+                        d.getIssueCodes()))
+                .toList();
+    }
+}
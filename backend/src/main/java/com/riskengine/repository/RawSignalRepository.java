@@ -1,13 +1,30 @@
 package com.riskengine.repository;
 
 import com.riskengine.entity.RawSignal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface RawSignalRepository extends JpaRepository<RawSignal, Long> {
 
     List<RawSignal> findBySessionId(String sessionId);
+
+    /** Timeline projection: scalar columns only (no signal_json), (time, id) keyset, served by idx_raw_signals_session_ts_id. */
+    @Query("select s.id as id, s.timestamp as at, s.userId as userId from RawSignal s "
+            + "where s.sessionId = :sessionId and (s.timestamp < :before or (s.timestamp = :before and s.id < :beforeId)) "
+            + "order by s.timestamp desc, s.id desc")
+    List<SignalSummary> findSummaries(@Param("sessionId") String sessionId, @Param("before") Instant before,
+                                      @Param("beforeId") long beforeId, Pageable page);
+
+    interface SignalSummary {
+        Long getId();
+        Instant getAt();
+        String getUserId();
+    }
 }
@@ -1,13 +1,35 @@
 package com.riskengine.repository;
 
 import com.riskengine.entity.RiskDecisionLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface RiskDecisionRepository extends JpaRepository<RiskDecisionLog, Long> {
 
     List<RiskDecisionLog> findBySessionId(String sessionId);
+
+    /** Timeline projection: scalar columns and issue ids, (time, id) keyset, served by idx_risk_decisions_session_created_id. */
+    @Query("select d.id as id, d.createdAt as at, d.userId as userId, d.riskScore as riskScore, d.decision as decision, "
+            + "d.issueCodes as issueCodes "
+            + "from RiskDecisionLog d where d.sessionId = :sessionId "
+            + "and (d.createdAt < :before or (d.createdAt = :before and d.id < :beforeId)) "
+            + "order by d.createdAt desc, d.id desc")
+    List<DecisionSummary> findSummaries(@Param("sessionId") String sessionId, @Param("before") Instant before,
+                                        @Param("beforeId") long beforeId, Pageable page);
+
+    interface DecisionSummary {
+        Long getId();
+        Instant getAt();
+        String getUserId();
+        Integer getRiskScore();
+        String getDecision();
+        short[] getIssueCodes();
+    }
 }
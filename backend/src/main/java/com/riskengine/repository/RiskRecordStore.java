@@ -0,0 +1,52 @@
+package com.riskengine.repository;
+
+import com.riskengine.entity.RawSignal;
+import com.riskengine.entity.RiskDecisionLog;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Storage SPI for raw signal and decision records. The backend is chosen with
+ * {@code risk.engine.store.type}: {@code jpa} (default, PostgreSQL via Spring Data), {@code memory}
+ * (bounded ring, nothing survives a restart) or {@code file} (append-only NDJSON on local disk).
+ *
+ * Implementations assign increasing ids on save and must be safe for concurrent use. Summary queries
+ * page by the (time, id) keyset: they return records of one session that sort before the cursor,
+ * {@code at < before || (at == before && id < beforeId)}, ordered by time then id descending, at most
+ * {@code limit}. Timestamps are not unique, so paging on time alone would skip or repeat ties.
+ */
+public interface RiskRecordStore {
+
+    void saveSignal(RawSignal signal);
+
+    void saveDecision(RiskDecisionLog decision);
+
+    List<SignalSummary> signalSummaries(String sessionId, Instant before, long beforeId, int limit);
+
+    List<DecisionSummary> decisionSummaries(String sessionId, Instant before, long beforeId, int limit);
+
+    /** Records strictly older than {@code before}. */
+    default List<SignalSummary> signalSummaries(String sessionId, Instant before, int limit) {
+        return signalSummaries(sessionId, before, Long.MIN_VALUE, limit);
+    }
+
+    /** Records strictly older than {@code before}. */
+    default List<DecisionSummary> decisionSummaries(String sessionId, Instant before, int limit) {
+        return decisionSummaries(sessionId, before, Long.MIN_VALUE, limit);
+    }
+
+    record SignalSummary(Long id, Instant at, String userId) {
+        static SignalSummary of(RawSignal s) {
+            return new SignalSummary(s.getId(), s.getTimestamp(), s.getUserId());
+        }
+    }
+
+    /** {@code issueCodes} are {@link com.riskengine.dto.IssueCode} ids, resolved by the reader. */
+    record DecisionSummary(Long id, Instant at, String userId, Integer riskScore, String decision, short[] issueCodes) {
+        static DecisionSummary of(RiskDecisionLog d) {
+            return new DecisionSummary(d.getId(), d.getCreatedAt(), d.getUserId(), d.getRiskScore(), d.getDecision(),
+                    d.getIssueCodes());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.riskengine.repository;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-session, insertion-ordered index of records for the non-JPA stores. With a capacity it is a
+ * FIFO ring: the oldest record overall is dropped first, which is always the head of its session's
+ * queue, so eviction is O(1). Capacity ≤ 0 means unbounded. Records without a session are counted
+ * towards capacity but not queryable. Ids grow with insertion, so each session queue is in id order.
+ * Thread-safe.
+ */
+final class SessionIndex<T> {
+
+    private final int capacity;
+    private final Function<T, String> sessionOf;
+    private final Function<T, Instant> timeOf;
+    private final ToLongFunction<T> idOf;
+    private final ArrayDeque<T> order = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<T>> bySession = new HashMap<>();
+
+    SessionIndex(int capacity, Function<T, String> sessionOf, Function<T, Instant> timeOf, ToLongFunction<T> idOf) {
+        this.capacity = capacity;
+        this.sessionOf = sessionOf;
+        this.timeOf = timeOf;
+        this.idOf = idOf;
+    }
+
+    synchronized void add(T record) {
+        if (capacity > 0) {
+            if (order.size() >= capacity) evictOldest();
+            order.addLast(record);
+        }
+        String session = sessionOf.apply(record);
+        if (session != null) bySession.computeIfAbsent(session, k -> new ArrayDeque<>()).addLast(record);
+    }
+
+    /** Records of the session before the (time, id) cursor, newest first, mapped and cut to {@code limit}. */
+    synchronized <R> List<R> newestBefore(String sessionId, Instant before, long beforeId, int limit, Function<T, R> mapper) {
+        ArrayDeque<T> queue = sessionId == null ? null : bySession.get(sessionId);
+        if (queue == null) return List.of();
+        List<R> out = new ArrayList<>(Math.min(limit, queue.size()));
+        Iterator<T> it = queue.descendingIterator();
+        while (it.hasNext() && out.size() < limit) {
+            T record = it.next();
+            int cmp = timeOf.apply(record).compareTo(before);
+            if (cmp < 0 || (cmp == 0 && idOf.applyAsLong(record) < beforeId)) out.add(mapper.apply(record));
+        }
+        return out;
+    }
+
+    synchronized int size() {
+        return capacity > 0 ? order.size() : bySession.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    private void evictOldest() {
+        T oldest = order.pollFirst();
+        String session = sessionOf.apply(oldest);
+        if (session == null) return;
+        ArrayDeque<T> queue = bySession.get(session);
+        queue.pollFirst();
+        if (queue.isEmpty()) bySession.remove(session);
+    }
+}
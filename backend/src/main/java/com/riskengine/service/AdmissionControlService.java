@@ -0,0 +1,149 @@
+package com.riskengine.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive admission control for the evaluation + persistence stages.
+ *
+ * The concurrency limit follows AIMD on observed stage latency: every call that finishes under
+ * {@code target-latency-ms} while the limit is at least half used adds {@code 1/limit}, so the
+ * limit grows by about one slot per round trip (a full window of calls); a slower or failed
+ * call multiplies the limit by {@code backoff-ratio}, at most once per round trip: only a call
+ * admitted after the previous decrease can trigger the next one, since calls already in flight
+ * reflect the congestion that caused it (as TCP reacts once per window of losses). When Postgres
+ * slows down the limit shrinks and excess collect traffic is shed instead of piling up on Tomcat
+ * threads and Hikari connections.
+ *
+ * Priority: the COLLECT lane may only use {@code collect-share} of the limit, so LOGIN always has
+ * headroom. LOGIN is never shed; it only counts toward in-flight load and does not move the limit,
+ * so only the COLLECT lane has a shed counter.
+ */
+@Service
+public class AdmissionControlService {
+
+    public enum Lane { LOGIN, COLLECT }
+
+    /** Degraded response for shed collect/evaluate calls. */
+    public enum ShedMode {
+        /** Normalize and score, but skip both writes. */
+        SCORE_ONLY,
+        /** Skip the pipeline and return the policy decision (MFA). */
+        MFA
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final double collectShare;
+    private final ShedMode shedMode;
+
+    private volatile double limit;
+    /** Start of the round trip that last cut the limit; guarded by {@code this}. */
+    private long lastDecreaseNanos = System.nanoTime();
+    private final AtomicInteger totalInflight = new AtomicInteger();
+    private final Map<Lane, AtomicInteger> inflight = new EnumMap<>(Lane.class);
+    private final Counter collectShed;
+
+    public AdmissionControlService(@Value("${risk.engine.admission.initial-limit:50}") int initialLimit,
+                                   @Value("${risk.engine.admission.min-limit:5}") int minLimit,
+                                   @Value("${risk.engine.admission.max-limit:200}") int maxLimit,
+                                   @Value("${risk.engine.admission.target-latency-ms:150}") long targetLatencyMs,
+                                   @Value("${risk.engine.admission.backoff-ratio:0.9}") double backoffRatio,
+                                   @Value("${risk.engine.admission.collect-share:0.8}") double collectShare,
+                                   @Value("${risk.engine.admission.shed-mode:SCORE_ONLY}") ShedMode shedMode,
+                                   MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.collectShare = collectShare;
+        this.shedMode = shedMode;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("risk.admission.limit", this, s -> s.limit)
+                .description("Current adaptive concurrency limit").register(meterRegistry);
+        for (Lane lane : Lane.values()) {
+            AtomicInteger count = new AtomicInteger();
+            inflight.put(lane, count);
+            Gauge.builder("risk.admission.inflight", count, AtomicInteger::get)
+                    .tag("lane", lane.name().toLowerCase(Locale.ROOT)).register(meterRegistry);
+        }
+        this.collectShed = Counter.builder("risk.admission.shed")
+                .tag("lane", Lane.COLLECT.name().toLowerCase(Locale.ROOT))
+                .description("Requests served with the degraded response").register(meterRegistry);
+    }
+
+    public ShedMode getShedMode() {
+        return shedMode;
+    }
+
+    /**
+     * Non-blocking admission. Returns a permit to release when the guarded stages finish,
+     * or null when the request must be shed.
+     */
+    public Permit tryAcquire(Lane lane) {
+        AtomicInteger laneCount = inflight.get(lane);
+        if (lane == Lane.COLLECT) {
+            int cap = Math.max(1, (int) (limit * collectShare));
+            if (laneCount.incrementAndGet() > cap) {
+                laneCount.decrementAndGet();
+                collectShed.increment();
+                return null;
+            }
+            if (totalInflight.incrementAndGet() > (int) limit) {
+                totalInflight.decrementAndGet();
+                laneCount.decrementAndGet();
+                collectShed.increment();
+                return null;
+            }
+        } else {
+            laneCount.incrementAndGet();
+            totalInflight.incrementAndGet();
+        }
+        return new Permit(lane, System.nanoTime());
+    }
+
+    private void onComplete(Permit permit, boolean success) {
+        int inflightAtEnd = totalInflight.getAndDecrement();
+        inflight.get(permit.lane).decrementAndGet();
+        if (permit.lane != Lane.COLLECT) return;
+        long now = System.nanoTime();
+        long latency = now - permit.startNanos;
+        synchronized (this) {
+            if (!success || latency > targetLatencyNanos) {
+                // Admitted before the last cut: that cut already accounts for this call's congestion
+                if (permit.startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inflightAtEnd * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    /** Admission slot; call {@link #release(boolean)} exactly once. */
+    public final class Permit {
+        private final Lane lane;
+        private final long startNanos;
+
+        private Permit(Lane lane, long startNanos) {
+            this.lane = lane;
+            this.startNanos = startNanos;
+        }
+
+        public void release(boolean success) {
+            onComplete(this, success);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.riskengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.riskengine.dto.AuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, sampled audit log for per-request events.
+ *
+ * The request thread only decides sampling and enqueues the event object: no formatting, no I/O,
+ * no locks. The queue is a lock-free linked queue bounded by a CAS size counter; when full the
+ * event is dropped and counted instead of blocking. A single writer thread renders each event as
+ * one JSON line to the {@code audit} logger (see logback-spring.xml for its file appender).
+ *
+ * Clean {@code ALLOW} evaluations (no flagged issues, no suspicious referrer, not degraded) are
+ * kept with probability {@code allow-sample-rate}; everything else is always kept. Outcomes are
+ * counted in {@code risk.audit.events{result=written|sampled_out|dropped|failed}}.
+ */
+@Service
+@Slf4j
+public class AuditLogger {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("audit");
+
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final double allowSampleRate;
+    private final int capacity;
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter written;
+    private final Counter sampledOut;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public AuditLogger(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${risk.engine.audit.enabled:true}") boolean enabled,
+                       @Value("${risk.engine.audit.allow-sample-rate:0.1}") double allowSampleRate,
+                       @Value("${risk.engine.audit.queue-capacity:65536}") int capacity) {
+        this.writer = objectMapper.writerFor(AuditEvent.class);
+        this.enabled = enabled;
+        this.allowSampleRate = allowSampleRate;
+        this.capacity = capacity;
+        this.written = counter(meterRegistry, "written", "Audit events written");
+        this.sampledOut = counter(meterRegistry, "sampled_out", "Clean ALLOW events skipped by sampling");
+        this.dropped = counter(meterRegistry, "dropped", "Audit events dropped because the queue was full");
+        this.failed = counter(meterRegistry, "failed", "Audit events that could not be serialized");
+        Gauge.builder("risk.audit.queue.size", size, AtomicInteger::get)
+                .description("Audit events waiting to be written").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        worker = new Thread(this::runLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) return;
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /** Samples and enqueues without blocking; never throws on the request path. */
+    public void record(AuditEvent event) {
+        if (!enabled) return;
+        if (isCleanAllow(event) && allowSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= allowSampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(event);
+    }
+
+    private static boolean isCleanAllow(AuditEvent e) {
+        return "ALLOW".equals(e.getDecision())
+                && (e.getIssueCodes() == null || e.getIssueCodes().isEmpty())
+                && !Boolean.TRUE.equals(e.getSuspiciousReferrer())
+                && !Boolean.TRUE.equals(e.getDegraded());
+    }
+
+    private void runLoop() {
+        while (running || !queue.isEmpty()) {
+            AuditEvent event = queue.poll();
+            if (event == null) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                continue;
+            }
+            size.decrementAndGet();
+            try {
+                AUDIT.info(writer.writeValueAsString(event));
+                written.increment();
+            } catch (JsonProcessingException e) {
+                failed.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.atWarn().addKeyValue("event", "audit_write_failed").log(e.getMessage());
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String description) {
+        return Counter.builder("risk.audit.events").tag("result", result).description(description).register(registry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.riskengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.riskengine.dto.RiskResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suppresses duplicate /risk/collect submissions (page reloads, SPA navigations, retrying proxies).
+ * Key = sessionId + 64-bit hash of the canonical payload without {@code timestamp} (plus the Referer
+ * header, which feeds the referrer check when the body has none). A hit returns the previous
+ * {@link RiskResponse} without re-scoring or re-persisting.
+ *
+ * Storage is two rotating generations: lookups check current then previous, and the previous one is
+ * discarded wholesale on rotation, so expiry costs nothing per entry and memory is capped at
+ * 2 × max-entries.
+ */
+@Service
+public class CollectDedupService {
+
+    @Value("${risk.engine.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk.engine.dedup.window-ms:30000}")
+    private long windowMs;
+
+    @Value("${risk.engine.dedup.max-entries:100000}")
+    private int maxEntries;
+
+    private final ObjectWriter canonicalWriter;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Generation current = new Generation(System.currentTimeMillis());
+    private volatile Generation previous = new Generation(0);
+
+    public CollectDedupService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.hits = Counter.builder("risk.collect.dedup").tag("result", "suppressed")
+                .description("Collect payloads answered from the dedup window").register(meterRegistry);
+        this.misses = Counter.builder("risk.collect.dedup").tag("result", "evaluated")
+                .description("Collect payloads evaluated in full").register(meterRegistry);
+    }
+
+    /** Dedup key for the payload, or null when dedup is off or the payload has no sessionId. */
+    public String keyOf(Map<String, Object> payload, String headerReferrer) {
+        if (!enabled || payload == null) return null;
+        Object sessionId = payload.get("sessionId");
+        if (sessionId == null) return null;
+        Map<String, Object> canonical = new HashMap<>(payload);
+        canonical.remove("timestamp");
+        if (headerReferrer != null) canonical.put("__referer", headerReferrer);
+        try {
+            return sessionId + ":" + Long.toHexString(fnv1a64(canonicalWriter.writeValueAsBytes(canonical)));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /** Previous response for this key if seen within the window; counts the lookup as suppressed or evaluated. */
+    public RiskResponse lookup(String key) {
+        if (key == null) return null;
+        long now = System.currentTimeMillis();
+        rotateIfDue(now);
+        Entry e = current.entries.get(key);
+        if (e == null) e = previous.entries.get(key);
+        if (e != null && now - e.createdAt <= windowMs) {
+            hits.increment();
+            return e.response;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void remember(String key, RiskResponse response) {
+        if (key == null || response == null) return;
+        long now = System.currentTimeMillis();
+        rotateIfDue(now);
+        current.entries.put(key, new Entry(response, now));
+    }
+
+    private void rotateIfDue(long now) {
+        Generation cur = current;
+        if (now - cur.startedAt < windowMs && cur.entries.size() < maxEntries) return;
+        synchronized (this) {
+            if (current != cur) return;
+            previous = cur;
+            current = new Generation(now);
+        }
+    }
+
+    private static long fnv1a64(byte[] data) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private record Entry(RiskResponse response, long createdAt) {}
+
+    private static final class Generation {
+        final long startedAt;
+        final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+        Generation(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
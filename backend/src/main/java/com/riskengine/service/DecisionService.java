@@ -1,16 +1,16 @@
 package com.riskengine.service;
 
+import com.riskengine.dto.CompactSignals;
 import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.IssueCode;
 import com.riskengine.dto.SignalRequest;
 import com.riskengine.entity.RawSignal;
 import com.riskengine.entity.RiskDecisionLog;
-import com.riskengine.repository.RawSignalRepository;
-import com.riskengine.repository.RiskDecisionRepository;
+import com.riskengine.repository.RiskRecordStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,12 +19,16 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DecisionService {
 
-    private final RawSignalRepository rawSignalRepository;
-    private final RiskDecisionRepository riskDecisionRepository;
+    private final RiskRecordStore riskRecordStore;
+    private final SessionTimelineService sessionTimelineService;
 
     public String decide(int riskScore) {
-        if (riskScore < 30) return "ALLOW";
-        if (riskScore < 70) return "MFA";
+        return decide(riskScore, ScoringProfile.LIVE);
+    }
+
+    public String decide(int riskScore, ScoringProfile profile) {
+        if (riskScore < profile.get(ScoringProfile.Param.MFA_AT)) return "ALLOW";
+        if (riskScore < profile.get(ScoringProfile.Param.TERMINATE_AT)) return "MFA";
         return "TERMINATE";
     }
 
@@ -32,74 +36,77 @@ public class DecisionService {
      * Persists raw signals. When rawPayload is provided (from /risk/collect), stores full payload for auditing.
      */
     public void persistRawSignals(SignalRequest request, Map<String, Object> rawPayload) {
-        Map<String, Object> signalJson = rawPayload != null ? new HashMap<>(rawPayload) : toSignalMap(request);
+        persistRawSignals(CompactSignals.from(request), rawPayload);
+    }
+
+    public void persistRawSignals(CompactSignals signals, Map<String, Object> rawPayload) {
+        persistRawSignals(signals.getSessionId(), signals.getUserId(), rawPayload != null ? rawPayload : toSignalMap(signals));
+    }
+
+    /** Stores a copy of {@code signalJson}; takes no {@link CompactSignals}, so callers may reuse theirs. */
+    public void persistRawSignals(String sessionId, String userId, Map<String, Object> signalJson) {
         RawSignal entity = RawSignal.builder()
-                .sessionId(request.getSessionId())
-                .userId(request.getUserId())
+                .sessionId(sessionId)
+                .userId(userId)
                 .timestamp(Instant.now())
-                .signalJson(signalJson)
+                .signalJson(new HashMap<>(signalJson))
                 .build();
-        rawSignalRepository.save(entity);
+        riskRecordStore.saveSignal(entity);
+        sessionTimelineService.evict(sessionId);
     }
 
     public void persistDecision(String sessionId, String userId, int riskScore, String decision,
                                 List<FlaggedIssue> flaggedIssues) {
-        List<Map<String, Object>> issuesJson = flaggedIssues != null ? toIssuesMapList(flaggedIssues) : null;
         RiskDecisionLog log = RiskDecisionLog.builder()
                 .sessionId(sessionId)
                 .userId(userId)
                 .riskScore(riskScore)
                 .decision(decision)
-                .flaggedIssues(issuesJson)
+                .issueCodes(flaggedIssues != null ? IssueCode.ids(flaggedIssues) : null)
                 .createdAt(Instant.now())
                 .build();
-        riskDecisionRepository.save(log);
+        riskRecordStore.saveDecision(log);
+        sessionTimelineService.evict(sessionId);
     }
 
-    private static List<Map<String, Object>> toIssuesMapList(List<FlaggedIssue> issues) {
-        List<Map<String, Object>> list = new ArrayList<>();
-        for (FlaggedIssue i : issues) {
-            Map<String, Object> m = new HashMap<>();
-            m.put("code", i.getCode());
-            m.put("description", i.getDescription());
-            m.put("severity", i.getSeverity());
-            list.add(m);
-        }
-        return list;
+    public static Map<String, Object> toSignalMap(SignalRequest r) {
+        return toSignalMap(CompactSignals.from(r));
     }
 
-    private static Map<String, Object> toSignalMap(SignalRequest r) {
+    /** Stored JSON shape of a legacy /risk/evaluate submission; unreported fields are null. */
+    public static Map<String, Object> toSignalMap(CompactSignals s) {
         Map<String, Object> m = new HashMap<>();
-        m.put("sessionId", r.getSessionId());
-        m.put("userId", r.getUserId());
-        m.put("webdriverFlag", r.getWebdriverFlag());
-        m.put("pageOrigin", r.getPageOrigin());
-        m.put("pageOriginNotFromOrg", r.getPageOriginNotFromOrg());
-        m.put("referrerUrl", r.getReferrerUrl());
-        if (r.getIframeSignals() != null) {
+        m.put("sessionId", s.getSessionId());
+        m.put("userId", s.getUserId());
+        m.put("webdriverFlag", s.flag(CompactSignals.WEBDRIVER));
+        m.put("pageOrigin", s.getPageOrigin());
+        m.put("pageOriginNotFromOrg", s.flag(CompactSignals.PAGE_ORIGIN_NOT_FROM_ORG));
+        m.put("referrerUrl", s.getReferrerUrl());
+        if (s.has(CompactSignals.IFRAME_SIGNALS)) {
             Map<String, Object> iframe = new HashMap<>();
-            iframe.put("total", r.getIframeSignals().getTotal());
-            iframe.put("suspicious", r.getIframeSignals().getSuspicious());
-            iframe.put("hidden", r.getIframeSignals().getHidden());
-            iframe.put("offscreen", r.getIframeSignals().getOffscreen());
-            iframe.put("crossOrigin", r.getIframeSignals().getCrossOrigin());
-            iframe.put("notFromOrg", r.getIframeSignals().getNotFromOrg());
+            iframe.put("total", s.getIframeTotal());
+            iframe.put("suspicious", s.getIframeSuspicious());
+            iframe.put("hidden", s.getIframeHidden());
+            iframe.put("offscreen", s.getIframeOffscreen());
+            iframe.put("crossOrigin", s.getIframeCrossOrigin());
+            iframe.put("notFromOrg", s.getIframeNotFromOrg());
             m.put("iframeSignals", iframe);
         }
-        m.put("fetchOverridden", r.getFetchOverridden());
-        m.put("userAgent", r.getUserAgent());
-        m.put("screenWidth", r.getScreenWidth());
-        m.put("screenHeight", r.getScreenHeight());
-        m.put("timezone", r.getTimezone());
-        m.put("clickIntervalAvg", r.getClickIntervalAvg());
-        m.put("functionTampered", r.getFunctionTampered());
-        m.put("iframeMismatch", r.getIframeMismatch());
-        m.put("storageBlocked", r.getStorageBlocked());
-        m.put("cspRestricted", r.getCspRestricted());
-        m.put("pluginsLength", r.getPluginsLength());
-        m.put("mimeTypesLength", r.getMimeTypesLength());
-        m.put("hasChrome", r.getHasChrome());
-        m.put("hasWebdriverScriptFn", r.getHasWebdriverScriptFn());
+        m.put("fetchOverridden", s.flag(CompactSignals.FETCH_OVERRIDDEN));
+        m.put("userAgent", s.getUserAgent());
+        m.put("screenWidth", s.has(CompactSignals.SCREEN_WIDTH) ? s.getScreenWidth() : null);
+        m.put("screenHeight", s.has(CompactSignals.SCREEN_HEIGHT) ? s.getScreenHeight() : null);
+        m.put("timezone", s.getTimezone());
+        m.put("clickIntervalAvg", s.has(CompactSignals.CLICK_INTERVAL_AVG) ? s.getClickIntervalAvg() : null);
+        m.put("functionTampered", s.flag(CompactSignals.FUNCTION_TAMPERED));
+        m.put("iframeMismatch", s.flag(CompactSignals.IFRAME_MISMATCH));
+        m.put("storageBlocked", s.flag(CompactSignals.STORAGE_BLOCKED));
+        m.put("cspRestricted", s.flag(CompactSignals.CSP_RESTRICTED));
+        m.put("pluginsLength", s.has(CompactSignals.PLUGINS_LENGTH) ? s.getPluginsLength() : null);
+        m.put("mimeTypesLength", s.has(CompactSignals.MIME_TYPES_LENGTH) ? s.getMimeTypesLength() : null);
+        m.put("hasChrome", s.flag(CompactSignals.HAS_CHROME));
+        m.put("hasWebdriverScriptFn", s.flag(CompactSignals.HAS_WEBDRIVER_SCRIPT_FN));
+        m.put("clientIp", s.getClientIp());
         return m;
     }
 }
@@ -0,0 +1,246 @@
+package com.riskengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.dto.DecisionEvent;
+import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.RiskResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Live feed of decisions for dashboards. Evaluations publish into one fixed-size broadcast ring
+ * (a sequence claim and one array store, and nothing at all while nobody is subscribed); every
+ * subscriber reads the ring from its own cursor on its own virtual thread and writes to its
+ * {@link Sink}. The ring is each subscriber's bounded buffer: one that falls more than
+ * {@code buffer-size} decisions behind (a slow browser tab) skips the oldest ones and is told how
+ * many, so a slow reader never blocks publishers or other readers.
+ *
+ * Each decision is serialized to JSON once, by the first subscriber that sends it, and shared.
+ * Subscribers wake every {@code flush-interval-ms} and send whatever arrived, so an idle viewer
+ * costs one timed park per interval. Subscriptions are capped at {@code max-subscribers}.
+ */
+@Service
+public class DecisionStreamService {
+
+    /** Where a subscription's decisions go; any IOException ends the subscription. */
+    public interface Sink {
+        void decision(long id, String json) throws IOException;
+
+        /** {@code count} decisions were skipped because this subscriber fell behind. */
+        void dropped(long count) throws IOException;
+
+        /** Nothing to send for a while; lets the transport notice a closed connection. */
+        void heartbeat() throws IOException;
+
+        /** Called once when the subscription ends for any reason. */
+        void close();
+    }
+
+    private static final class Entry {
+        final long seq;
+        final DecisionEvent event;
+        /** Benign race: concurrent subscribers may both serialize, and the results are equal. */
+        String json;
+
+        Entry(long seq, DecisionEvent event) {
+            this.seq = seq;
+            this.event = event;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<Entry> ring;
+    private final int capacity;
+    private final int mask;
+    private final long flushIntervalMs;
+    private final long heartbeatMs;
+    private final int maxSubscribers;
+    /** Next sequence to claim; slots below it are published or about to be. */
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final Counter published;
+    private final Counter dropped;
+
+    public DecisionStreamService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${risk.engine.stream.buffer-size:1024}") int bufferSize,
+                                 @Value("${risk.engine.stream.flush-interval-ms:250}") long flushIntervalMs,
+                                 @Value("${risk.engine.stream.heartbeat-ms:15000}") long heartbeatMs,
+                                 @Value("${risk.engine.stream.max-subscribers:500}") int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.mask = capacity - 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.flushIntervalMs = flushIntervalMs;
+        this.heartbeatMs = heartbeatMs;
+        this.maxSubscribers = maxSubscribers;
+        Gauge.builder("risk.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open decision stream subscriptions")
+                .register(meterRegistry);
+        this.published = Counter.builder("risk.stream.published")
+                .description("Decisions published to the decision stream")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("risk.stream.dropped")
+                .description("Decisions skipped for subscribers that fell a full buffer behind")
+                .register(meterRegistry);
+    }
+
+    /** Publishes an evaluation's outcome; returns immediately, and does nothing without subscribers. */
+    public void publish(RiskResponse response) {
+        if (subscriberCount.get() == 0) return;
+        List<FlaggedIssue> issues = response.getFlaggedIssues();
+        DecisionEvent event = DecisionEvent.builder()
+                .time(System.currentTimeMillis())
+                .sessionId(response.getSessionId())
+                .riskScore(response.getRiskScore())
+                .decision(response.getDecision())
+                .issueCodes(issues == null ? List.of() : issues.stream().map(FlaggedIssue::getCode).toList())
+                .degraded(response.getDegraded())
+                .build();
+        long seq = next.getAndIncrement();
+        ring.set((int) seq & mask, new Entry(seq, event));
+        published.increment();
+    }
+
+    /**
+     * Opens a subscription delivering decisions that match both filters (an empty set matches
+     * everything; issue filters match when any code matches). With {@code lastEventId} still in the
+     * buffer, delivery resumes right after it; otherwise it starts with the next decision. Returns
+     * null when {@code max-subscribers} subscriptions are open.
+     */
+    public Subscription subscribe(Set<String> decisions, Set<String> issueCodes, Long lastEventId, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        long head = next.get();
+        long from = lastEventId != null && lastEventId + 1 >= head - capacity && lastEventId < head ? lastEventId + 1 : head;
+        Subscription subscription = new Subscription(decisions, issueCodes, from, sink);
+        subscriptions.add(subscription);
+        subscription.thread = Thread.ofVirtual()
+                .name("decision-stream-" + subscriptionIds.incrementAndGet())
+                .start(subscription::pump);
+        return subscription;
+    }
+
+    @PreDestroy
+    void closeAll() {
+        for (Subscription subscription : subscriptions) subscription.close();
+    }
+
+    /** One subscriber's cursor into the ring and the virtual thread that sends from it. */
+    public final class Subscription {
+        private final Set<String> decisions;
+        private final Set<String> issueCodes;
+        private final Sink sink;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private long cursor;
+        private volatile Thread thread;
+
+        private Subscription(Set<String> decisions, Set<String> issueCodes, long cursor, Sink sink) {
+            this.decisions = decisions;
+            this.issueCodes = issueCodes;
+            this.cursor = cursor;
+            this.sink = sink;
+        }
+
+        /** Ends the subscription; safe to call more than once and from any thread. */
+        public void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            subscriptions.remove(this);
+            subscriberCount.decrementAndGet();
+            Thread t = thread;
+            if (t != null && t != Thread.currentThread()) t.interrupt();
+        }
+
+        private void pump() {
+            long lastSend = System.nanoTime();
+            try {
+                while (!closed.get()) {
+                    if (drain()) {
+                        lastSend = System.nanoTime();
+                    } else if (System.nanoTime() - lastSend >= TimeUnit.MILLISECONDS.toNanos(heartbeatMs)) {
+                        sink.heartbeat();
+                        lastSend = System.nanoTime();
+                    }
+                    Thread.sleep(flushIntervalMs);
+                }
+            } catch (IOException | InterruptedException e) {
+                // client went away or the subscription was closed
+            } finally {
+                close();
+                sink.close();
+            }
+        }
+
+        /** Sends everything published since the last call; true when anything was written. */
+        private boolean drain() throws IOException {
+            boolean sent = false;
+            long skipped = 0;
+            long head = next.get();
+            while (cursor < head) {
+                if (head - cursor > capacity) {
+                    skipped += head - capacity - cursor;
+                    cursor = head - capacity;
+                    continue;
+                }
+                Entry entry = ring.get((int) cursor & mask);
+                if (entry == null || entry.seq < cursor) break; // claimed but not yet stored
+                if (entry.seq > cursor) { // overwritten while we were reading
+                    skipped++;
+                    cursor++;
+                    continue;
+                }
+                cursor++;
+                if (matches(entry.event)) {
+                    skipped = reportSkipped(skipped);
+                    sink.decision(entry.seq, json(entry));
+                    sent = true;
+                }
+            }
+            reportSkipped(skipped);
+            return sent;
+        }
+
+        private long reportSkipped(long skipped) throws IOException {
+            if (skipped > 0) {
+                dropped.increment(skipped);
+                sink.dropped(skipped);
+            }
+            return 0;
+        }
+
+        private boolean matches(DecisionEvent event) {
+            if (!decisions.isEmpty() && !decisions.contains(event.getDecision())) return false;
+            if (issueCodes.isEmpty()) return true;
+            for (String code : event.getIssueCodes()) {
+                if (issueCodes.contains(code)) return true;
+            }
+            return false;
+        }
+    }
+
+    private String json(Entry entry) throws IOException {
+        String json = entry.json;
+        if (json == null) {
+            json = objectMapper.writeValueAsString(entry.event);
+            entry.json = json;
+        }
+        return json;
+    }
+}
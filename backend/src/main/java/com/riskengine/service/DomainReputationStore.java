@@ -0,0 +1,229 @@
+package com.riskengine.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Referrer domain reputation from local phishing/malware feeds.
+ *
+ * Feeds are plain text (one domain per line, '#' comments, hosts-file lines like
+ * "0.0.0.0 evil.com" accepted). All domains are packed into one sorted ASCII byte blob with an int
+ * offset table and a byte tier per entry (~25 bytes per domain, no per-entry objects). Lookups
+ * binary-search the host and each parent domain down to two labels, comparing in place without
+ * allocating. A reload builds a new snapshot and swaps one volatile reference, so readers never
+ * see a partial table.
+ */
+@Service
+@Slf4j
+public class DomainReputationStore {
+
+    /** Reputation tier; higher ordinal wins when a domain appears in several feeds. */
+    public enum Tier {
+        NONE, SUSPICIOUS, MALWARE, PHISHING
+    }
+
+    /** Comma-separated TIER=path pairs, e.g. PHISHING=/data/phishing.txt,MALWARE=/data/malware.txt */
+    @Value("${risk.engine.reputation.feeds:}")
+    private String feedsConfig;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Map<Path, Long> loadedMtimes = Map.of();
+
+    @PostConstruct
+    void init() {
+        reloadIfChanged();
+    }
+
+    /** Re-reads the feeds when any file's modification time changed since the last load. */
+    @Scheduled(fixedDelayString = "${risk.engine.reputation.reload-interval-ms:60000}",
+            initialDelayString = "${risk.engine.reputation.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        Map<Tier, Path> feeds = parseFeeds(feedsConfig);
+        if (feeds.isEmpty()) return;
+        Map<Path, Long> mtimes = new HashMap<>();
+        for (Path p : feeds.values()) {
+            try {
+                mtimes.put(p, Files.getLastModifiedTime(p).toMillis());
+            } catch (IOException e) {
+                mtimes.put(p, -1L);
+            }
+        }
+        if (mtimes.equals(loadedMtimes)) return;
+        long start = System.nanoTime();
+        Snapshot next = build(feeds);
+        snapshot = next;
+        loadedMtimes = mtimes;
+        log.atInfo().addKeyValue("event", "reputation_reloaded")
+                .addKeyValue("domains", next.size())
+                .addKeyValue("bytes", next.blob.length + 4L * next.offsets.length + next.tiers.length)
+                .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000)
+                .log("Domain reputation snapshot loaded");
+    }
+
+    /**
+     * Tier of the host or its closest listed parent domain (a.b.evil.com matches evil.com).
+     * Parents stop at two labels so a bare TLD never matches.
+     */
+    public Tier lookup(String host) {
+        if (host == null || host.isEmpty()) return Tier.NONE;
+        Snapshot s = snapshot;
+        if (s.size() == 0) return Tier.NONE;
+        String h = host;
+        for (int i = 0; i < h.length(); i++) {
+            if (h.charAt(i) > 0x7f) {
+                try {
+                    h = IDN.toASCII(h, IDN.ALLOW_UNASSIGNED);
+                } catch (IllegalArgumentException e) {
+                    return Tier.NONE;
+                }
+                break;
+            }
+        }
+        int end = h.length();
+        if (end > 0 && h.charAt(end - 1) == '.') end--;
+        int start = 0;
+        while (true) {
+            int idx = s.find(h, start, end);
+            if (idx >= 0) return Tier.values()[s.tiers[idx]];
+            int dot = h.indexOf('.', start);
+            if (dot < 0 || dot >= end) break;
+            int nextDot = h.indexOf('.', dot + 1);
+            if (nextDot < 0 || nextDot >= end) break; // parent would be a bare TLD
+            start = dot + 1;
+        }
+        return Tier.NONE;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    private static Map<Tier, Path> parseFeeds(String config) {
+        Map<Tier, Path> feeds = new LinkedHashMap<>();
+        if (config == null || config.isBlank()) return feeds;
+        for (String part : config.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) continue;
+            try {
+                feeds.put(Tier.valueOf(part.substring(0, eq).trim().toUpperCase()), Paths.get(part.substring(eq + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                log.atWarn().addKeyValue("event", "reputation_feed_invalid").addKeyValue("entry", part).log("Ignoring feed entry");
+            }
+        }
+        return feeds;
+    }
+
+    private static Snapshot build(Map<Tier, Path> feeds) {
+        Map<String, Tier> merged = new HashMap<>();
+        for (Map.Entry<Tier, Path> feed : feeds.entrySet()) {
+            try (BufferedReader r = Files.newBufferedReader(feed.getValue(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    String domain = normalizeFeedLine(line);
+                    if (domain != null) merged.merge(domain, feed.getKey(), (a, b) -> a.ordinal() >= b.ordinal() ? a : b);
+                }
+            } catch (IOException e) {
+                log.atWarn().addKeyValue("event", "reputation_feed_unreadable")
+                        .addKeyValue("path", feed.getValue().toString()).log(e.getMessage());
+            }
+        }
+        String[] domains = merged.keySet().toArray(new String[0]);
+        Arrays.sort(domains);
+        int totalBytes = 0;
+        for (String d : domains) totalBytes += d.length();
+        byte[] blob = new byte[totalBytes];
+        int[] offsets = new int[domains.length + 1];
+        byte[] tiers = new byte[domains.length];
+        int pos = 0;
+        for (int i = 0; i < domains.length; i++) {
+            offsets[i] = pos;
+            String d = domains[i];
+            for (int c = 0; c < d.length(); c++) blob[pos++] = (byte) d.charAt(c);
+            tiers[i] = (byte) merged.get(d).ordinal();
+        }
+        offsets[domains.length] = pos;
+        return new Snapshot(blob, offsets, tiers);
+    }
+
+    /** Lowercase ASCII domain from a feed line, or null for blanks/comments/invalid names. */
+    private static String normalizeFeedLine(String line) {
+        String s = line.trim();
+        int hash = s.indexOf('#');
+        if (hash >= 0) s = s.substring(0, hash).trim();
+        if (s.isEmpty()) return null;
+        int ws = s.lastIndexOf(' ');
+        if (ws < 0) ws = s.lastIndexOf('\t');
+        if (ws >= 0) s = s.substring(ws + 1);
+        if (s.startsWith("*.")) s = s.substring(2);
+        if (s.endsWith(".")) s = s.substring(0, s.length() - 1);
+        try {
+            s = IDN.toASCII(s, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return s.indexOf('.') > 0 ? s : null;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new byte[0], new int[]{0}, new byte[0]);
+
+        final byte[] blob;
+        final int[] offsets;
+        final byte[] tiers;
+
+        Snapshot(byte[] blob, int[] offsets, byte[] tiers) {
+            this.blob = blob;
+            this.offsets = offsets;
+            this.tiers = tiers;
+        }
+
+        int size() {
+            return tiers.length;
+        }
+
+        /** Binary search for host[from, to), ASCII case-folded; returns entry index or -1. */
+        int find(String host, int from, int to) {
+            int lo = 0;
+            int hi = tiers.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = compare(mid, host, from, to);
+                if (cmp < 0) lo = mid + 1;
+                else if (cmp > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        private int compare(int idx, String host, int from, int to) {
+            int a = offsets[idx];
+            int aEnd = offsets[idx + 1];
+            int b = from;
+            while (a < aEnd && b < to) {
+                int ca = blob[a] & 0xff;
+                int cb = host.charAt(b);
+                if (cb >= 'A' && cb <= 'Z') cb += 32;
+                if (ca != cb) return ca - cb;
+                a++;
+                b++;
+            }
+            return (aEnd - a) - (to - b);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.riskengine.service;
+
+import com.riskengine.util.LongIntHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory identity link graph for spotting account/device rings.
+ *
+ * Each evaluation links the user node with its device signature, stage2 fingerprint hash and (when
+ * the referrer is on a reputation feed) referrer host. Connectivity is kept with union-find (path
+ * halving + union by size), so an event costs O(α(n)). Nodes are 64-bit hashed keys in a primitive
+ * open-addressing map; per-node state is parallel int/byte arrays (parent, size, distinct users and
+ * the cluster's two highest scores from different users), about 35 bytes per node.
+ *
+ * The prior risk reported for a user excludes that user's own scores: each cluster keeps its highest
+ * score with the user that produced it, plus the highest score from any other user. A user's own high
+ * score therefore never flags their later evaluations, and a single-user cluster reports no prior risk.
+ *
+ * Keys are hashed before the graph lock is taken, and the lock is a {@link ReentrantLock}, so a
+ * virtual thread waiting for it does not pin its carrier; the critical section is a few array reads
+ * and writes.
+ *
+ * Union-find cannot delete edges, so expiry is generational: edges go into the current generation,
+ * features are read from the current and previous one, and every {@code window-ms} the previous
+ * generation is dropped. A link therefore lives between one and two windows.
+ *
+ * A generation holds at most {@code max-nodes} nodes. An event that would go past that rotates early:
+ * the previous generation is dropped and a new one started, so memory stays bounded at two full
+ * generations and, under that much traffic, links live less than a window. Rotations are counted in
+ * {@code risk.link-graph.rotations{reason=window|full}}.
+ */
+@Service
+public class IdentityLinkGraph {
+
+    private static final byte USER = 'u';
+    private static final byte DEVICE = 'd';
+    private static final byte FINGERPRINT = 'f';
+    private static final byte REFERRER = 'r';
+
+    /** Cluster features fed into scoring. */
+    public record ClusterFeatures(int distinctUsers, int maxPriorRisk) {
+        public static final ClusterFeatures NONE = new ClusterFeatures(0, 0);
+    }
+
+    /** Most nodes one event can add: user, device, fingerprint and referrer. */
+    private static final int NODES_PER_EVENT = 4;
+
+    private final long windowMs;
+    private final int maxNodes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter windowRotations;
+    private final Counter fullRotations;
+    private Generation current;
+    private Generation previous;
+
+    public IdentityLinkGraph(MeterRegistry meterRegistry,
+                             @Value("${risk.engine.link-graph.window-ms:86400000}") long windowMs,
+                             @Value("${risk.engine.link-graph.max-nodes:1000000}") int maxNodes) {
+        this.windowMs = windowMs;
+        this.maxNodes = Math.max(NODES_PER_EVENT, maxNodes);
+        this.windowRotations = Counter.builder("risk.link-graph.rotations").tag("reason", "window")
+                .description("Link graph generations rotated because the window elapsed")
+                .register(meterRegistry);
+        this.fullRotations = Counter.builder("risk.link-graph.rotations").tag("reason", "full")
+                .description("Link graph generations rotated early because they reached max-nodes")
+                .register(meterRegistry);
+        this.current = new Generation(System.currentTimeMillis(), this.maxNodes);
+        this.previous = new Generation(0, this.maxNodes);
+    }
+
+    /**
+     * Links this event's identifiers and returns the features of the resulting cluster
+     * (max over the current and previous generation). Null identifiers are skipped.
+     */
+    public ClusterFeatures observe(String userId, String deviceSignature, String fingerprintHash,
+                                   String referrerHost) {
+        if (userId == null || userId.isEmpty()) return ClusterFeatures.NONE;
+        long user = key(USER, userId);
+        long device = keyOrZero(DEVICE, deviceSignature);
+        long fingerprint = keyOrZero(FINGERPRINT, fingerprintHash);
+        long referrer = keyOrZero(REFERRER, referrerHost);
+        lock.lock();
+        try {
+            rotateIfDue();
+            int userNode = current.nodeOf(user, true);
+            int root = current.union(userNode, device);
+            root = current.union(root, fingerprint);
+            root = current.union(root, referrer);
+
+            int users = current.users[root];
+            int risk = current.priorRiskFor(root, userNode);
+            int prevNode = previous.ids.get(user, -1);
+            if (prevNode >= 0) {
+                int prevRoot = previous.find(prevNode);
+                users = Math.max(users, previous.users[prevRoot]);
+                risk = Math.max(risk, previous.priorRiskFor(prevRoot, prevNode));
+            }
+            return new ClusterFeatures(users, risk);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records the score of the user's latest evaluation on its cluster. */
+    public void recordRisk(String userId, int riskScore) {
+        if (userId == null || userId.isEmpty()) return;
+        long user = key(USER, userId);
+        lock.lock();
+        try {
+            int node = current.ids.get(user, -1);
+            if (node >= 0) current.recordRisk(current.find(node), node, Math.min(riskScore, 127));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - current.startedAt >= windowMs) {
+            windowRotations.increment();
+        } else if (current.count > maxNodes - NODES_PER_EVENT) {
+            fullRotations.increment();
+        } else {
+            return;
+        }
+        previous = current;
+        current = new Generation(now, maxNodes);
+    }
+
+    /** FNV-1a 64 over type byte + UTF-8 value; never 0 (no identifier) or the map's empty marker. */
+    private static long key(byte type, String value) {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ type) * 0x100000001b3L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return h == Long.MIN_VALUE || h == 0 ? h + 1 : h;
+    }
+
+    /** Key for an optional identifier, 0 when absent. */
+    private static long keyOrZero(byte type, String value) {
+        return value == null || value.isEmpty() ? 0 : key(type, value);
+    }
+
+    private static final class Generation {
+        final long startedAt;
+        final int maxNodes;
+        final LongIntHashMap ids = new LongIntHashMap(1024);
+        int[] parent = new int[1024];
+        int[] size = new int[1024];
+        int[] users = new int[1024];
+        /** Per root: highest score in the cluster and the user node that produced it. */
+        byte[] topRisk = new byte[1024];
+        int[] topRiskUser = new int[1024];
+        /** Per root: highest score from any user other than {@code topRiskUser}. */
+        byte[] otherRisk = new byte[1024];
+        int count;
+
+        Generation(long startedAt, int maxNodes) {
+            this.startedAt = startedAt;
+            this.maxNodes = maxNodes;
+        }
+
+        int nodeOf(long key, boolean isUser) {
+            int id = ids.get(key, -1);
+            if (id >= 0) return id;
+            if (count == parent.length) grow();
+            id = count++;
+            parent[id] = id;
+            size[id] = 1;
+            users[id] = isUser ? 1 : 0;
+            topRiskUser[id] = -1;
+            ids.put(key, id);
+            return id;
+        }
+
+        /** Highest score in root's cluster produced by a user other than {@code userNode}. */
+        int priorRiskFor(int root, int userNode) {
+            return topRiskUser[root] == userNode ? otherRisk[root] : topRisk[root];
+        }
+
+        void recordRisk(int root, int userNode, int risk) {
+            if (topRiskUser[root] == userNode) {
+                if (risk > topRisk[root]) topRisk[root] = (byte) risk;
+            } else if (risk > topRisk[root]) {
+                otherRisk[root] = topRisk[root];
+                topRisk[root] = (byte) risk;
+                topRiskUser[root] = userNode;
+            } else if (risk > otherRisk[root]) {
+                otherRisk[root] = (byte) risk;
+            }
+        }
+
+        /** Unions the node for {@code key} (0: none) with root's set; returns the new root. */
+        int union(int root, long key) {
+            root = find(root);
+            if (key == 0) return root;
+            int other = find(nodeOf(key, false));
+            if (other == root) return root;
+            if (size[root] < size[other]) {
+                int t = root;
+                root = other;
+                other = t;
+            }
+            parent[other] = root;
+            size[root] += size[other];
+            users[root] += users[other];
+            // A user node belongs to exactly one set, so the two sets' scores come from disjoint users
+            if (topRisk[other] > topRisk[root]) {
+                otherRisk[root] = (byte) Math.max(otherRisk[other], topRisk[root]);
+                topRisk[root] = topRisk[other];
+                topRiskUser[root] = topRiskUser[other];
+            } else {
+                otherRisk[root] = (byte) Math.max(otherRisk[root], topRisk[other]);
+            }
+            return root;
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        private void grow() {
+            // Only called below maxNodes, so this still grows
+            int n = Math.min(parent.length * 2, maxNodes);
+            parent = Arrays.copyOf(parent, n);
+            size = Arrays.copyOf(size, n);
+            users = Arrays.copyOf(users, n);
+            topRisk = Arrays.copyOf(topRisk, n);
+            topRiskUser = Arrays.copyOf(topRiskUser, n);
+            otherRisk = Arrays.copyOf(otherRisk, n);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.riskengine.service;
+
+import com.riskengine.util.CidrTrie;
+import com.riskengine.util.IpAddress;
+import com.riskengine.util.IpRangeTable;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client IP intelligence from local files: country and ASN per address, datacenter/hosting ASNs,
+ * CIDR blocklists (proxy, Tor, VPN, abuse) and the countries each IANA timezone is used in.
+ *
+ * <ul>
+ *   <li>ranges: ip2asn-style TSV ({@code start, end, asn, country[, description]}, IPv4 and IPv6)
+ *       compiled once into a sorted binary table under {@code table-dir} and memory-mapped
+ *       ({@link IpRangeTable}); a compiled table newer than its source is mapped directly on restart</li>
+ *   <li>hosting ASNs: one ASN per line ({@code 16509} or {@code AS16509}), held as a sorted int[]</li>
+ *   <li>blocklists: {@code CATEGORY=path} pairs, one IP or CIDR per line, merged into one
+ *       {@link CidrTrie} with a category bit per list</li>
+ *   <li>zone tabs: tzdata {@code zone1970.tab} / {@code zone.tab} (country codes per timezone)</li>
+ * </ul>
+ * Same reload model as {@link DomainReputationStore}: files are checked every
+ * {@code reload-interval-ms}, changed parts are rebuilt off the request path and one volatile
+ * snapshot reference is swapped, so lookups never pause or see a half-built structure.
+ */
+@Service
+@Slf4j
+public class IpIntelligenceService {
+
+    /** Blocklist category; the ordinal is the bit in {@link IpIntel#categories()}. */
+    public enum Category {
+        PROXY, TOR, VPN, ABUSE
+    }
+
+    /** What is known about one client IP. {@code asn} is 0 and {@code country} null when unknown. */
+    public record IpIntel(String country, int asn, boolean hosting, int categories) {
+        public static final IpIntel NONE = new IpIntel(null, 0, false, 0);
+    }
+
+    private record Snapshot(IpRangeTable ranges, int[] hostingAsns, CidrTrie blocklist, Map<String, Set<String>> zoneCountries) {
+        static final Snapshot EMPTY = new Snapshot(IpRangeTable.EMPTY, new int[0], CidrTrie.EMPTY, Map.of());
+    }
+
+    private final String rangesFile;
+    private final String hostingAsnsFile;
+    private final String blocklistsConfig;
+    private final String zoneTabsConfig;
+    private final Path tableDir;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private final Map<String, Map<Path, Long>> loadedMtimes = new HashMap<>();
+
+    public IpIntelligenceService(@Value("${risk.engine.ip.ranges:}") String rangesFile,
+                                 @Value("${risk.engine.ip.hosting-asns:}") String hostingAsnsFile,
+                                 @Value("${risk.engine.ip.blocklists:}") String blocklistsConfig,
+                                 @Value("${risk.engine.ip.zone-tabs:/usr/share/zoneinfo/zone1970.tab,/usr/share/zoneinfo/zone.tab}") String zoneTabsConfig,
+                                 @Value("${risk.engine.ip.table-dir:data/ip}") String tableDir) {
+        this.rangesFile = rangesFile;
+        this.hostingAsnsFile = hostingAsnsFile;
+        this.blocklistsConfig = blocklistsConfig;
+        this.zoneTabsConfig = zoneTabsConfig;
+        this.tableDir = Paths.get(tableDir);
+    }
+
+    @PostConstruct
+    void init() {
+        reloadIfChanged();
+    }
+
+    /** Rebuilds each part whose source files changed since the last load, then swaps the snapshot. */
+    @Scheduled(fixedDelayString = "${risk.engine.ip.reload-interval-ms:60000}",
+            initialDelayString = "${risk.engine.ip.reload-interval-ms:60000}")
+    public synchronized void reloadIfChanged() {
+        Snapshot current = snapshot;
+        IpRangeTable ranges = current.ranges();
+        int[] hostingAsns = current.hostingAsns();
+        CidrTrie blocklist = current.blocklist();
+        Map<String, Set<String>> zoneCountries = current.zoneCountries();
+
+        Map<Category, Path> blocklists = parseBlocklists(blocklistsConfig);
+        if (changed("ranges", paths(rangesFile))) ranges = loadRanges(Paths.get(rangesFile));
+        if (changed("hosting", paths(hostingAsnsFile))) hostingAsns = loadAsns(Paths.get(hostingAsnsFile));
+        if (changed("blocklists", List.copyOf(blocklists.values()))) blocklist = loadBlocklists(blocklists);
+        if (changed("zones", paths(zoneTabsConfig))) zoneCountries = loadZoneTabs(paths(zoneTabsConfig));
+
+        if (ranges != current.ranges() || hostingAsns != current.hostingAsns()
+                || blocklist != current.blocklist() || zoneCountries != current.zoneCountries()) {
+            snapshot = new Snapshot(ranges, hostingAsns, blocklist, zoneCountries);
+            log.atInfo().addKeyValue("event", "ip_intel_reloaded")
+                    .addKeyValue("ranges", ranges.size())
+                    .addKeyValue("hostingAsns", hostingAsns.length)
+                    .addKeyValue("blocklistNodes", blocklist.nodes())
+                    .addKeyValue("timezones", zoneCountries.size())
+                    .log("IP intelligence snapshot loaded");
+        }
+    }
+
+    /** Intel for an IP literal; {@link IpIntel#NONE} for null, unparsable or unknown addresses. */
+    public IpIntel lookup(String ip) {
+        long[] key = new long[2];
+        if (IpAddress.parse(ip, key) == 0) return IpIntel.NONE;
+        Snapshot s = snapshot;
+        long handle = s.ranges().find(key[0], key[1]);
+        int asn = handle < 0 ? 0 : s.ranges().asn(handle);
+        String country = handle < 0 ? null : s.ranges().country(handle);
+        boolean hosting = asn != 0 && Arrays.binarySearch(s.hostingAsns(), asn) >= 0;
+        int categories = s.blocklist().lookup(key[0], key[1]);
+        if (handle < 0 && categories == 0) return IpIntel.NONE;
+        return new IpIntel(country, asn, hosting, categories);
+    }
+
+    /**
+     * True when the IP's country is known, the browser timezone is a known zone, and that zone is
+     * not used in the IP's country. Unknown or generic zones (UTC, Etc/*) never contradict.
+     */
+    public boolean timezoneContradicts(IpIntel intel, String timezone) {
+        if (intel.country() == null || timezone == null || timezone.isEmpty()) return false;
+        Set<String> countries = snapshot.zoneCountries().get(timezone);
+        return countries != null && !countries.contains(intel.country());
+    }
+
+    /** Lowercase category names for a bitmask, in ordinal order. */
+    public static List<String> categoryNames(int mask) {
+        List<String> names = new ArrayList<>();
+        for (Category c : Category.values()) {
+            if ((mask & (1 << c.ordinal())) != 0) names.add(c.name().toLowerCase());
+        }
+        return names;
+    }
+
+    private IpRangeTable loadRanges(Path source) {
+        Path compiled = tableDir.resolve("ranges.bin");
+        try {
+            if (Files.exists(compiled)
+                    && Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+                return IpRangeTable.open(compiled);
+            }
+            IpRangeTable.Builder builder = new IpRangeTable.Builder();
+            long skipped = 0;
+            try (BufferedReader r = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("#")) continue;
+                    String[] f = line.split("[\t,]", 5);
+                    if (f.length < 4 || !builder.add(f[0].trim(), f[1].trim(), parseAsn(f[2]), f[3].trim())) skipped++;
+                }
+            }
+            Path tmp = compiled.resolveSibling("ranges.bin.tmp");
+            builder.write(tmp);
+            Files.move(tmp, compiled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (skipped > 0) {
+                log.atWarn().addKeyValue("event", "ip_ranges_rows_skipped").addKeyValue("rows", skipped)
+                        .log("Unparsable IP range rows ignored");
+            }
+            return IpRangeTable.open(compiled);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "ip_ranges_unreadable").addKeyValue("path", source.toString())
+                    .log(e.getMessage());
+            return snapshot.ranges();
+        }
+    }
+
+    private int[] loadAsns(Path source) {
+        try (BufferedReader r = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            return r.lines()
+                    .map(IpIntelligenceService::stripComment)
+                    .filter(line -> !line.isEmpty())
+                    .mapToInt(IpIntelligenceService::parseAsn)
+                    .filter(asn -> asn > 0)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        } catch (IOException | UncheckedIOException e) {
+            log.atWarn().addKeyValue("event", "ip_hosting_asns_unreadable").addKeyValue("path", source.toString())
+                    .log(e.getMessage());
+            return snapshot.hostingAsns();
+        }
+    }
+
+    private static CidrTrie loadBlocklists(Map<Category, Path> lists) {
+        CidrTrie.Builder builder = new CidrTrie.Builder();
+        for (Map.Entry<Category, Path> list : lists.entrySet()) {
+            int bit = 1 << list.getKey().ordinal();
+            try (BufferedReader r = Files.newBufferedReader(list.getValue(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    String cidr = stripComment(line);
+                    if (!cidr.isEmpty()) builder.add(cidr, bit);
+                }
+            } catch (IOException e) {
+                log.atWarn().addKeyValue("event", "ip_blocklist_unreadable")
+                        .addKeyValue("path", list.getValue().toString()).log(e.getMessage());
+            }
+        }
+        return builder.build();
+    }
+
+    /** Timezone → countries from tzdata tab files (first column may list several codes). */
+    private static Map<String, Set<String>> loadZoneTabs(List<Path> tabs) {
+        Map<String, Set<String>> zones = new HashMap<>();
+        for (Path tab : tabs) {
+            try (BufferedReader r = Files.newBufferedReader(tab, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    String[] f = line.split("\t");
+                    if (f.length < 3) continue;
+                    for (String cc : f[0].split(",")) {
+                        zones.computeIfAbsent(f[2], z -> new HashSet<>()).add(cc.trim().toUpperCase());
+                    }
+                }
+            } catch (IOException e) {
+                log.atWarn().addKeyValue("event", "zone_tab_unreadable").addKeyValue("path", tab.toString())
+                        .log(e.getMessage());
+            }
+        }
+        Map<String, Set<String>> frozen = new HashMap<>();
+        zones.forEach((zone, countries) -> frozen.put(zone, Set.copyOf(countries)));
+        return Map.copyOf(frozen);
+    }
+
+    /** Records the files' modification times under {@code part}; true when they differ from the last call. */
+    private boolean changed(String part, List<Path> files) {
+        Map<Path, Long> mtimes = new HashMap<>();
+        for (Path p : files) {
+            try {
+                mtimes.put(p, Files.getLastModifiedTime(p).toMillis());
+            } catch (IOException e) {
+                mtimes.put(p, -1L);
+            }
+        }
+        Map<Path, Long> previous = loadedMtimes.put(part, mtimes);
+        return previous == null ? !files.isEmpty() : !mtimes.equals(previous);
+    }
+
+    private static List<Path> paths(String config) {
+        if (config == null || config.isBlank()) return List.of();
+        return Arrays.stream(config.split(",")).map(String::trim).filter(s -> !s.isEmpty()).map(Paths::get).toList();
+    }
+
+    private static Map<Category, Path> parseBlocklists(String config) {
+        Map<Category, Path> lists = new LinkedHashMap<>();
+        if (config == null || config.isBlank()) return lists;
+        for (String part : config.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) continue;
+            try {
+                lists.put(Category.valueOf(part.substring(0, eq).trim().toUpperCase()), Paths.get(part.substring(eq + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                log.atWarn().addKeyValue("event", "ip_blocklist_invalid").addKeyValue("entry", part).log("Ignoring blocklist entry");
+            }
+        }
+        return lists;
+    }
+
+    private static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        return (hash >= 0 ? line.substring(0, hash) : line).trim();
+    }
+
+    private static int parseAsn(String text) {
+        String s = text.trim();
+        if (s.regionMatches(true, 0, "AS", 0, 2)) s = s.substring(2);
+        try {
+            return Integer.parseUnsignedInt(s);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
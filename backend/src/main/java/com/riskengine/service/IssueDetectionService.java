@@ -1,6 +1,7 @@
 package com.riskengine.service;
 
 import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.IssueCode;
 import com.riskengine.dto.NormalizedSignals;
 import com.riskengine.dto.SignalRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -11,127 +12,82 @@ import java.util.List;
 
 /**
  * Detects and flags malicious page / automation / bot signals based on risk-agent.js collected data.
+ * Codes, default severities and descriptions come from the {@link IssueCode} registry.
  */
 @Service
 @Slf4j
 public class IssueDetectionService {
 
     private static final String SEVERITY_CRITICAL = "CRITICAL";
-    private static final String SEVERITY_HIGH = "HIGH";
     private static final String SEVERITY_MEDIUM = "MEDIUM";
-    private static final String SEVERITY_LOW = "LOW";
 
     /**
      * Analyzes normalized signals and returns all flagged issues for display/auditing.
      */
     public List<FlaggedIssue> detectIssues(NormalizedSignals normalized, SignalRequest request) {
-        List<FlaggedIssue> issues = new ArrayList<>();
-
-        if (normalized.getWebdriverFlag() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("WEBDRIVER")
-                    .description("navigator.webdriver is true – automation/bot environment (Selenium, Puppeteer)")
-                    .severity(SEVERITY_CRITICAL)
-                    .build());
-        }
-
-        if (normalized.getWebdriverScriptFn() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("WEBDRIVER_SCRIPT_FN")
-                    .description("__webdriver_script_fn detected in document – Selenium/Puppeteer automation")
-                    .severity(SEVERITY_CRITICAL)
-                    .build());
-        }
-
-        if (normalized.getFunctionTampered() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("FUNCTION_TAMPERED")
-                    .description("Function.prototype.toString tampered – devtools or script injection")
-                    .severity(SEVERITY_HIGH)
-                    .build());
-        }
+        return detectIssues(normalized, Boolean.TRUE.equals(request.getCspRestricted()));
+    }
 
-        if (normalized.getIframeMismatch() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("IFRAME_MISMATCH")
-                    .description("Main window vs iframe have different userAgent/platform – sandbox or automation")
-                    .severity(SEVERITY_HIGH)
-                    .build());
-        }
+    /** As above; the CSP flag is the only issue input not carried by {@link NormalizedSignals}. */
+    public List<FlaggedIssue> detectIssues(NormalizedSignals normalized, boolean cspRestricted) {
+        List<FlaggedIssue> issues = new ArrayList<>();
 
-        if (normalized.getHeadlessBrowser() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("HEADLESS_BROWSER")
-                    .description("plugins.length=0 and mimeTypes.length=0 – headless Chrome or automation")
-                    .severity(SEVERITY_HIGH)
-                    .build());
+        if (normalized.getWebdriverFlag() == 1) issues.add(IssueCode.WEBDRIVER.issue());
+        if (normalized.getWebdriverScriptFn() == 1) issues.add(IssueCode.WEBDRIVER_SCRIPT_FN.issue());
+        if (normalized.getFunctionTampered() == 1) issues.add(IssueCode.FUNCTION_TAMPERED.issue());
+        if (normalized.getIframeMismatch() == 1) issues.add(IssueCode.IFRAME_MISMATCH.issue());
+        if (normalized.getHeadlessBrowser() == 1) issues.add(IssueCode.HEADLESS_BROWSER.issue());
+        if (normalized.getUaAutomationToken() == 1) issues.add(IssueCode.UA_AUTOMATION_TOKEN.issue());
+        if (normalized.getUaChromeObjectMissing() == 1) issues.add(IssueCode.UA_CHROME_OBJECT_MISSING.issue());
+        if (normalized.getUaChromeZeroPlugins() == 1) issues.add(IssueCode.UA_CHROME_ZERO_PLUGINS.issue());
+
+        if (normalized.getClusterUsers() >= ScoringProfile.LIVE.get(ScoringProfile.Param.RING_MIN_USERS)) {
+            issues.add(IssueCode.ACCOUNT_DEVICE_RING.issue(String.format(
+                    "Device/fingerprint/referrer shared by %d distinct users – possible account ring", normalized.getClusterUsers())));
         }
 
-        if (normalized.getStorageBlocked() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("STORAGE_BLOCKED")
-                    .description("localStorage/sessionStorage/cookies not working – incognito or restricted environment")
-                    .severity(SEVERITY_MEDIUM)
-                    .build());
+        if (normalized.getClusterPriorRisk() >= ScoringProfile.LIVE.get(ScoringProfile.Param.HIGH_RISK_CLUSTER_SCORE)) {
+            issues.add(IssueCode.LINKED_HIGH_RISK_CLUSTER.issue(
+                    String.format("Linked to identities previously scored %d", normalized.getClusterPriorRisk())));
         }
 
-        if (normalized.getPageOriginNotFromOrg() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("PAGE_ORIGIN_NOT_FROM_ORG")
-                    .description("Page origin host not in allowed org list – possible phishing or external page")
-                    .severity(SEVERITY_HIGH)
-                    .build());
-        }
+        if (normalized.getBaselineNewDevice() == 1) issues.add(IssueCode.NEW_DEVICE_FOR_USER.issue());
+        if (normalized.getBaselineNewTimezone() == 1) issues.add(IssueCode.NEW_TIMEZONE_FOR_USER.issue());
+        if (normalized.getBaselineRareAttribute() == 1) issues.add(IssueCode.RARE_ATTRIBUTE_FOR_USER.issue());
 
-        if (normalized.getReferrerNotFromOrg() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("SUSPICIOUS_REFERRER")
-                    .description("Referrer URL not from allowed org – possible phishing or malware redirect")
-                    .severity(SEVERITY_HIGH)
-                    .build());
+        if (normalized.getIpBlocklist() != 0) {
+            issues.add(IssueCode.IP_BLOCKLISTED.issue("Client IP listed as "
+                    + String.join("/", IpIntelligenceService.categoryNames(normalized.getIpBlocklist()))
+                    + " – anonymizing or abusive network"));
         }
 
-        if (normalized.getFetchOverridden() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("FETCH_OVERRIDDEN")
-                    .description("fetch API overridden – possible request interception or tampering")
-                    .severity(SEVERITY_HIGH)
-                    .build());
+        if (normalized.getIpHosting() == 1) issues.add(IssueCode.IP_HOSTING_ASN.issue());
+        if (normalized.getIpTimezoneMismatch() == 1) issues.add(IssueCode.IP_TIMEZONE_MISMATCH.issue());
+        if (normalized.getStorageBlocked() == 1) issues.add(IssueCode.STORAGE_BLOCKED.issue());
+        if (normalized.getPageOriginNotFromOrg() == 1) issues.add(IssueCode.PAGE_ORIGIN_NOT_FROM_ORG.issue());
+        if (normalized.getReferrerNotFromOrg() == 1) issues.add(IssueCode.SUSPICIOUS_REFERRER.issue());
+
+        if (normalized.getReferrerReputation() > 0) {
+            String tier = DomainReputationStore.Tier.values()[normalized.getReferrerReputation()].name();
+            issues.add(IssueCode.REFERRER_BAD_REPUTATION.issue(
+                    "Referrer domain listed in " + tier.toLowerCase() + " reputation feed",
+                    normalized.getReferrerReputation() == 1 ? SEVERITY_MEDIUM : SEVERITY_CRITICAL));
         }
 
-        if (normalized.getRapidClicking() == 1) {
-            issues.add(FlaggedIssue.builder()
-                    .code("RAPID_CLICKING")
-                    .description("Abnormally rapid click intervals – possible automation")
-                    .severity(SEVERITY_MEDIUM)
-                    .build());
-        }
+        if (normalized.getFetchOverridden() == 1) issues.add(IssueCode.FETCH_OVERRIDDEN.issue());
+        if (normalized.getRapidClicking() == 1) issues.add(IssueCode.RAPID_CLICKING.issue());
 
         if (normalized.getIframeHidden() > 0 || normalized.getIframeOffscreen() > 0) {
-            issues.add(FlaggedIssue.builder()
-                    .code("SUSPICIOUS_IFRAMES")
-                    .description(String.format("Hidden/offscreen iframes detected (hidden=%d, offscreen=%d)", 
-                            normalized.getIframeHidden(), normalized.getIframeOffscreen()))
-                    .severity(SEVERITY_MEDIUM)
-                    .build());
+            issues.add(IssueCode.SUSPICIOUS_IFRAMES.issue(String.format("Hidden/offscreen iframes detected (hidden=%d, offscreen=%d)",
+                    normalized.getIframeHidden(), normalized.getIframeOffscreen())));
         }
 
         if (normalized.getIframeCrossOrigin() > 0 || normalized.getIframeNotFromOrg() > 0) {
-            issues.add(FlaggedIssue.builder()
-                    .code("CROSS_ORIGIN_IFRAMES")
-                    .description(String.format("Cross-origin or non-org iframes (crossOrigin=%d, notFromOrg=%d)", 
-                            normalized.getIframeCrossOrigin(), normalized.getIframeNotFromOrg()))
-                    .severity(SEVERITY_MEDIUM)
-                    .build());
+            issues.add(IssueCode.CROSS_ORIGIN_IFRAMES.issue(String.format("Cross-origin or non-org iframes (crossOrigin=%d, notFromOrg=%d)",
+                    normalized.getIframeCrossOrigin(), normalized.getIframeNotFromOrg())));
         }
 
-        if (Boolean.TRUE.equals(request.getCspRestricted())) {
-            issues.add(FlaggedIssue.builder()
-                    .code("CSP_RESTRICTED")
-                    .description("Content-Security-Policy restricts inline scripts – enforced CSP (informational)")
-                    .severity(SEVERITY_LOW)
-                    .build());
-        }
+        if (cspRestricted) issues.add(IssueCode.CSP_RESTRICTED.issue());
 
         return issues;
     }
@@ -0,0 +1,83 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.AuditEvent;
+import com.riskengine.dto.LoginRequest;
+import com.riskengine.dto.LoginResponse;
+import com.riskengine.dto.SiemEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Login behind {@code /login}, shared by the servlet and reactive controllers: issues the session
+ * token, audits the login with IP intelligence and forwards suspicious referrers to the SIEM, holding
+ * a LOGIN admission slot throughout.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginService {
+
+    private final ReferrerService referrerService;
+    private final SiemEventForwarder siemEventForwarder;
+    private final AdmissionControlService admissionControlService;
+    private final AuditLogger auditLogger;
+    private final IpIntelligenceService ipIntelligenceService;
+    private final SessionTokenService sessionTokenService;
+
+    /** {@code headerReferrer} is used when the body carries no referrer; {@code clientIp} may be null. */
+    public LoginResponse login(LoginRequest request, String headerReferrer, String clientIp) {
+        // LOGIN lane is never shed; holding a slot keeps collect traffic from using the reserved headroom
+        AdmissionControlService.Permit permit = admissionControlService.tryAcquire(AdmissionControlService.Lane.LOGIN);
+        try {
+            return doLogin(request, headerReferrer, clientIp);
+        } finally {
+            permit.release(true);
+        }
+    }
+
+    private LoginResponse doLogin(LoginRequest request, String headerReferrer, String clientIp) {
+        String sessionId = UUID.randomUUID().toString();
+        String userId = request.getUsername() != null ? request.getUsername() : "user-" + UUID.randomUUID().toString();
+        String referrerUrl = request.getReferrerUrl();
+        if ((referrerUrl == null || referrerUrl.isBlank()) && headerReferrer != null && !headerReferrer.isBlank()) {
+            referrerUrl = headerReferrer;
+        }
+        boolean suspiciousReferrer = referrerService.isSuspicious(referrerUrl);
+        IpIntelligenceService.IpIntel ip = ipIntelligenceService.lookup(clientIp);
+
+        LoginResponse response = LoginResponse.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .sessionToken(sessionTokenService.issue(sessionId, userId))
+                .suspiciousReferrer(suspiciousReferrer)
+                .build();
+
+        auditLogger.record(AuditEvent.builder()
+                .event("login")
+                .level(suspiciousReferrer ? "WARN" : "INFO")
+                .time(System.currentTimeMillis())
+                .sessionId(sessionId)
+                .userId(userId)
+                .suspiciousReferrer(suspiciousReferrer)
+                .referrerUrl(suspiciousReferrer ? referrerUrl : null)
+                .clientIp(clientIp)
+                .ipCountry(ip.country())
+                .ipAsn(ip.asn() != 0 ? ip.asn() : null)
+                .ipCategories(ip.categories() != 0 ? IpIntelligenceService.categoryNames(ip.categories()) : null)
+                .build());
+
+        if (suspiciousReferrer) {
+            siemEventForwarder.publish(SiemEvent.builder()
+                    .event("suspicious_referrer")
+                    .time(System.currentTimeMillis())
+                    .source("login")
+                    .sessionId(sessionId)
+                    .userId(userId)
+                    .referrerUrl(referrerUrl)
+                    .build());
+        }
+
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.StageTiming;
+import com.riskengine.util.StageScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Latency budget and stage timeouts for one evaluation. The controller opens a {@link StageScope}
+ * per request with {@code budget-ms} as its overall deadline; I/O stages (raw-signal and decision
+ * persistence) get {@code persist-timeout-ms} and fail open, state lookups (link graph, baseline)
+ * get {@code enrich-timeout-ms} and fail open with neutral features. Normalization, signature and
+ * scoring fail closed to the MFA policy decision. Stages that do not finish OK are counted in
+ * {@code risk.pipeline.stage.failures{stage, outcome}}.
+ */
+@Service
+@Getter
+public class PipelineBudget {
+
+    private final long budgetMs;
+    private final long persistTimeoutMs;
+    private final long enrichTimeoutMs;
+    private final boolean exposeTimings;
+    private final MeterRegistry meterRegistry;
+
+    public PipelineBudget(MeterRegistry meterRegistry,
+                          @Value("${risk.engine.pipeline.budget-ms:300}") long budgetMs,
+                          @Value("${risk.engine.pipeline.persist-timeout-ms:250}") long persistTimeoutMs,
+                          @Value("${risk.engine.pipeline.enrich-timeout-ms:50}") long enrichTimeoutMs,
+                          @Value("${risk.engine.pipeline.expose-timings:true}") boolean exposeTimings) {
+        this.meterRegistry = meterRegistry;
+        this.budgetMs = budgetMs;
+        this.persistTimeoutMs = persistTimeoutMs;
+        this.enrichTimeoutMs = enrichTimeoutMs;
+        this.exposeTimings = exposeTimings;
+    }
+
+    public StageScope open() {
+        return new StageScope(budgetMs);
+    }
+
+    /** Counts non-OK stages and converts timings for the response (null when not exposed). */
+    public List<StageTiming> finish(StageScope scope) {
+        List<StageScope.Timing> timings = scope.timings();
+        for (StageScope.Timing t : timings) {
+            if (t.outcome() != StageScope.Outcome.OK) {
+                Counter.builder("risk.pipeline.stage.failures")
+                        .tag("stage", t.stage())
+                        .tag("outcome", t.outcome().name().toLowerCase())
+                        .description("Evaluation stages that timed out, failed or were cancelled")
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+        if (!exposeTimings) return null;
+        return timings.stream()
+                .map(t -> StageTiming.builder().stage(t.stage()).micros(t.micros()).outcome(t.outcome().name()).build())
+                .toList();
+    }
+}
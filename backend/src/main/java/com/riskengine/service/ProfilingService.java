@@ -0,0 +1,202 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.RecordingInfo;
+import com.riskengine.util.EvaluationEvent;
+import com.riskengine.util.StageEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-demand JDK Flight Recorder recordings of this process, for {@code /admin/profiling}. Every
+ * recording enables the pipeline's {@link EvaluationEvent} and {@link StageEvent} with thresholds, so
+ * only slow evaluations and stages are written, on top of the JDK's {@code default} (low overhead)
+ * or {@code profile} settings, or alone ({@code none}).
+ *
+ * Recordings are bounded: each one stops itself after at most {@code max-duration-s} and keeps at
+ * most {@code max-size-mb} on disk, and at most {@code max-recordings} are retained; starting one
+ * more discards the oldest stopped recording, or fails while all of them are still running. Stopped
+ * recordings stay downloadable until deleted or evicted.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    private static final List<String> SETTINGS = List.of("none", "default", "profile");
+
+    private final long maxDurationS;
+    private final long maxSizeMb;
+    private final int maxRecordings;
+    private final long defaultEvaluationThresholdMs;
+    private final long defaultStageThresholdMs;
+    /** Retained recordings by id, oldest first; guarded by this. */
+    private final Map<Long, Entry> recordings = new LinkedHashMap<>();
+
+    private record Entry(Recording recording, String settings, long evaluationThresholdMs, long stageThresholdMs) {}
+
+    public ProfilingService(@Value("${risk.engine.profiling.max-duration-s:300}") long maxDurationS,
+                            @Value("${risk.engine.profiling.max-size-mb:100}") long maxSizeMb,
+                            @Value("${risk.engine.profiling.max-recordings:3}") int maxRecordings,
+                            @Value("${risk.engine.profiling.evaluation-threshold-ms:50}") long defaultEvaluationThresholdMs,
+                            @Value("${risk.engine.profiling.stage-threshold-ms:10}") long defaultStageThresholdMs) {
+        this.maxDurationS = maxDurationS;
+        this.maxSizeMb = maxSizeMb;
+        this.maxRecordings = Math.max(1, maxRecordings);
+        this.defaultEvaluationThresholdMs = defaultEvaluationThresholdMs;
+        this.defaultStageThresholdMs = defaultStageThresholdMs;
+    }
+
+    /**
+     * Starts a recording. Null arguments take the configured defaults; duration and size are capped
+     * at the configured maxima. Throws IllegalArgumentException for unknown settings or negative
+     * values, IllegalStateException when {@code max-recordings} recordings are running.
+     */
+    public synchronized RecordingInfo start(String settings, Long durationS, Long sizeMb,
+                                            Long evaluationThresholdMs, Long stageThresholdMs) {
+        String name = settings == null ? "default" : settings;
+        if (!SETTINGS.contains(name)) throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        long duration = bounded(durationS, maxDurationS);
+        long size = bounded(sizeMb, maxSizeMb);
+        long evaluationThreshold = threshold(evaluationThresholdMs, defaultEvaluationThresholdMs);
+        long stageThreshold = threshold(stageThresholdMs, defaultStageThresholdMs);
+        if (recordings.size() >= maxRecordings && !evictOldestStopped()) {
+            throw new IllegalStateException(maxRecordings + " recordings are running");
+        }
+
+        Recording recording = name.equals("none") ? new Recording() : new Recording(configuration(name));
+        recording.setName("risk-engine-" + recording.getId());
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(duration));
+        recording.setMaxSize(size * 1024 * 1024);
+        recording.enable(EvaluationEvent.class).withThreshold(Duration.ofMillis(evaluationThreshold));
+        recording.enable(StageEvent.class).withThreshold(Duration.ofMillis(stageThreshold));
+        recording.start();
+        Entry entry = new Entry(recording, name, evaluationThreshold, stageThreshold);
+        recordings.put(recording.getId(), entry);
+        log.atInfo().addKeyValue("event", "jfr_recording_started")
+                .addKeyValue("recording", recording.getName())
+                .addKeyValue("settings", name)
+                .addKeyValue("durationS", duration)
+                .addKeyValue("maxSizeMb", size)
+                .addKeyValue("evaluationThresholdMs", evaluationThreshold)
+                .addKeyValue("stageThresholdMs", stageThreshold)
+                .log("JFR recording started");
+        return info(entry);
+    }
+
+    public synchronized List<RecordingInfo> list() {
+        List<RecordingInfo> result = new ArrayList<>(recordings.size());
+        for (Entry entry : recordings.values()) result.add(info(entry));
+        return result;
+    }
+
+    /** The recording, or null when unknown. */
+    public synchronized RecordingInfo get(long id) {
+        Entry entry = recordings.get(id);
+        return entry == null ? null : info(entry);
+    }
+
+    /** Stops a running recording (no-op when already stopped); null when unknown. */
+    public synchronized RecordingInfo stop(long id) {
+        Entry entry = recordings.get(id);
+        if (entry == null) return null;
+        if (entry.recording().getState() == RecordingState.RUNNING) {
+            entry.recording().stop();
+            log.atInfo().addKeyValue("event", "jfr_recording_stopped")
+                    .addKeyValue("recording", entry.recording().getName())
+                    .addKeyValue("sizeBytes", entry.recording().getSize())
+                    .log("JFR recording stopped");
+        }
+        return info(entry);
+    }
+
+    /**
+     * The recorded data so far (complete once stopped), or null when the recording is unknown or
+     * holds no data yet. The caller closes the stream.
+     */
+    public InputStream open(long id) throws IOException {
+        Recording recording;
+        synchronized (this) {
+            Entry entry = recordings.get(id);
+            if (entry == null) return null;
+            recording = entry.recording();
+        }
+        return recording.getStream(null, null);
+    }
+
+    /** Stops and discards a recording and its data; false when unknown. */
+    public synchronized boolean delete(long id) {
+        Entry entry = recordings.remove(id);
+        if (entry == null) return false;
+        entry.recording().close();
+        return true;
+    }
+
+    @PreDestroy
+    synchronized void closeAll() {
+        for (Entry entry : recordings.values()) entry.recording().close();
+        recordings.clear();
+    }
+
+    private boolean evictOldestStopped() {
+        for (var it = recordings.values().iterator(); it.hasNext(); ) {
+            Recording recording = it.next().recording();
+            if (recording.getState() != RecordingState.RUNNING && recording.getState() != RecordingState.DELAYED) {
+                it.remove();
+                recording.close();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR settings " + name + " unavailable", e);
+        }
+    }
+
+    private static long bounded(Long requested, long max) {
+        if (requested == null) return max;
+        if (requested <= 0) throw new IllegalArgumentException("duration and size must be positive");
+        return Math.min(requested, max);
+    }
+
+    private static long threshold(Long requested, long defaultMs) {
+        if (requested == null) return defaultMs;
+        if (requested < 0) throw new IllegalArgumentException("thresholds must not be negative");
+        return requested;
+    }
+
+    private static RecordingInfo info(Entry entry) {
+        Recording r = entry.recording();
+        return RecordingInfo.builder()
+                .id(r.getId())
+                .name(r.getName())
+                .state(r.getState().name())
+                .settings(entry.settings())
+                .startTime(r.getStartTime())
+                .stopTime(r.getStopTime())
+                .maxDurationSeconds(r.getDuration() == null ? 0 : r.getDuration().toSeconds())
+                .maxSizeBytes(r.getMaxSize())
+                .sizeBytes(r.getSize())
+                .evaluationThresholdMs(entry.evaluationThresholdMs())
+                .stageThresholdMs(entry.stageThresholdMs())
+                .build();
+    }
+}
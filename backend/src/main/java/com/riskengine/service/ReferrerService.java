@@ -1,5 +1,7 @@
 package com.riskengine.service;
 
+import com.riskengine.util.HostParser;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,38 +15,40 @@ import java.util.stream.Collectors;
  * or referrer empty (direct access); otherwise flagged for step-up/alerting/research.
  */
 @Service
+@RequiredArgsConstructor
 public class ReferrerService {
 
     @Value("${risk.engine.allowed-hosts:localhost,127.0.0.1}")
     private String allowedHostsConfig;
 
+    private final DomainReputationStore domainReputationStore;
+
     /**
      * True if the referrer URL is non-empty and its host is not in the allowed org list.
      * Empty/blank referrer is not flagged (direct access or referrer policy stripped it).
      */
     public boolean isSuspicious(String referrerUrl) {
         if (referrerUrl == null || referrerUrl.isBlank()) return false;
-        String host = extractHostFromUrl(referrerUrl.trim());
+        String host = extractHostFromUrl(referrerUrl);
         if (host == null || host.isEmpty()) return false;
         Set<String> allowed = Arrays.stream(allowedHostsConfig.split(","))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .map(String::toLowerCase)
                 .collect(Collectors.toSet());
-        return !allowed.contains(host.toLowerCase());
+        return !allowed.contains(host);
+    }
+
+    /**
+     * Reputation tier of the referrer host (or a listed parent domain) from the loaded phishing/malware feeds.
+     */
+    public DomainReputationStore.Tier reputationOf(String referrerUrl) {
+        if (referrerUrl == null || referrerUrl.isBlank()) return DomainReputationStore.Tier.NONE;
+        return domainReputationStore.lookup(extractHostFromUrl(referrerUrl));
     }
 
-    /** Extract hostname from a full URL (e.g. https://evil.com/path → evil.com). */
+    /** Extract normalized hostname from a full URL (e.g. https://Evil.com/path → evil.com). */
     public static String extractHostFromUrl(String url) {
-        if (url == null) return null;
-        int i = url.indexOf("://");
-        if (i >= 0) url = url.substring(i + 3);
-        int j = url.indexOf(':');
-        if (j >= 0) url = url.substring(0, j);
-        int k = url.indexOf('/');
-        if (k >= 0) url = url.substring(0, k);
-        int q = url.indexOf('?');
-        if (q >= 0) url = url.substring(0, q);
-        return url.isEmpty() ? null : url;
+        return HostParser.host(url);
     }
 }
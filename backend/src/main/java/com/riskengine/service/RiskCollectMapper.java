@@ -1,7 +1,9 @@
 package com.riskengine.service;
 
-import com.riskengine.dto.IframeSignals;
+import com.riskengine.dto.CompactSignals;
 import com.riskengine.dto.SignalRequest;
+import com.riskengine.util.HostParser;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -13,104 +15,97 @@ import java.util.stream.Collectors;
 @Component
 public class RiskCollectMapper {
 
+    private static final long MISSING = Long.MIN_VALUE;
+
     @Value("${risk.engine.allowed-hosts:localhost,127.0.0.1}")
     private String allowedHostsConfig;
 
-    @SuppressWarnings("unchecked")
+    private Set<String> allowedHosts;
+
+    @PostConstruct
+    void init() {
+        allowedHosts = Arrays.stream(allowedHostsConfig.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /** Boxed DTO for the payload; adapter over {@link #read}. Null when the payload is null. */
     public SignalRequest toSignalRequest(Map<String, Object> payload) {
-        if (payload == null) return null;
-
-        String sessionId = getString(payload, "sessionId");
-        String userId = getString(payload, "userId");
-        String userAgent = null;
-        String pageOrigin = null;
-        String referrerUrl = null;
-        String timezone = null;
-        Integer screenWidth = null;
-        Integer screenHeight = null;
-        Boolean webdriverFlag = Boolean.FALSE;
-        Boolean pageOriginNotFromOrg = null;
+        CompactSignals signals = new CompactSignals();
+        return read(payload, signals) ? signals.toSignalRequest() : null;
+    }
+
+    /**
+     * Parses a /risk/collect payload straight into {@code out} (which should be cleared) without
+     * building boxed intermediates. Returns false when the payload is null.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean read(Map<String, Object> payload, CompactSignals out) {
+        if (payload == null) return false;
+
+        out.setSessionId(getString(payload, "sessionId"));
+        out.setUserId(getString(payload, "userId"));
+        out.set(CompactSignals.WEBDRIVER, false);
+        out.set(CompactSignals.FETCH_OVERRIDDEN, false);
 
         Map<String, Object> stage1 = (Map<String, Object>) payload.get("stage1");
         if (stage1 != null) {
-            userAgent = getString(stage1, "userAgent");
-            pageOrigin = getString(stage1, "origin");
-            referrerUrl = getString(stage1, "referrer");
-            timezone = getString(stage1, "timezone");
-            Object wd = stage1.get("webdriver");
-            webdriverFlag = Boolean.TRUE.equals(wd);
+            out.setUserAgent(getString(stage1, "userAgent"));
+            out.setPageOrigin(getString(stage1, "origin"));
+            out.setReferrerUrl(getString(stage1, "referrer"));
+            out.setTimezone(getString(stage1, "timezone"));
+            if (Boolean.TRUE.equals(stage1.get("webdriver"))) out.set(CompactSignals.WEBDRIVER, true);
             Map<String, Object> screen = (Map<String, Object>) stage1.get("screen");
             if (screen != null) {
-                screenWidth = getInt(screen, "width");
-                screenHeight = getInt(screen, "height");
+                long width = getInt(screen, "width");
+                long height = getInt(screen, "height");
+                if (width != MISSING) out.setScreenWidth((int) width);
+                if (height != MISSING) out.setScreenHeight((int) height);
             }
         }
 
-        Boolean functionTampered = null;
-        Boolean iframeMismatch = null;
-        Boolean storageBlocked = null;
-        Boolean cspRestricted = null;
-        Integer pluginsLength = null;
-        Integer mimeTypesLength = null;
-        Boolean hasChrome = null;
-        Boolean hasWebdriverScriptFn = null;
-
         Map<String, Object> stage3 = (Map<String, Object>) payload.get("stage3");
         if (stage3 != null) {
-            functionTampered = getBoolean(stage3, "functionTampered");
-            iframeMismatch = getBoolean(stage3, "iframeMismatch");
+            out.set(CompactSignals.FUNCTION_TAMPERED, getBoolean(stage3, "functionTampered"));
+            out.set(CompactSignals.IFRAME_MISMATCH, getBoolean(stage3, "iframeMismatch"));
             Boolean storageWorks = getBoolean(stage3, "storageWorks");
-            storageBlocked = storageWorks != null && !storageWorks;
-            cspRestricted = getBoolean(stage3, "cspRestricted");
+            out.set(CompactSignals.STORAGE_BLOCKED, storageWorks != null && !storageWorks);
+            out.set(CompactSignals.CSP_RESTRICTED, getBoolean(stage3, "cspRestricted"));
             Map<String, Object> automation = (Map<String, Object>) stage3.get("automation");
             if (automation != null) {
-                if (Boolean.TRUE.equals(automation.get("webdriver"))) {
-                    webdriverFlag = Boolean.TRUE;
-                }
-                pluginsLength = getInt(automation, "pluginsLength");
-                mimeTypesLength = getInt(automation, "mimeTypesLength");
-                hasChrome = getBoolean(automation, "hasChrome");
-                hasWebdriverScriptFn = getBoolean(automation, "hasWebdriverScriptFn");
+                if (Boolean.TRUE.equals(automation.get("webdriver"))) out.set(CompactSignals.WEBDRIVER, true);
+                long plugins = getInt(automation, "pluginsLength");
+                long mimeTypes = getInt(automation, "mimeTypesLength");
+                if (plugins != MISSING) out.setPluginsLength((int) plugins);
+                if (mimeTypes != MISSING) out.setMimeTypesLength((int) mimeTypes);
+                out.set(CompactSignals.HAS_CHROME, getBoolean(automation, "hasChrome"));
+                out.set(CompactSignals.HAS_WEBDRIVER_SCRIPT_FN, getBoolean(automation, "hasWebdriverScriptFn"));
+            }
+        }
+
+        Map<String, Object> stage2 = (Map<String, Object>) payload.get("stage2");
+        if (stage2 != null) {
+            String canvas = getString(stage2, "canvasHash");
+            String webgl = getString(stage2, "webglHash");
+            String audio = getString(stage2, "audioHash");
+            String fonts = getString(stage2, "fontsHash");
+            if (canvas != null || webgl != null || audio != null || fonts != null) {
+                out.setFingerprintHash(canvas + ":" + webgl + ":" + audio + ":" + fonts);
             }
         }
 
+        String pageOrigin = out.getPageOrigin();
         if (pageOrigin != null && !pageOrigin.isBlank()) {
-            String host = extractHostFromOrigin(pageOrigin);
+            String host = HostParser.host(pageOrigin);
             if (host != null && !host.isBlank()) {
-                Set<String> allowed = Arrays.stream(allowedHostsConfig.split(","))
-                        .map(String::trim)
-                        .filter(s -> !s.isEmpty())
-                        .map(String::toLowerCase)
-                        .collect(Collectors.toSet());
-                pageOriginNotFromOrg = !allowed.contains(host.toLowerCase());
+                out.set(CompactSignals.PAGE_ORIGIN_NOT_FROM_ORG, !allowedHosts.contains(host));
             }
         }
 
-        IframeSignals iframeSignals = parseIframeSignals(payload);
-
-        return SignalRequest.builder()
-                .sessionId(sessionId)
-                .userId(userId)
-                .webdriverFlag(webdriverFlag)
-                .pageOrigin(pageOrigin)
-                .pageOriginNotFromOrg(pageOriginNotFromOrg)
-                .referrerUrl(referrerUrl)
-                .iframeSignals(iframeSignals)
-                .fetchOverridden(Boolean.FALSE)
-                .userAgent(userAgent)
-                .screenWidth(screenWidth)
-                .screenHeight(screenHeight)
-                .timezone(timezone)
-                .clickIntervalAvg(null)
-                .functionTampered(functionTampered)
-                .iframeMismatch(iframeMismatch)
-                .storageBlocked(storageBlocked)
-                .cspRestricted(cspRestricted)
-                .pluginsLength(pluginsLength)
-                .mimeTypesLength(mimeTypesLength)
-                .hasChrome(hasChrome)
-                .hasWebdriverScriptFn(hasWebdriverScriptFn)
-                .build();
+        readIframeSignals(payload, out);
+        return true;
     }
 
     private static String getString(Map<String, Object> m, String key) {
@@ -126,54 +121,33 @@ public class RiskCollectMapper {
         return null;
     }
 
-    private static int nullToZero(Integer v) {
-        return v != null ? v : 0;
-    }
-
-    private static Integer getInt(Map<String, Object> m, String key) {
+    /** Integer value, or {@link #MISSING} when absent or not a number (no boxing). */
+    private static long getInt(Map<String, Object> m, String key) {
         Object v = m.get(key);
-        if (v == null) return null;
+        if (v == null) return MISSING;
         if (v instanceof Number) return ((Number) v).intValue();
         try {
             return Integer.parseInt(String.valueOf(v));
         } catch (NumberFormatException e) {
-            return null;
+            return MISSING;
         }
     }
 
-    private static IframeSignals parseIframeSignals(Map<String, Object> payload) {
+    /** Iframe counts from the payload; all zero when the client sent none. */
+    private static void readIframeSignals(Map<String, Object> payload, CompactSignals out) {
         Object ifs = payload.get("iframeSignals");
         if (ifs instanceof Map) {
             @SuppressWarnings("unchecked")
             Map<String, Object> m = (Map<String, Object>) ifs;
-            return IframeSignals.builder()
-                    .total(nullToZero(getInt(m, "total")))
-                    .suspicious(nullToZero(getInt(m, "suspicious")))
-                    .hidden(nullToZero(getInt(m, "hidden")))
-                    .offscreen(nullToZero(getInt(m, "offscreen")))
-                    .crossOrigin(nullToZero(getInt(m, "crossOrigin")))
-                    .notFromOrg(nullToZero(getInt(m, "notFromOrg")))
-                    .build();
+            out.setIframes(count(m, "total"), count(m, "suspicious"), count(m, "hidden"),
+                    count(m, "offscreen"), count(m, "crossOrigin"), count(m, "notFromOrg"));
+        } else {
+            out.setIframes(0, 0, 0, 0, 0, 0);
         }
-        return IframeSignals.builder()
-                .total(0)
-                .suspicious(0)
-                .hidden(0)
-                .offscreen(0)
-                .crossOrigin(0)
-                .notFromOrg(0)
-                .build();
     }
 
-    private static String extractHostFromOrigin(String origin) {
-        if (origin == null) return null;
-        origin = origin.trim();
-        int i = origin.indexOf("://");
-        if (i >= 0) origin = origin.substring(i + 3);
-        int j = origin.indexOf(':');
-        if (j >= 0) origin = origin.substring(0, j);
-        int k = origin.indexOf('/');
-        if (k >= 0) origin = origin.substring(0, k);
-        return origin.isEmpty() ? null : origin;
+    private static int count(Map<String, Object> m, String key) {
+        long v = getInt(m, key);
+        return v == MISSING ? 0 : (int) v;
     }
 }
@@ -0,0 +1,266 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.AuditEvent;
+import com.riskengine.dto.CompactSignals;
+import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.RiskResponse;
+import com.riskengine.dto.SiemEvent;
+import com.riskengine.util.EvaluationEvent;
+import com.riskengine.util.StageScope;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.riskengine.util.StageScope.Policy.FAIL_CLOSED;
+import static com.riskengine.util.StageScope.Policy.FAIL_OPEN;
+
+/**
+ * The evaluation behind {@code /risk/collect} and {@code /risk/evaluate}, shared by the servlet and
+ * reactive controllers so both run the same admission control, stage graph, persistence through the
+ * {@code RiskRecordStore} SPI, SIEM forwarding, decision stream and JFR events. Callers authenticate,
+ * map the request into {@link CompactSignals} and handle collect deduplication; everything after that
+ * is here. Blocking: the reactive controller calls it off the event loop.
+ */
+@Service
+@RequiredArgsConstructor
+public class RiskEvaluationService {
+
+    private final SignalNormalizationService signalNormalizationService;
+    private final SignatureService signatureService;
+    private final DecisionService decisionService;
+    private final ReferrerService referrerService;
+    private final ScoringCache scoringCache;
+    private final PipelineBudget pipelineBudget;
+    private final SiemEventForwarder siemEventForwarder;
+    private final AdmissionControlService admissionControlService;
+    private final IdentityLinkGraph identityLinkGraph;
+    private final UserBaselineStore userBaselineStore;
+    private final UserAgentParser userAgentParser;
+    private final TrafficSketchService trafficSketchService;
+    private final AuditLogger auditLogger;
+    private final ShadowScoringService shadowScoringService;
+    private final DecisionStreamService decisionStreamService;
+
+    /**
+     * Runs the pipeline under admission control. When the adaptive limit is reached the request is
+     * shed: either scored without persistence or answered with the policy decision (MFA).
+     */
+    public RiskResponse admitAndEvaluate(CompactSignals signals, Map<String, Object> rawPayload) {
+        AdmissionControlService.Permit permit = admissionControlService.tryAcquire(AdmissionControlService.Lane.COLLECT);
+        if (permit == null) {
+            auditLogger.record(AuditEvent.builder()
+                    .event("risk_load_shed")
+                    .level("WARN")
+                    .time(System.currentTimeMillis())
+                    .sessionId(signals.getSessionId())
+                    .userId(signals.getUserId())
+                    .shedMode(admissionControlService.getShedMode().name())
+                    .degraded(true)
+                    .build());
+            if (admissionControlService.getShedMode() == AdmissionControlService.ShedMode.MFA) {
+                RiskResponse response = RiskResponse.builder()
+                        .riskScore(0)
+                        .decision("MFA")
+                        .sessionId(signals.getSessionId())
+                        .degraded(true)
+                        .flaggedIssues(List.of())
+                        .build();
+                decisionStreamService.publish(response);
+                return response;
+            }
+            return runPipeline(signals, rawPayload, false);
+        }
+        boolean success = false;
+        try {
+            RiskResponse response = runPipeline(signals, rawPayload, true);
+            success = true;
+            return response;
+        } finally {
+            permit.release(success);
+        }
+    }
+
+    /**
+     * Evaluation as a structured task graph under the {@link PipelineBudget}: raw-signal persistence
+     * runs alongside evaluation, link-graph and baseline lookups run concurrently once the signature is
+     * known, and the decision write overlaps audit/SIEM publishing. Persistence and lookups fail open;
+     * a failed normalization, signature or score fails closed to the MFA policy decision. Each run is
+     * an {@link EvaluationEvent} for JFR recordings, and its decision goes to the live decision stream.
+     */
+    private RiskResponse runPipeline(CompactSignals signals, Map<String, Object> rawPayload, boolean persist) {
+        EvaluationEvent event = EvaluationEvent.start();
+        StageScope scope = pipelineBudget.open();
+        RiskResponse response;
+        try {
+            response = runStages(scope, signals, rawPayload, persist);
+        } finally {
+            scope.close();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit(response.getSessionId(), response.getDecision(), response.getRiskScore(),
+                    response.getFlaggedIssues().stream().map(FlaggedIssue::getCode).toList(),
+                    Boolean.TRUE.equals(response.getDegraded()), scope.timings());
+        }
+        decisionStreamService.publish(response);
+        return response;
+    }
+
+    private RiskResponse runStages(StageScope scope, CompactSignals signals, Map<String, Object> rawPayload, boolean persist) {
+        StageScope.Stage<Boolean> signalSaved = null;
+        if (persist) {
+            String sessionId = signals.getSessionId();
+            String userId = signals.getUserId();
+            Map<String, Object> signalJson = rawPayload != null ? rawPayload : DecisionService.toSignalMap(signals);
+            signalSaved = scope.fork("persist_signal", FAIL_OPEN, pipelineBudget.getPersistTimeoutMs(), () -> {
+                decisionService.persistRawSignals(sessionId, userId, signalJson);
+                return true;
+            }, () -> false);
+        }
+        try {
+            return evaluate(scope, signals, persist, signalSaved);
+        } catch (StageScope.StageFailedException e) {
+            if (signalSaved != null) scope.join(signalSaved);
+            return failClosed(scope, signals, e);
+        }
+    }
+
+    private RiskResponse evaluate(StageScope scope, CompactSignals signals, boolean persist,
+                                  StageScope.Stage<Boolean> signalSaved) {
+        var normalized = scope.run("normalize", FAIL_CLOSED, () -> signalNormalizationService.normalize(signals), null);
+        String deviceSignature = scope.run("signature", FAIL_CLOSED, () -> signatureService.generate(signals), null);
+
+        // Forks read these copies, not the per-thread signals, in case they outlive the request
+        String sessionId = signals.getSessionId();
+        String userId = signals.getUserId();
+        String fingerprintHash = signals.getFingerprintHash();
+        String referrerUrl = signals.getReferrerUrl();
+        String timezone = signals.getTimezone();
+        String screen = screenOf(signals);
+        String userAgent = signals.getUserAgent();
+        var clusterStage = scope.fork("link_graph", FAIL_OPEN, pipelineBudget.getEnrichTimeoutMs(),
+                () -> identityLinkGraph.observe(userId, deviceSignature, fingerprintHash,
+                        normalized.getReferrerReputation() > 0 ? ReferrerService.extractHostFromUrl(referrerUrl) : null),
+                () -> IdentityLinkGraph.ClusterFeatures.NONE);
+        var baselineStage = scope.fork("baseline", FAIL_OPEN, pipelineBudget.getEnrichTimeoutMs(),
+                () -> userBaselineStore.observe(userId, deviceSignature, timezone, screen,
+                        userAgentParser.parse(userAgent).getBrowserFamily()),
+                () -> UserBaselineStore.BaselineFeatures.NONE);
+        var cluster = scope.join(clusterStage);
+        normalized.setClusterUsers(cluster.distinctUsers());
+        normalized.setClusterPriorRisk(cluster.maxPriorRisk());
+        var baseline = scope.join(baselineStage);
+        normalized.setBaselineNewDevice(baseline.newDevice() ? 1 : 0);
+        normalized.setBaselineNewTimezone(baseline.newTimezone() ? 1 : 0);
+        normalized.setBaselineRareAttribute(baseline.rareAttribute() ? 1 : 0);
+
+        var assessment = scope.run("score", FAIL_CLOSED, () -> scoringCache.assess(normalized, signals.is(CompactSignals.CSP_RESTRICTED)), null);
+        int riskScore = assessment.riskScore();
+        identityLinkGraph.recordRisk(signals.getUserId(), riskScore);
+        String decision = assessment.decision();
+        var flaggedIssues = assessment.flaggedIssues();
+        // Shed requests (persist == false) skip shadow scoring along with persistence
+        if (persist) shadowScoringService.submit(normalized, riskScore, decision);
+        trafficSketchService.record(signals.getUserId(), deviceSignature, signals.getFingerprintHash(),
+                signals.getReferrerUrl(), decision);
+        StageScope.Stage<Boolean> decisionSaved = persist
+                ? scope.fork("persist_decision", FAIL_OPEN, pipelineBudget.getPersistTimeoutMs(), () -> {
+                    decisionService.persistDecision(sessionId, userId, riskScore, decision, flaggedIssues);
+                    return true;
+                }, () -> false)
+                : null;
+
+        boolean suspiciousReferrer = referrerService.isSuspicious(signals.getReferrerUrl());
+        forwardToSiem(signals, riskScore, decision, flaggedIssues, suspiciousReferrer);
+        boolean persisted = persist;
+        if (persist) {
+            boolean signalOk = scope.join(signalSaved);
+            boolean decisionOk = scope.join(decisionSaved);
+            persisted = signalOk && decisionOk;
+        }
+        auditLogger.record(AuditEvent.builder()
+                .event("risk_evaluated")
+                .level(suspiciousReferrer ? "WARN" : "INFO")
+                .time(System.currentTimeMillis())
+                .sessionId(signals.getSessionId())
+                .userId(signals.getUserId())
+                .riskScore(riskScore)
+                .decision(decision)
+                .issueCodes(flaggedIssues.stream().map(FlaggedIssue::getCode).toList())
+                .suspiciousReferrer(suspiciousReferrer)
+                .referrerUrl(suspiciousReferrer ? signals.getReferrerUrl() : null)
+                .degraded(persisted ? null : true)
+                .build());
+
+        return RiskResponse.builder()
+                .riskScore(riskScore)
+                .decision(decision)
+                .deviceSignature(deviceSignature)
+                .sessionId(signals.getSessionId())
+                .iframeSignals(signals.iframeSignals())
+                .pageOrigin(signals.getPageOrigin())
+                .pageOriginNotFromOrg(signals.flag(CompactSignals.PAGE_ORIGIN_NOT_FROM_ORG))
+                .referrerUrl(signals.getReferrerUrl())
+                .suspiciousReferrer(suspiciousReferrer)
+                .flaggedIssues(flaggedIssues)
+                .degraded(persisted ? null : true)
+                .stageTimings(pipelineBudget.finish(scope))
+                .build();
+    }
+
+    /** Screen as the baseline keys it ("1920x1080"), or null when the width is unknown. */
+    private static String screenOf(CompactSignals signals) {
+        if (!signals.has(CompactSignals.SCREEN_WIDTH)) return null;
+        String height = signals.has(CompactSignals.SCREEN_HEIGHT) ? String.valueOf(signals.getScreenHeight()) : "null";
+        return signals.getScreenWidth() + "x" + height;
+    }
+
+    /** A fail-closed stage failed: answer with the policy decision, as load shedding in MFA mode does. */
+    private RiskResponse failClosed(StageScope scope, CompactSignals signals, StageScope.StageFailedException e) {
+        auditLogger.record(AuditEvent.builder()
+                .event("risk_fail_closed")
+                .level("WARN")
+                .time(System.currentTimeMillis())
+                .sessionId(signals.getSessionId())
+                .userId(signals.getUserId())
+                .decision("MFA")
+                .issueCodes(List.of("STAGE_" + e.getStage().toUpperCase() + "_" + e.getOutcome().name()))
+                .degraded(true)
+                .build());
+        return RiskResponse.builder()
+                .riskScore(0)
+                .decision("MFA")
+                .sessionId(signals.getSessionId())
+                .degraded(true)
+                .flaggedIssues(List.of())
+                .stageTimings(pipelineBudget.finish(scope))
+                .build();
+    }
+
+    private void forwardToSiem(CompactSignals signals, int riskScore, String decision,
+                               List<FlaggedIssue> flaggedIssues, boolean suspiciousReferrer) {
+        long now = System.currentTimeMillis();
+        siemEventForwarder.publish(SiemEvent.builder()
+                .event("risk_evaluated")
+                .time(now)
+                .source("risk_eval")
+                .sessionId(signals.getSessionId())
+                .userId(signals.getUserId())
+                .riskScore(riskScore)
+                .decision(decision)
+                .issueCodes(flaggedIssues.stream().map(FlaggedIssue::getCode).toList())
+                .build());
+        if (suspiciousReferrer) {
+            siemEventForwarder.publish(SiemEvent.builder()
+                    .event("suspicious_referrer")
+                    .time(now)
+                    .source("risk_eval")
+                    .sessionId(signals.getSessionId())
+                    .userId(signals.getUserId())
+                    .referrerUrl(signals.getReferrerUrl())
+                    .build());
+        }
+    }
+}
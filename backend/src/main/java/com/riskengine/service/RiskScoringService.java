@@ -3,52 +3,61 @@ package com.riskengine.service;
 import com.riskengine.dto.NormalizedSignals;
 import org.springframework.stereotype.Service;
 
+import static com.riskengine.service.ScoringProfile.Param.*;
+
 /**
  * Rule-based risk scoring. Includes weights for webdriver, automation signals, page origin,
  * referrer, iframe indicators, and new malicious-page signals from risk-agent.js.
- * Total cap 100.
+ * Total cap 100. Weights come from a {@link ScoringProfile}: {@link ScoringProfile#LIVE} for
+ * decisions, candidate profiles for shadow scoring.
  *
  * Future: replace rule-based scoring with ML inference service.
  */
 @Service
 public class RiskScoringService {
 
-    private static final int WEIGHT_WEBDRIVER = 30;
-    private static final int WEIGHT_WEBDRIVER_SCRIPT_FN = 35;
-    private static final int WEIGHT_FETCH_OVERRIDDEN = 40;
-    private static final int WEIGHT_PAGE_NOT_FROM_ORG = 35;
-    private static final int WEIGHT_REFERRER_NOT_FROM_ORG = 30;
-    private static final int WEIGHT_IFRAME_HIDDEN = 10;
-    private static final int WEIGHT_IFRAME_OFFSCREEN = 15;
-    private static final int WEIGHT_IFRAME_CROSS_ORIGIN = 20;
-    private static final int WEIGHT_IFRAME_NOT_FROM_ORG = 15;
-    private static final int IFRAME_CONTRIBUTION_CAP = 50;
-    private static final int WEIGHT_RAPID_CLICKING = 20;
-    private static final int WEIGHT_FUNCTION_TAMPERED = 25;
-    private static final int WEIGHT_IFRAME_MISMATCH = 25;
-    private static final int WEIGHT_HEADLESS_BROWSER = 30;
-    private static final int WEIGHT_STORAGE_BLOCKED = 15;
     private static final int MAX_SCORE = 100;
 
     public int score(NormalizedSignals normalized) {
+        return score(normalized, ScoringProfile.LIVE);
+    }
+
+    public int score(NormalizedSignals normalized, ScoringProfile p) {
         int score = 0;
-        score += normalized.getWebdriverFlag() * WEIGHT_WEBDRIVER;
-        score += normalized.getWebdriverScriptFn() * WEIGHT_WEBDRIVER_SCRIPT_FN;
-        score += normalized.getFetchOverridden() * WEIGHT_FETCH_OVERRIDDEN;
-        score += normalized.getPageOriginNotFromOrg() * WEIGHT_PAGE_NOT_FROM_ORG;
-        score += normalized.getReferrerNotFromOrg() * WEIGHT_REFERRER_NOT_FROM_ORG;
-        score += normalized.getFunctionTampered() * WEIGHT_FUNCTION_TAMPERED;
-        score += normalized.getIframeMismatch() * WEIGHT_IFRAME_MISMATCH;
-        score += normalized.getHeadlessBrowser() * WEIGHT_HEADLESS_BROWSER;
-        score += normalized.getStorageBlocked() * WEIGHT_STORAGE_BLOCKED;
-
-        int iframeScore = normalized.getIframeHidden() * WEIGHT_IFRAME_HIDDEN
-                + normalized.getIframeOffscreen() * WEIGHT_IFRAME_OFFSCREEN
-                + normalized.getIframeCrossOrigin() * WEIGHT_IFRAME_CROSS_ORIGIN
-                + normalized.getIframeNotFromOrg() * WEIGHT_IFRAME_NOT_FROM_ORG;
-        score += Math.min(iframeScore, IFRAME_CONTRIBUTION_CAP);
-
-        score += normalized.getRapidClicking() * WEIGHT_RAPID_CLICKING;
+        score += normalized.getWebdriverFlag() * p.get(WEBDRIVER);
+        score += normalized.getWebdriverScriptFn() * p.get(WEBDRIVER_SCRIPT_FN);
+        score += normalized.getFetchOverridden() * p.get(FETCH_OVERRIDDEN);
+        score += normalized.getPageOriginNotFromOrg() * p.get(PAGE_NOT_FROM_ORG);
+        score += normalized.getReferrerNotFromOrg() * p.get(REFERRER_NOT_FROM_ORG);
+        score += normalized.getFunctionTampered() * p.get(FUNCTION_TAMPERED);
+        score += normalized.getIframeMismatch() * p.get(IFRAME_MISMATCH);
+        score += normalized.getHeadlessBrowser() * p.get(HEADLESS_BROWSER);
+        score += normalized.getStorageBlocked() * p.get(STORAGE_BLOCKED);
+        score += referrerReputationScore(normalized.getReferrerReputation(), p);
+        score += normalized.getUaChromeObjectMissing() * p.get(UA_CHROME_OBJECT_MISSING);
+        score += normalized.getUaChromeZeroPlugins() * p.get(UA_CHROME_ZERO_PLUGINS);
+        score += normalized.getUaAutomationToken() * p.get(UA_AUTOMATION_TOKEN);
+        if (normalized.getClusterUsers() >= p.get(RING_MIN_USERS)) score += p.get(ACCOUNT_RING);
+        if (normalized.getClusterPriorRisk() >= p.get(HIGH_RISK_CLUSTER_SCORE)) score += p.get(HIGH_RISK_CLUSTER);
+        score += normalized.getBaselineNewDevice() * p.get(BASELINE_NEW_DEVICE);
+        score += normalized.getBaselineNewTimezone() * p.get(BASELINE_NEW_TIMEZONE);
+        score += normalized.getBaselineRareAttribute() * p.get(BASELINE_RARE_ATTRIBUTE);
+        score += normalized.getIpHosting() * p.get(IP_HOSTING);
+        if (normalized.getIpBlocklist() != 0) score += p.get(IP_BLOCKLISTED);
+        score += normalized.getIpTimezoneMismatch() * p.get(IP_TIMEZONE_MISMATCH);
+
+        int iframeScore = normalized.getIframeHidden() * p.get(IFRAME_HIDDEN)
+                + normalized.getIframeOffscreen() * p.get(IFRAME_OFFSCREEN)
+                + normalized.getIframeCrossOrigin() * p.get(IFRAME_CROSS_ORIGIN)
+                + normalized.getIframeNotFromOrg() * p.get(IFRAME_NOT_FROM_ORG);
+        score += Math.min(iframeScore, p.get(IFRAME_CONTRIBUTION_CAP));
+
+        score += normalized.getRapidClicking() * p.get(RAPID_CLICKING);
         return Math.min(score, MAX_SCORE);
     }
+
+    private static int referrerReputationScore(int tier, ScoringProfile p) {
+        if (tier <= 0) return 0;
+        return tier == 1 ? p.get(REFERRER_REPUTATION_SUSPICIOUS) : p.get(REFERRER_REPUTATION_KNOWN_BAD);
+    }
 }
@@ -0,0 +1,151 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.FlaggedIssue;
+import com.riskengine.dto.NormalizedSignals;
+import com.riskengine.dto.SignalRequest;
+import com.riskengine.util.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memoizes score, decision and flagged issues per distinct signal vector. Scoring and issue
+ * detection are pure functions of {@link NormalizedSignals} (plus the request's CSP flag), and real
+ * traffic repeats a small set of vectors, so the common case is one hash lookup instead of rebuilding
+ * the issue list and formatting descriptions.
+ *
+ * The vector is packed into a single long (see {@link #pack}); vectors with a value outside its bit
+ * budget (e.g. more than 31 iframes of one kind) bypass the cache. The table is direct-mapped and lock-free:
+ * a slot holds an immutable entry and a colliding vector simply overwrites it. Results are shared
+ * between requests, so the issue list is unmodifiable. {@link #invalidate()} drops every entry and
+ * must be called whenever scoring weights, decision thresholds or issue rules change at runtime.
+ * Lookups are counted in {@code risk.scoring.cache{result=hit|miss|bypass}}.
+ */
+@Service
+public class ScoringCache {
+
+    /** Score, decision and issues for one signal vector. */
+    public record Assessment(int riskScore, String decision, List<FlaggedIssue> flaggedIssues) {}
+
+    private record Entry(long key, Assessment assessment) {}
+
+    static final long UNPACKABLE = -1;
+
+    private final RiskScoringService riskScoringService;
+    private final DecisionService decisionService;
+    private final IssueDetectionService issueDetectionService;
+    private final int size;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypassed;
+    private volatile AtomicReferenceArray<Entry> table;
+
+    public ScoringCache(RiskScoringService riskScoringService, DecisionService decisionService,
+                        IssueDetectionService issueDetectionService, MeterRegistry meterRegistry,
+                        @Value("${risk.engine.scoring.cache-size:4096}") int size) {
+        this.riskScoringService = riskScoringService;
+        this.decisionService = decisionService;
+        this.issueDetectionService = issueDetectionService;
+        this.size = size <= 0 ? 0 : Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(this.size);
+        this.hits = counter(meterRegistry, "hit", "Assessments served from the scoring cache");
+        this.misses = counter(meterRegistry, "miss", "Assessments computed and cached");
+        this.bypassed = counter(meterRegistry, "bypass", "Assessments computed without caching (disabled or unpackable vector)");
+    }
+
+    public Assessment assess(NormalizedSignals normalized, SignalRequest request) {
+        return assess(normalized, Boolean.TRUE.equals(request.getCspRestricted()));
+    }
+
+    public Assessment assess(NormalizedSignals normalized, boolean cspRestricted) {
+        long key = size == 0 ? UNPACKABLE : pack(normalized, cspRestricted);
+        if (key == UNPACKABLE) {
+            bypassed.increment();
+            return compute(normalized, cspRestricted);
+        }
+        AtomicReferenceArray<Entry> t = table;
+        int slot = (int) HashUtil.mix64(key) & (size - 1);
+        Entry entry = t.get(slot);
+        if (entry != null && entry.key() == key) {
+            hits.increment();
+            return entry.assessment();
+        }
+        misses.increment();
+        Assessment assessment = compute(normalized, cspRestricted);
+        t.set(slot, new Entry(key, assessment));
+        return assessment;
+    }
+
+    /** Drops all cached assessments. */
+    public void invalidate() {
+        table = new AtomicReferenceArray<>(size);
+    }
+
+    private Assessment compute(NormalizedSignals normalized, boolean cspRestricted) {
+        int riskScore = riskScoringService.score(normalized);
+        return new Assessment(riskScore, decisionService.decide(riskScore),
+                List.copyOf(issueDetectionService.detectIssues(normalized, cspRestricted)));
+    }
+
+    /**
+     * Packs every input of scoring and issue detection into 60 bits: 19 flags, reputation tier
+     * (2 bits), IP blocklist categories (4 bits), the four iframe counts (5 bits each), cluster users
+     * (8 bits) and cluster prior risk (7 bits). Returns {@link #UNPACKABLE} when a value does not fit, so distinct vectors never share
+     * a key.
+     */
+    static long pack(NormalizedSignals n, boolean cspRestricted) {
+        Packer p = new Packer()
+                .put(n.getWebdriverFlag(), 1)
+                .put(n.getWebdriverScriptFn(), 1)
+                .put(n.getFetchOverridden(), 1)
+                .put(n.getPageOriginNotFromOrg(), 1)
+                .put(n.getReferrerNotFromOrg(), 1)
+                .put(n.getRapidClicking(), 1)
+                .put(n.getFunctionTampered(), 1)
+                .put(n.getIframeMismatch(), 1)
+                .put(n.getStorageBlocked(), 1)
+                .put(n.getHeadlessBrowser(), 1)
+                .put(n.getUaChromeObjectMissing(), 1)
+                .put(n.getUaChromeZeroPlugins(), 1)
+                .put(n.getUaAutomationToken(), 1)
+                .put(n.getBaselineNewDevice(), 1)
+                .put(n.getBaselineNewTimezone(), 1)
+                .put(n.getBaselineRareAttribute(), 1)
+                .put(n.getIpHosting(), 1)
+                .put(n.getIpTimezoneMismatch(), 1)
+                .put(cspRestricted ? 1 : 0, 1)
+                .put(n.getReferrerReputation(), 2)
+                .put(n.getIpBlocklist(), 4)
+                .put(n.getIframeHidden(), 5)
+                .put(n.getIframeOffscreen(), 5)
+                .put(n.getIframeCrossOrigin(), 5)
+                .put(n.getIframeNotFromOrg(), 5)
+                .put(n.getClusterUsers(), 8)
+                .put(n.getClusterPriorRisk(), 7);
+        return p.overflow ? UNPACKABLE : p.key;
+    }
+
+    private static final class Packer {
+        long key;
+        int shift;
+        boolean overflow;
+
+        Packer put(int value, int bits) {
+            if (value < 0 || value >= 1 << bits) {
+                overflow = true;
+            } else {
+                key |= (long) value << shift;
+            }
+            shift += bits;
+            return this;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String description) {
+        return Counter.builder("risk.scoring.cache").tag("result", result).description(description).register(registry);
+    }
+}
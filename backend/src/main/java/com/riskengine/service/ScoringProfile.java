@@ -0,0 +1,109 @@
+package com.riskengine.service;
+
+import java.util.Arrays;
+
+/**
+ * One complete set of scoring weights, rule parameters and decision thresholds. {@link #LIVE} holds
+ * the production values; candidate profiles for shadow scoring are parsed from
+ * {@code PARAM=value} overrides on top of it (e.g. {@code MFA_AT=25,IP_HOSTING=25}).
+ * Immutable.
+ */
+public final class ScoringProfile {
+
+    /** Tunable parameters with their live values. */
+    public enum Param {
+        WEBDRIVER(30),
+        WEBDRIVER_SCRIPT_FN(35),
+        FETCH_OVERRIDDEN(40),
+        PAGE_NOT_FROM_ORG(35),
+        REFERRER_NOT_FROM_ORG(30),
+        IFRAME_HIDDEN(10),
+        IFRAME_OFFSCREEN(15),
+        IFRAME_CROSS_ORIGIN(20),
+        IFRAME_NOT_FROM_ORG(15),
+        IFRAME_CONTRIBUTION_CAP(50),
+        RAPID_CLICKING(20),
+        FUNCTION_TAMPERED(25),
+        IFRAME_MISMATCH(25),
+        HEADLESS_BROWSER(30),
+        STORAGE_BLOCKED(15),
+        REFERRER_REPUTATION_SUSPICIOUS(15),
+        REFERRER_REPUTATION_KNOWN_BAD(45),
+        UA_CHROME_OBJECT_MISSING(25),
+        UA_CHROME_ZERO_PLUGINS(20),
+        UA_AUTOMATION_TOKEN(30),
+        /** Linked distinct users at which the account-ring weight applies. */
+        RING_MIN_USERS(5),
+        ACCOUNT_RING(25),
+        /** Prior cluster score at which the high-risk-cluster weight applies. */
+        HIGH_RISK_CLUSTER_SCORE(70),
+        HIGH_RISK_CLUSTER(20),
+        BASELINE_NEW_DEVICE(15),
+        BASELINE_NEW_TIMEZONE(10),
+        BASELINE_RARE_ATTRIBUTE(10),
+        IP_HOSTING(15),
+        IP_BLOCKLISTED(30),
+        IP_TIMEZONE_MISMATCH(10),
+        /** Lowest score answered with MFA (below: ALLOW). */
+        MFA_AT(30),
+        /** Lowest score answered with TERMINATE. */
+        TERMINATE_AT(70);
+
+        private final int live;
+
+        Param(int live) {
+            this.live = live;
+        }
+    }
+
+    private static final Param[] PARAMS = Param.values();
+
+    public static final ScoringProfile LIVE = new ScoringProfile("live",
+            Arrays.stream(PARAMS).mapToInt(p -> p.live).toArray());
+
+    private final String name;
+    private final int[] values;
+
+    private ScoringProfile(String name, int[] values) {
+        this.name = name;
+        this.values = values;
+    }
+
+    /**
+     * Live values with comma-separated {@code PARAM=value} overrides applied. Throws
+     * IllegalArgumentException for an unknown parameter or a non-integer value.
+     */
+    public static ScoringProfile parse(String name, String overrides) {
+        int[] values = LIVE.values.clone();
+        if (overrides != null) {
+            for (String part : overrides.split(",")) {
+                if (part.isBlank()) continue;
+                int eq = part.indexOf('=');
+                if (eq <= 0) throw new IllegalArgumentException("expected PARAM=value in profile " + name + ": " + part.trim());
+                Param param = Param.valueOf(part.substring(0, eq).trim().toUpperCase());
+                values[param.ordinal()] = Integer.parseInt(part.substring(eq + 1).trim());
+            }
+        }
+        return new ScoringProfile(name, values);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int get(Param param) {
+        return values[param.ordinal()];
+    }
+
+    /** Parameters that differ from {@link #LIVE}, as {@code PARAM=value}, for logs. */
+    public String describeOverrides() {
+        StringBuilder sb = new StringBuilder();
+        for (Param p : PARAMS) {
+            if (values[p.ordinal()] != p.live) {
+                if (!sb.isEmpty()) sb.append(',');
+                sb.append(p.name()).append('=').append(values[p.ordinal()]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.IssueCode;
+import com.riskengine.dto.SessionTimelineResponse;
+import com.riskengine.dto.TimelineEntry;
+import com.riskengine.repository.RiskRecordStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session timeline for investigators: raw signals and decisions for one session, newest first.
+ *
+ * Each page is two summary queries against the {@link RiskRecordStore} (on JPA: index range scans on
+ * (session_id, time) returning scalar projections, so no JSONB is read), merged in memory and cut to
+ * the page size. Paging is keyset-based, so deep pages cost the same as the first. Timestamps are not
+ * unique (a signal and its decision often share one), so the key is (time, type, id): entries are
+ * ordered by time, then signals before decisions, then id, all descending, and the opaque cursor
+ * {@code <instant>_<S|D><id>} names the last entry of a page. {@code before} alone starts strictly
+ * before an instant. First pages of recently viewed sessions are cached; writes for a session evict
+ * its entry.
+ */
+@Service
+public class SessionTimelineService {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final RiskRecordStore riskRecordStore;
+    private final long cacheTtlMs;
+    private final Map<String, CachedPage> firstPages;
+
+    public SessionTimelineService(RiskRecordStore riskRecordStore,
+                                  @Value("${risk.engine.timeline.cache-entries:1000}") int cacheEntries,
+                                  @Value("${risk.engine.timeline.cache-ttl-ms:10000}") long cacheTtlMs) {
+        this.riskRecordStore = riskRecordStore;
+        this.cacheTtlMs = cacheTtlMs;
+        this.firstPages = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+    }
+
+    /**
+     * One page of the session's timeline, starting after {@code cursor} (a previous {@code nextCursor})
+     * or, without one, strictly before {@code before}; both null for the newest page.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public SessionTimelineResponse timeline(String sessionId, Instant before, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor from = cursor == null || cursor.isEmpty() ? null : Cursor.parse(cursor);
+        boolean firstPage = before == null && from == null;
+        if (firstPage) {
+            CachedPage cached;
+            synchronized (firstPages) {
+                cached = firstPages.get(sessionId);
+            }
+            if (cached != null && cached.pageSize == pageSize && System.currentTimeMillis() - cached.createdAt < cacheTtlMs) {
+                return cached.response;
+            }
+        }
+
+        Instant upper = from != null ? from.at() : firstPage ? Instant.now().plusSeconds(1) : before;
+        // Signals sort before decisions at equal time: after a decision no signal of that instant is left,
+        // after a signal every decision of that instant still is
+        long signalsBeforeId = from != null && from.signal() ? from.id() : Long.MIN_VALUE;
+        long decisionsBeforeId = from == null ? Long.MIN_VALUE : from.signal() ? Long.MAX_VALUE : from.id();
+        var signals = riskRecordStore.signalSummaries(sessionId, upper, signalsBeforeId, pageSize);
+        var decisions = riskRecordStore.decisionSummaries(sessionId, upper, decisionsBeforeId, pageSize);
+
+        List<TimelineEntry> merged = new ArrayList<>(Math.min(pageSize, signals.size() + decisions.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < pageSize && (i < signals.size() || j < decisions.size())) {
+            boolean takeSignal = j >= decisions.size()
+                    || (i < signals.size() && !signals.get(i).at().isBefore(decisions.get(j).at()));
+            if (takeSignal) {
+                var s = signals.get(i++);
+                merged.add(TimelineEntry.builder().type("SIGNAL").id(s.id()).at(s.at()).userId(s.userId()).build());
+            } else {
+                var d = decisions.get(j++);
+                merged.add(TimelineEntry.builder().type("DECISION").id(d.id()).at(d.at()).userId(d.userId())
+                        .riskScore(d.riskScore()).decision(d.decision())
+                        .flaggedIssues(d.issueCodes() == null ? null : IssueCode.resolve(d.issueCodes())).build());
+            }
+        }
+        boolean more = i < signals.size() || j < decisions.size()
+                || signals.size() == pageSize || decisions.size() == pageSize;
+        String nextCursor = null;
+        if (more && !merged.isEmpty()) {
+            TimelineEntry last = merged.get(merged.size() - 1);
+            nextCursor = new Cursor(last.getAt(), "SIGNAL".equals(last.getType()), last.getId()).format();
+        }
+
+        SessionTimelineResponse response = SessionTimelineResponse.builder()
+                .sessionId(sessionId)
+                .entries(merged)
+                .nextCursor(nextCursor)
+                .build();
+        if (firstPage) {
+            synchronized (firstPages) {
+                firstPages.put(sessionId, new CachedPage(response, pageSize, System.currentTimeMillis()));
+            }
+        }
+        return response;
+    }
+
+    /** Drops the cached first page of a session after new rows are written. */
+    public void evict(String sessionId) {
+        if (sessionId == null) return;
+        synchronized (firstPages) {
+            firstPages.remove(sessionId);
+        }
+    }
+
+    private record CachedPage(SessionTimelineResponse response, int pageSize, long createdAt) {}
+
+    /** Position of the last entry of a page: {@code <ISO instant>_<S|D><id>}. */
+    private record Cursor(Instant at, boolean signal, long id) {
+
+        String format() {
+            return at + "_" + (signal ? 'S' : 'D') + id;
+        }
+
+        static Cursor parse(String cursor) {
+            int sep = cursor.lastIndexOf('_');
+            if (sep <= 0 || sep + 2 >= cursor.length()) throw new IllegalArgumentException("malformed cursor");
+            char type = cursor.charAt(sep + 1);
+            if (type != 'S' && type != 'D') throw new IllegalArgumentException("malformed cursor");
+            try {
+                return new Cursor(Instant.parse(cursor.substring(0, sep)), type == 'S',
+                        Long.parseLong(cursor, sep + 2, cursor.length(), 10));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("malformed cursor", e);
+            }
+        }
+    }
+}
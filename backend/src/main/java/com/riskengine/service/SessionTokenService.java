@@ -0,0 +1,219 @@
+package com.riskengine.service;
+
+import com.riskengine.util.SessionTokenCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Issues and verifies the stateless session tokens handed out at login ({@link SessionTokenCodec}).
+ * Verification is a key-id lookup plus one HMAC, with no session store behind it, so collect and
+ * evaluate can reject forged or garbage session/user IDs before any mapping or persistence.
+ *
+ * Keys form a ring of {@code kid:base64key} entries from {@code risk.engine.session.keys} and, when
+ * set, {@code risk.engine.session.key-file} (one entry per line, '#' comments). The first entry signs;
+ * every entry verifies. Rotation without downtime: add the new key second (all instances accept it),
+ * move it first (new logins use it), and drop the old key once {@code ttl-s} has passed. The key file
+ * is re-read when its modification time changes and swapped in as one volatile snapshot. With no key
+ * configured a random per-process key is generated, which only suits a single instance.
+ *
+ * Rejections are counted in {@code risk.session.token.rejected{reason}}.
+ */
+@Service
+@Slf4j
+public class SessionTokenService {
+
+    /** Why a request's session identity was refused. */
+    public enum Rejection { MISSING, MALFORMED, UNKNOWN_KEY, BAD_SIGNATURE, EXPIRED, MISMATCH }
+
+    /** Verified identity; both fields null when no token was sent and tokens are optional. */
+    public record Identity(String sessionId, String userId) {
+        public static final Identity UNVERIFIED = new Identity(null, null);
+
+        public boolean verified() {
+            return sessionId != null;
+        }
+    }
+
+    private final String keysConfig;
+    private final String keyFile;
+    private final long ttlSeconds;
+    private final boolean required;
+    private final Map<Rejection, Counter> rejected = new EnumMap<>(Rejection.class);
+
+    private volatile KeyRing ring;
+    private volatile long loadedMtime = Long.MIN_VALUE;
+
+    public SessionTokenService(MeterRegistry meterRegistry,
+                               @Value("${risk.engine.session.keys:}") String keysConfig,
+                               @Value("${risk.engine.session.key-file:}") String keyFile,
+                               @Value("${risk.engine.session.ttl-s:28800}") long ttlSeconds,
+                               @Value("${risk.engine.session.required:true}") boolean required) {
+        this.keysConfig = keysConfig;
+        this.keyFile = keyFile;
+        this.ttlSeconds = ttlSeconds;
+        this.required = required;
+        for (Rejection r : Rejection.values()) {
+            rejected.put(r, Counter.builder("risk.session.token.rejected")
+                    .tag("reason", r.name().toLowerCase())
+                    .description("Collect/evaluate requests refused for a missing or invalid session token")
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        KeyRing configured = build(readFileEntries());
+        if (configured == null) {
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            configured = new KeyRing(List.of(new SessionTokenCodec("ephemeral", key)));
+            log.atWarn().addKeyValue("event", "session_key_ephemeral")
+                    .log("No session keys configured; tokens are signed with a per-process key and will not verify on other instances or after restart");
+        }
+        ring = configured;
+    }
+
+    /** Re-reads the key file when its modification time changed; a broken file keeps the current ring. */
+    @Scheduled(fixedDelayString = "${risk.engine.session.reload-interval-ms:60000}",
+            initialDelayString = "${risk.engine.session.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (keyFile.isBlank()) return;
+        long mtime;
+        try {
+            mtime = Files.getLastModifiedTime(Paths.get(keyFile)).toMillis();
+        } catch (IOException e) {
+            mtime = -1L;
+        }
+        if (mtime == loadedMtime) return;
+        try {
+            KeyRing next = build(readFileEntries());
+            if (next != null) ring = next;
+        } catch (IllegalArgumentException e) {
+            log.atError().addKeyValue("event", "session_keys_invalid")
+                    .addKeyValue("file", keyFile)
+                    .setCause(e)
+                    .log("Session key file rejected; keeping the current keys");
+            loadedMtime = mtime;
+        }
+    }
+
+    /** Token for a new session, signed with the current signing key. */
+    public String issue(String sessionId, String userId) {
+        return ring.signer().mint(sessionId, userId, Instant.now().getEpochSecond() + ttlSeconds);
+    }
+
+    /**
+     * Verifies {@code token} and checks that IDs the client also sent in the body ({@code sessionId},
+     * {@code userId}; null when absent) agree with it. Returns the token's identity, {@link
+     * Identity#UNVERIFIED} when there is no token and tokens are optional, or null when the request
+     * must be refused.
+     */
+    public Identity authenticate(Object token, Object sessionId, Object userId) {
+        if (token == null || (token instanceof String s && s.isEmpty())) {
+            if (required) return reject(Rejection.MISSING);
+            return Identity.UNVERIFIED;
+        }
+        if (!(token instanceof String t)) return reject(Rejection.MALFORMED);
+        String kid = SessionTokenCodec.kidOf(t);
+        if (kid == null) return reject(Rejection.MALFORMED);
+        SessionTokenCodec codec = ring.byKid().get(kid);
+        if (codec == null) return reject(Rejection.UNKNOWN_KEY);
+        SessionTokenCodec.Claims[] out = new SessionTokenCodec.Claims[1];
+        SessionTokenCodec.Status status = codec.verify(t, Instant.now().getEpochSecond(), out);
+        if (status != SessionTokenCodec.Status.OK) return reject(Rejection.valueOf(status.name()));
+        SessionTokenCodec.Claims claims = out[0];
+        if ((sessionId != null && !sessionId.equals(claims.sessionId()))
+                || (userId != null && !Objects.equals(userId, claims.userId()))) {
+            return reject(Rejection.MISMATCH);
+        }
+        return new Identity(claims.sessionId(), claims.userId());
+    }
+
+    private Identity reject(Rejection reason) {
+        rejected.get(reason).increment();
+        return null;
+    }
+
+    private List<String> readFileEntries() {
+        List<String> entries = new ArrayList<>();
+        for (String part : keysConfig.split(",")) {
+            if (!part.isBlank()) entries.add(part.trim());
+        }
+        if (keyFile.isBlank()) return entries;
+        Path path = Paths.get(keyFile);
+        try {
+            loadedMtime = Files.getLastModifiedTime(path).toMillis();
+            // File entries come first so an operator can promote a key without touching the properties
+            List<String> fromFile = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith("#")) fromFile.add(trimmed);
+            }
+            fromFile.addAll(entries);
+            return fromFile;
+        } catch (IOException e) {
+            loadedMtime = -1L;
+            log.atWarn().addKeyValue("event", "session_key_file_unreadable")
+                    .addKeyValue("file", keyFile)
+                    .log("Session key file could not be read; using configured keys only");
+            return entries;
+        }
+    }
+
+    /** Ring from {@code kid:base64key} entries, or null when there are none. */
+    private static KeyRing build(List<String> entries) {
+        if (entries.isEmpty()) return null;
+        List<SessionTokenCodec> codecs = new ArrayList<>();
+        for (String entry : entries) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("expected kid:base64key session key entry");
+            String kid = entry.substring(0, colon).trim();
+            byte[] key;
+            try {
+                key = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("session key " + kid + " is not valid base64");
+            }
+            codecs.add(new SessionTokenCodec(kid, key));
+        }
+        KeyRing ring = new KeyRing(codecs);
+        log.atInfo().addKeyValue("event", "session_keys_loaded")
+                .addKeyValue("signingKid", ring.signer().kid())
+                .addKeyValue("keys", ring.byKid().keySet())
+                .log("Session token keys loaded");
+        return ring;
+    }
+
+    /** Signing key plus every verifying key by id. The first definition of a kid wins. */
+    private record KeyRing(SessionTokenCodec signer, Map<String, SessionTokenCodec> byKid) {
+        KeyRing(List<SessionTokenCodec> codecs) {
+            this(codecs.get(0), index(codecs));
+        }
+
+        private static Map<String, SessionTokenCodec> index(List<SessionTokenCodec> codecs) {
+            Map<String, SessionTokenCodec> byKid = new HashMap<>();
+            for (SessionTokenCodec c : codecs) byKid.putIfAbsent(c.kid(), c);
+            return Map.copyOf(byKid);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.NormalizedSignals;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow scoring: every admitted evaluation is re-scored under each candidate
+ * {@link ScoringProfile} on a small bounded executor, and the candidate's decision is compared with
+ * the live one. Shadow results never reach the response, the decision log or the audit trail.
+ *
+ * Candidates are listed in {@code risk.engine.shadow.candidates}; each one's overrides of the live
+ * weights and thresholds come from {@code risk.engine.shadow.profile.<name>}. The request thread only
+ * offers a task to a fixed-size queue: when the queue is full (load, slow shadow work) the task is
+ * dropped and counted, so shadow mode never adds latency or memory pressure to live traffic.
+ *
+ * Metrics per candidate: {@code risk.shadow.evaluations}, {@code risk.shadow.decisions{live,shadow}}
+ * (the live/shadow decision matrix), {@code risk.shadow.score.delta{direction}} (absolute score
+ * change), plus {@code risk.shadow.dropped}. Every {@code report-interval-ms} one compact line per
+ * candidate is logged with that window's agreement rate, mean delta and decision flips.
+ */
+@Service
+@Slf4j
+public class ShadowScoringService {
+
+    private static final String[] DECISIONS = {"ALLOW", "MFA", "TERMINATE"};
+
+    private final RiskScoringService riskScoringService;
+    private final DecisionService decisionService;
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final Counter dropped;
+    private final ThreadPoolExecutor executor;
+
+    public ShadowScoringService(RiskScoringService riskScoringService, DecisionService decisionService,
+                                MeterRegistry meterRegistry, Environment environment,
+                                @Value("${risk.engine.shadow.candidates:}") String candidateNames,
+                                @Value("${risk.engine.shadow.threads:1}") int threads,
+                                @Value("${risk.engine.shadow.queue-capacity:1000}") int queueCapacity) {
+        this.riskScoringService = riskScoringService;
+        this.decisionService = decisionService;
+        for (String name : candidateNames.split(",")) {
+            if (name.isBlank()) continue;
+            String key = name.trim();
+            ScoringProfile profile = ScoringProfile.parse(key, environment.getProperty("risk.engine.shadow.profile." + key, ""));
+            candidates.add(new Candidate(profile, meterRegistry));
+            log.atInfo().addKeyValue("event", "shadow_candidate_loaded")
+                    .addKeyValue("candidate", key)
+                    .addKeyValue("overrides", profile.describeOverrides())
+                    .log("Shadow scoring candidate registered");
+        }
+        this.dropped = Counter.builder("risk.shadow.dropped")
+                .description("Shadow evaluations skipped because the shadow queue was full")
+                .register(meterRegistry);
+        this.executor = candidates.isEmpty() ? null : new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "shadow-scorer");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a shadow comparison for a finished live evaluation, or drops it when the queue is full.
+     * {@code normalized} must not be modified afterwards.
+     */
+    public void submit(NormalizedSignals normalized, int liveScore, String liveDecision) {
+        if (executor == null) return;
+        try {
+            executor.execute(() -> compare(normalized, liveScore, liveDecision));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void compare(NormalizedSignals normalized, int liveScore, String liveDecision) {
+        int live = decisionIndex(liveDecision);
+        for (Candidate c : candidates) {
+            int score = riskScoringService.score(normalized, c.profile);
+            int shadow = decisionIndex(decisionService.decide(score, c.profile));
+            c.record(live, shadow, score - liveScore);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${risk.engine.shadow.report-interval-ms:60000}",
+            initialDelayString = "${risk.engine.shadow.report-interval-ms:60000}")
+    public void report() {
+        for (Candidate c : candidates) {
+            Candidate.Window w = c.drain();
+            if (w.evaluations() == 0) continue;
+            log.atInfo().addKeyValue("event", "shadow_report")
+                    .addKeyValue("candidate", c.profile.name())
+                    .addKeyValue("evaluations", w.evaluations())
+                    .addKeyValue("agreement", String.format("%.4f", 1.0 - (double) w.disagreements() / w.evaluations()))
+                    .addKeyValue("meanDelta", String.format("%.2f", (double) w.deltaSum() / w.evaluations()))
+                    .addKeyValue("maxAbsDelta", w.maxAbsDelta())
+                    .addKeyValue("flips", w.flips())
+                    .log("Shadow scoring comparison");
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private static int decisionIndex(String decision) {
+        for (int i = 0; i < DECISIONS.length; i++) {
+            if (DECISIONS[i].equals(decision)) return i;
+        }
+        return 1;
+    }
+
+    /** Metrics and the current report window for one candidate profile. */
+    private static final class Candidate {
+        final ScoringProfile profile;
+        final Counter evaluations;
+        final Counter[] decisions = new Counter[DECISIONS.length * DECISIONS.length];
+        final DistributionSummary deltaUp;
+        final DistributionSummary deltaDown;
+        final LongAdder windowEvaluations = new LongAdder();
+        final LongAdder windowDeltaSum = new LongAdder();
+        final LongAdder[] windowMatrix = new LongAdder[DECISIONS.length * DECISIONS.length];
+        final AtomicLong windowMaxAbsDelta = new AtomicLong();
+
+        record Window(long evaluations, long disagreements, long deltaSum, long maxAbsDelta, String flips) {}
+
+        Candidate(ScoringProfile profile, MeterRegistry registry) {
+            this.profile = profile;
+            this.evaluations = Counter.builder("risk.shadow.evaluations").tag("candidate", profile.name())
+                    .description("Live evaluations re-scored under the candidate profile").register(registry);
+            for (int live = 0; live < DECISIONS.length; live++) {
+                for (int shadow = 0; shadow < DECISIONS.length; shadow++) {
+                    decisions[live * DECISIONS.length + shadow] = Counter.builder("risk.shadow.decisions")
+                            .tag("candidate", profile.name())
+                            .tag("live", DECISIONS[live])
+                            .tag("shadow", DECISIONS[shadow])
+                            .description("Live vs candidate decision pairs")
+                            .register(registry);
+                    windowMatrix[live * DECISIONS.length + shadow] = new LongAdder();
+                }
+            }
+            this.deltaUp = delta(registry, profile, "up");
+            this.deltaDown = delta(registry, profile, "down");
+        }
+
+        void record(int live, int shadow, int delta) {
+            evaluations.increment();
+            decisions[live * DECISIONS.length + shadow].increment();
+            if (delta > 0) deltaUp.record(delta);
+            if (delta < 0) deltaDown.record(-delta);
+            windowEvaluations.increment();
+            windowDeltaSum.add(delta);
+            windowMatrix[live * DECISIONS.length + shadow].increment();
+            windowMaxAbsDelta.accumulateAndGet(Math.abs(delta), Math::max);
+        }
+
+        /** Returns and resets the report window (counts racing with the reset land in the next one). */
+        Window drain() {
+            long n = windowEvaluations.sumThenReset();
+            long deltaSum = windowDeltaSum.sumThenReset();
+            long maxAbsDelta = windowMaxAbsDelta.getAndSet(0);
+            long disagreements = 0;
+            StringBuilder flips = new StringBuilder();
+            for (int i = 0; i < windowMatrix.length; i++) {
+                long count = windowMatrix[i].sumThenReset();
+                int live = i / DECISIONS.length;
+                int shadow = i % DECISIONS.length;
+                if (live == shadow || count == 0) continue;
+                disagreements += count;
+                if (!flips.isEmpty()) flips.append(',');
+                flips.append(DECISIONS[live]).append("->").append(DECISIONS[shadow]).append('=').append(count);
+            }
+            return new Window(n, disagreements, deltaSum, maxAbsDelta, flips.toString());
+        }
+
+        private static DistributionSummary delta(MeterRegistry registry, ScoringProfile profile, String direction) {
+            return DistributionSummary.builder("risk.shadow.score.delta")
+                    .tag("candidate", profile.name())
+                    .tag("direction", direction)
+                    .description("Absolute score difference, candidate vs live, when the candidate scores " + direction)
+                    .register(registry);
+        }
+    }
+}
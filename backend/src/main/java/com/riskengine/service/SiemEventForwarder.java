@@ -0,0 +1,377 @@
+package com.riskengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.dto.SiemEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Forwards risk events to an HTTP Event Collector style endpoint (e.g. Splunk HEC).
+ * The request thread only enqueues into a bounded in-memory queue; a single background thread
+ * batches by size and time, gzips each batch and posts it with exponential backoff. Batches that
+ * still fail are spilled to disk and replayed oldest first, one after each live batch the collector
+ * accepts and during idle periods, so spills drain under steady traffic too.
+ *
+ * A batch the collector rejects outright (4xx other than 429) will never be accepted and is moved to
+ * {@code <spill-dir>/rejected} instead of being spilled. A spilled batch that fails
+ * {@code max-replay-failures} replays while the collector is accepting live batches is moved there
+ * too, so one poison batch cannot block replay of everything spilled after it.
+ *
+ * Spills are capped at {@code max-spill-bytes}: when a new spill would exceed it, the oldest spilled
+ * batches are deleted and their events counted as dropped. Outcomes are counted per event in
+ * {@code risk.siem.events{result=enqueued|dropped|sent|spilled|rejected}}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SiemEventForwarder {
+
+    @Value("${risk.engine.siem.enabled:false}")
+    private boolean enabled;
+
+    @Value("${risk.engine.siem.url:http://localhost:8088/services/collector/event}")
+    private String collectorUrl;
+
+    @Value("${risk.engine.siem.token:}")
+    private String token;
+
+    @Value("${risk.engine.siem.batch-size:500}")
+    private int batchSize;
+
+    @Value("${risk.engine.siem.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${risk.engine.siem.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${risk.engine.siem.max-retries:4}")
+    private int maxRetries;
+
+    @Value("${risk.engine.siem.initial-backoff-ms:200}")
+    private long initialBackoffMs;
+
+    @Value("${risk.engine.siem.spill-dir:siem-spill}")
+    private String spillDir;
+
+    @Value("${risk.engine.siem.max-replay-failures:5}")
+    private int maxReplayFailures;
+
+    @Value("${risk.engine.siem.max-spill-bytes:268435456}")
+    private long maxSpillBytes;
+
+    private static final String REJECTED_DIR = "rejected";
+
+    /** Outcome of posting one batch. */
+    enum SendResult { SENT, REJECTED, FAILED }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong spillSeq = new AtomicLong();
+    private Counter enqueued;
+    private Counter dropped;
+    private Counter sent;
+    private Counter spilled;
+    private Counter rejected;
+
+    private BlockingQueue<SiemEvent> queue;
+    private HttpClient httpClient;
+    private Thread worker;
+    private volatile boolean running;
+    /** Whether the last live send was accepted; replay failures only count against a file while it is. */
+    private boolean collectorHealthy = true;
+    /** Failed replays per spilled file while the collector was healthy; worker thread only. */
+    private final Map<Path, Integer> replayFailures = new HashMap<>();
+
+    @PostConstruct
+    void start() throws IOException {
+        enqueued = counter("enqueued", "SIEM events queued for forwarding");
+        dropped = counter("dropped", "SIEM events dropped on a full queue or evicted from a full spill directory");
+        sent = counter("sent", "SIEM events accepted by the collector, live or replayed");
+        spilled = counter("spilled", "SIEM events spilled to disk after the collector kept failing");
+        rejected = counter("rejected", "SIEM events moved to the rejected directory");
+        if (!enabled) return;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        Files.createDirectories(Paths.get(spillDir, REJECTED_DIR));
+        running = true;
+        worker = new Thread(this::runLoop, "siem-forwarder");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) return;
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Enqueues an event without blocking. When the queue is full the event is dropped and counted.
+     */
+    public void publish(SiemEvent event) {
+        if (!enabled) return;
+        if (queue.offer(event)) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void runLoop() {
+        List<SiemEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    SiemEvent e = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (e == null) break;
+                    batch.add(e);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException ie) {
+                // Shutting down: drain what is left and flush it below
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+            // Interleaved with live batches: one replay per loop while the collector is accepting data
+            if (running && collectorHealthy) {
+                replayOneSpilled();
+            } else if (running && batch.isEmpty() && queue.isEmpty()) {
+                // Idle with a failing collector: a replay doubles as the recovery probe
+                replayOneSpilled();
+            }
+        }
+    }
+
+    private void flush(List<SiemEvent> batch) {
+        byte[] body;
+        try {
+            body = gzip(batch);
+        } catch (IOException e) {
+            log.atError().addKeyValue("event", "siem_encode_failed").setCause(e).log("Could not encode SIEM batch");
+            return;
+        }
+        SendResult result = sendWithRetry(body, maxRetries);
+        collectorHealthy = result != SendResult.FAILED;
+        switch (result) {
+            case SENT -> sent.increment(batch.size());
+            case REJECTED -> writeRejected(body, newBatchName(batch.size()), batch.size());
+            case FAILED -> spill(body, batch.size());
+        }
+    }
+
+    /** Newline-delimited HEC envelopes, gzip-compressed. */
+    private byte[] gzip(List<SiemEvent> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            for (SiemEvent e : batch) {
+                gz.write(objectMapper.writeValueAsBytes(new HecEnvelope(e.getTime() / 1000.0, "risk-engine", e)));
+                gz.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private SendResult sendWithRetry(byte[] gzippedBody, int retries) {
+        long backoff = initialBackoffMs;
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            try {
+                HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(collectorUrl))
+                        .timeout(Duration.ofSeconds(5))
+                        .header("Content-Type", "application/json")
+                        .header("Content-Encoding", "gzip")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(gzippedBody));
+                if (!token.isBlank()) req.header("Authorization", "Splunk " + token);
+                int status = httpClient.send(req.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 200 && status < 300) return SendResult.SENT;
+                // Client errors other than throttling will not succeed on retry
+                if (status >= 400 && status < 500 && status != 429) return SendResult.REJECTED;
+            } catch (IOException e) {
+                log.atDebug().addKeyValue("event", "siem_send_failed").addKeyValue("attempt", attempt).log(e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return SendResult.FAILED;
+            }
+            if (attempt < retries) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return SendResult.FAILED;
+                }
+                backoff = Math.min(backoff * 2, 30_000);
+            }
+        }
+        return SendResult.FAILED;
+    }
+
+    /** Sorts oldest first; the trailing event count lets evictions and replays be counted per event. */
+    private String newBatchName(int events) {
+        return String.format(Locale.ROOT, "batch-%d-%06d-%d.ndjson.gz", System.currentTimeMillis(), spillSeq.incrementAndGet(), events);
+    }
+
+    /** Event count from {@link #newBatchName}; 0 for files that do not carry one. */
+    private static int eventsIn(Path file) {
+        String name = file.getFileName().toString();
+        String[] parts = name.substring(0, name.length() - ".ndjson.gz".length()).split("-");
+        try {
+            return parts.length == 4 ? Integer.parseInt(parts[3]) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void spill(byte[] gzippedBody, int events) {
+        if (!makeSpillRoom(gzippedBody.length)) {
+            dropped.increment(events);
+            log.atError().addKeyValue("event", "siem_batch_dropped").addKeyValue("bytes", gzippedBody.length)
+                    .log("SIEM batch larger than max-spill-bytes – dropped");
+            return;
+        }
+        Path file = Paths.get(spillDir, newBatchName(events));
+        try {
+            Files.write(file, gzippedBody);
+            spilled.increment(events);
+            log.atWarn().addKeyValue("event", "siem_batch_spilled").addKeyValue("file", file.toString())
+                    .log("SIEM collector unavailable – batch spilled to disk");
+        } catch (IOException e) {
+            log.atError().addKeyValue("event", "siem_spill_failed").setCause(e).log("Could not spill SIEM batch");
+        }
+    }
+
+    /**
+     * Deletes the oldest spilled batches until {@code incomingBytes} more fit under
+     * {@code max-spill-bytes}. False when the batch alone is larger than the limit.
+     */
+    private boolean makeSpillRoom(long incomingBytes) {
+        if (incomingBytes > maxSpillBytes) return false;
+        List<Path> files = spilledOldestFirst();
+        long total = 0;
+        for (Path file : files) {
+            total += sizeOf(file);
+        }
+        for (int i = 0; i < files.size() && total + incomingBytes > maxSpillBytes; i++) {
+            Path oldest = files.get(i);
+            long size = sizeOf(oldest);
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.atWarn().addKeyValue("event", "siem_spill_evict_failed").addKeyValue("file", oldest.toString()).log(e.getMessage());
+                continue;
+            }
+            total -= size;
+            replayFailures.remove(oldest);
+            dropped.increment(eventsIn(oldest));
+            log.atWarn().addKeyValue("event", "siem_spill_evicted").addKeyValue("file", oldest.toString())
+                    .log("SIEM spill directory full – oldest batch deleted");
+        }
+        return true;
+    }
+
+    private List<Path> spilledOldestFirst() {
+        try (Stream<Path> files = Files.list(Paths.get(spillDir))) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".ndjson.gz")).sorted().toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /** Keeps a batch the collector will not accept under {@code <spill-dir>/rejected} for inspection. */
+    private void writeRejected(byte[] gzippedBody, String name, int events) {
+        Path file = Paths.get(spillDir, REJECTED_DIR, name);
+        try {
+            Files.write(file, gzippedBody);
+            rejected.increment(events);
+            log.atError().addKeyValue("event", "siem_batch_rejected").addKeyValue("file", file.toString())
+                    .log("SIEM collector rejected batch – moved aside, not retried");
+        } catch (IOException e) {
+            log.atError().addKeyValue("event", "siem_reject_write_failed").setCause(e).log("Could not keep rejected SIEM batch");
+        }
+    }
+
+    /**
+     * Re-sends the oldest spilled batch (single attempt, so a still-down collector does not stall the
+     * live queue). The file is deleted once the collector accepts it and moved to {@code rejected} when
+     * the collector rejects it or it has failed {@code max-replay-failures} times while live batches
+     * were getting through.
+     */
+    private void replayOneSpilled() {
+        List<Path> spilledFiles = spilledOldestFirst();
+        if (spilledFiles.isEmpty()) return;
+        Path oldest = spilledFiles.get(0);
+        try {
+            SendResult result = sendWithRetry(Files.readAllBytes(oldest), 0);
+            if (result == SendResult.SENT) {
+                Files.deleteIfExists(oldest);
+                replayFailures.remove(oldest);
+                sent.increment(eventsIn(oldest));
+                collectorHealthy = true;
+                return;
+            }
+            int failures = result == SendResult.REJECTED ? maxReplayFailures
+                    : collectorHealthy ? replayFailures.merge(oldest, 1, Integer::sum) : 0;
+            if (failures >= maxReplayFailures) {
+                Files.move(oldest, Paths.get(spillDir, REJECTED_DIR, oldest.getFileName().toString()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                replayFailures.remove(oldest);
+                rejected.increment(eventsIn(oldest));
+                log.atError().addKeyValue("event", "siem_batch_rejected").addKeyValue("file", oldest.toString())
+                        .addKeyValue("result", result.name())
+                        .log("Spilled SIEM batch keeps failing – moved aside so later batches can replay");
+            }
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "siem_replay_failed").addKeyValue("file", oldest.toString()).log(e.getMessage());
+        }
+    }
+
+    private Counter counter(String result, String description) {
+        return Counter.builder("risk.siem.events").tag("result", result).description(description).register(meterRegistry);
+    }
+
+    private record HecEnvelope(double time, String sourcetype, SiemEvent event) {}
+}
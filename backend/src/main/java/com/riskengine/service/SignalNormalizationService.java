@@ -1,8 +1,11 @@
 package com.riskengine.service;
 
-import com.riskengine.dto.IframeSignals;
+import com.riskengine.dto.CompactSignals;
 import com.riskengine.dto.NormalizedSignals;
 import com.riskengine.dto.SignalRequest;
+import com.riskengine.dto.UserAgentInfo;
+import com.riskengine.util.HostParser;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -14,7 +17,8 @@ import java.util.stream.Collectors;
 
 /**
  * Normalizes raw client signals for rule-based (and future ML) consumption.
- * Boolean → 0/1, iframe counts from iframeSignals, page/iframe "not from org" flags, click interval → rapid-click.
+ * Boolean → 0/1, iframe counts from iframeSignals, page/iframe "not from org" flags, click interval → rapid-click,
+ * client IP → hosting/blocklist/timezone-contradiction flags.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,92 +29,92 @@ public class SignalNormalizationService {
     @Value("${risk.engine.allowed-hosts:localhost,127.0.0.1}")
     private String allowedHostsConfig;
 
+    private Set<String> allowedHosts;
+
     private final ReferrerService referrerService;
+    private final UserAgentParser userAgentParser;
+    private final IpIntelligenceService ipIntelligenceService;
 
     public NormalizedSignals normalize(SignalRequest request) {
-        int webdriver = booleanToInt(request.getWebdriverFlag());
-        int fetchOverridden = booleanToInt(request.getFetchOverridden());
-        int iframeHidden = getIframeCount(request, IframeSignals::getHidden);
-        int iframeOffscreen = getIframeCount(request, IframeSignals::getOffscreen);
-        int iframeCrossOrigin = getIframeCount(request, IframeSignals::getCrossOrigin);
-        int iframeNotFromOrg = getIframeCount(request, IframeSignals::getNotFromOrg);
-        int pageOriginNotFromOrg = isPageOriginNotFromOrg(request);
-        int referrerNotFromOrg = referrerService.isSuspicious(request.getReferrerUrl()) ? 1 : 0;
-        int rapidClicking = isRapidClicking(request.getClickIntervalAvg());
-        int functionTampered = booleanToInt(request.getFunctionTampered());
-        int iframeMismatch = booleanToInt(request.getIframeMismatch());
-        int storageBlocked = booleanToInt(request.getStorageBlocked());
-        int headlessBrowser = isHeadlessBrowser(request);
-        int webdriverScriptFn = booleanToInt(request.getHasWebdriverScriptFn());
+        return normalize(CompactSignals.from(request));
+    }
+
+    public NormalizedSignals normalize(CompactSignals signals) {
+        int referrerNotFromOrg = referrerService.isSuspicious(signals.getReferrerUrl()) ? 1 : 0;
+        int referrerReputation = referrerService.reputationOf(signals.getReferrerUrl()).ordinal();
+        UserAgentInfo ua = userAgentParser.parse(signals.getUserAgent());
+        IpIntelligenceService.IpIntel ip = ipIntelligenceService.lookup(signals.getClientIp());
 
         return NormalizedSignals.builder()
-                .webdriverFlag(webdriver)
-                .fetchOverridden(fetchOverridden)
-                .iframeHidden(iframeHidden)
-                .iframeOffscreen(iframeOffscreen)
-                .iframeCrossOrigin(iframeCrossOrigin)
-                .iframeNotFromOrg(iframeNotFromOrg)
-                .pageOriginNotFromOrg(pageOriginNotFromOrg)
+                .webdriverFlag(flag(signals, CompactSignals.WEBDRIVER))
+                .fetchOverridden(flag(signals, CompactSignals.FETCH_OVERRIDDEN))
+                .iframeHidden(Math.max(0, signals.getIframeHidden()))
+                .iframeOffscreen(Math.max(0, signals.getIframeOffscreen()))
+                .iframeCrossOrigin(Math.max(0, signals.getIframeCrossOrigin()))
+                .iframeNotFromOrg(Math.max(0, signals.getIframeNotFromOrg()))
+                .pageOriginNotFromOrg(isPageOriginNotFromOrg(signals))
                 .referrerNotFromOrg(referrerNotFromOrg)
-                .rapidClicking(rapidClicking)
-                .functionTampered(functionTampered)
-                .iframeMismatch(iframeMismatch)
-                .storageBlocked(storageBlocked)
-                .headlessBrowser(headlessBrowser)
-                .webdriverScriptFn(webdriverScriptFn)
+                .rapidClicking(isRapidClicking(signals))
+                .functionTampered(flag(signals, CompactSignals.FUNCTION_TAMPERED))
+                .iframeMismatch(flag(signals, CompactSignals.IFRAME_MISMATCH))
+                .storageBlocked(flag(signals, CompactSignals.STORAGE_BLOCKED))
+                .headlessBrowser(isHeadlessBrowser(signals))
+                .webdriverScriptFn(flag(signals, CompactSignals.HAS_WEBDRIVER_SCRIPT_FN))
+                .referrerReputation(referrerReputation)
+                .uaChromeObjectMissing(isChromeObjectMissing(ua, signals))
+                .uaChromeZeroPlugins(isChromeZeroPlugins(ua, signals))
+                .uaAutomationToken(ua.isAutomation() ? 1 : 0)
+                .ipHosting(ip.hosting() ? 1 : 0)
+                .ipBlocklist(ip.categories())
+                .ipTimezoneMismatch(ipIntelligenceService.timezoneContradicts(ip, signals.getTimezone()) ? 1 : 0)
                 .build();
     }
 
-    private int isPageOriginNotFromOrg(SignalRequest request) {
+    @PostConstruct
+    void init() {
+        allowedHosts = Arrays.stream(allowedHostsConfig.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private int isPageOriginNotFromOrg(CompactSignals signals) {
         // Use backend allowed-hosts as source of truth when page origin is present
-        String origin = request.getPageOrigin();
+        String origin = signals.getPageOrigin();
         if (origin != null && !origin.isBlank()) {
-            String host = extractHostFromOrigin(origin);
+            String host = HostParser.host(origin);
             if (host != null && !host.isBlank()) {
-                Set<String> allowed = Arrays.stream(allowedHostsConfig.split(","))
-                        .map(String::trim)
-                        .filter(s -> !s.isEmpty())
-                        .map(String::toLowerCase)
-                        .collect(Collectors.toSet());
-                return allowed.contains(host.toLowerCase()) ? 0 : 1;
+                return allowedHosts.contains(host) ? 0 : 1;
             }
         }
         // Fallback to client-reported flag when origin is missing
-        return Boolean.TRUE.equals(request.getPageOriginNotFromOrg()) ? 1 : 0;
+        return flag(signals, CompactSignals.PAGE_ORIGIN_NOT_FROM_ORG);
     }
 
-    private static String extractHostFromOrigin(String origin) {
-        if (origin == null) return null;
-        origin = origin.trim();
-        int i = origin.indexOf("://");
-        if (i >= 0) origin = origin.substring(i + 3);
-        int j = origin.indexOf(':');
-        if (j >= 0) origin = origin.substring(0, j);
-        int k = origin.indexOf('/');
-        if (k >= 0) origin = origin.substring(0, k);
-        return origin.isEmpty() ? null : origin;
+    private static int flag(CompactSignals signals, int field) {
+        return signals.is(field) ? 1 : 0;
     }
 
-    private static int getIframeCount(SignalRequest request, java.util.function.ToIntFunction<IframeSignals> getter) {
-        IframeSignals s = request.getIframeSignals();
-        return s == null ? 0 : Math.max(0, getter.applyAsInt(s));
+    private static int isRapidClicking(CompactSignals signals) {
+        if (!signals.has(CompactSignals.CLICK_INTERVAL_AVG)) return 0;
+        return signals.getClickIntervalAvg() < RAPID_CLICK_THRESHOLD_MS ? 1 : 0;
     }
 
-    private static int booleanToInt(Boolean value) {
-        return Boolean.TRUE.equals(value) ? 1 : 0;
+    /** Blink browsers expose window.chrome; iOS "Chrome" is WebKit and does not. */
+    private static int isChromeObjectMissing(UserAgentInfo ua, CompactSignals signals) {
+        boolean chromeAbsent = signals.has(CompactSignals.HAS_CHROME) && !signals.is(CompactSignals.HAS_CHROME);
+        return ua.isChromium() && !"iOS".equals(ua.getOs()) && chromeAbsent ? 1 : 0;
     }
 
-    private static int isRapidClicking(Double clickIntervalAvg) {
-        if (clickIntervalAvg == null) return 0;
-        return clickIntervalAvg < RAPID_CLICK_THRESHOLD_MS ? 1 : 0;
+    /** Desktop Chrome ships built-in PDF viewer plugins; zero plugins means a stripped or spoofed environment. */
+    private static int isChromeZeroPlugins(UserAgentInfo ua, CompactSignals signals) {
+        boolean zeroPlugins = signals.has(CompactSignals.PLUGINS_LENGTH) && signals.getPluginsLength() == 0;
+        return ua.isChromium() && "DESKTOP".equals(ua.getDeviceClass()) && zeroPlugins ? 1 : 0;
     }
 
-    private static int isHeadlessBrowser(SignalRequest request) {
-        Integer pl = request.getPluginsLength();
-        Integer mt = request.getMimeTypesLength();
-        if (pl == null && mt == null) return 0;
-        int p = pl != null ? pl : 0;
-        int m = mt != null ? mt : 0;
-        return (p == 0 && m == 0) ? 1 : 0;
+    private static int isHeadlessBrowser(CompactSignals signals) {
+        if (!signals.has(CompactSignals.PLUGINS_LENGTH) && !signals.has(CompactSignals.MIME_TYPES_LENGTH)) return 0;
+        return (signals.getPluginsLength() == 0 && signals.getMimeTypesLength() == 0) ? 1 : 0;
     }
 }
@@ -1,5 +1,6 @@
 package com.riskengine.service;
 
+import com.riskengine.dto.CompactSignals;
 import com.riskengine.dto.SignalRequest;
 import com.riskengine.util.HashUtil;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,15 @@ public class SignatureService {
         return HashUtil.sha256Hex(payload);
     }
 
+    /** Same signature as {@link #generate(SignalRequest)}, built without boxing the screen size. */
+    public String generate(CompactSignals signals) {
+        StringBuilder payload = new StringBuilder(160).append(nullToEmpty(signals.getUserAgent()));
+        if (signals.has(CompactSignals.SCREEN_WIDTH)) payload.append(signals.getScreenWidth());
+        if (signals.has(CompactSignals.SCREEN_HEIGHT)) payload.append(signals.getScreenHeight());
+        payload.append(nullToEmpty(signals.getTimezone()));
+        return HashUtil.sha256Hex(payload.toString());
+    }
+
     private static String nullToEmpty(String s) {
         return s != null ? s : "";
     }
@@ -0,0 +1,267 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.HeavyHitter;
+import com.riskengine.dto.SketchEstimate;
+import com.riskengine.util.CountMinSketch;
+import com.riskengine.util.HashUtil;
+import com.riskengine.util.HostParser;
+import com.riskengine.util.HyperLogLog;
+import com.riskengine.util.KeyedHyperLogLog;
+import com.riskengine.util.SpaceSaving;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fixed-memory traffic sketches for the current UTC day, updated inline from the evaluation path:
+ * <ul>
+ *   <li>distinct users and devices overall (HyperLogLog, p=14, ~0.8% error)</li>
+ *   <li>distinct devices per user and distinct users per fingerprint ({@link KeyedHyperLogLog})</li>
+ *   <li>evaluations per user ({@link CountMinSketch})</li>
+ *   <li>top referrer hosts per decision ({@link SpaceSaving})</li>
+ * </ul>
+ * Memory depends only on configuration (defaults: 2 × 4 MB shared registers, 512 KB Count-Min, a few
+ * hundred top-k counters per decision), not on traffic. Sketches reset when the UTC day
+ * changes. A snapshot is the binary form of all sketches plus its day; snapshots from other nodes
+ * for the same day can be merged in, and the local snapshot is written on shutdown and merged back
+ * on startup.
+ *
+ * There is no service-wide lock. The register and counter sketches take lock-free atomic updates,
+ * and each decision's top-k summary has its own monitor held only for one offer, so evaluations never
+ * wait on each other, on a multi-megabyte snapshot or on a merge. A snapshot reads the live
+ * sketches without stopping writers and may include part of an in-flight update. A merge parses and
+ * validates its input before touching them. A new day swaps in a fresh set of sketches.
+ */
+@Service
+@Slf4j
+public class TrafficSketchService {
+
+    private static final int SNAPSHOT_MAGIC = 0x534B5431; // "SKT1"
+    private static final long DAY_MS = 86_400_000L;
+    private static final List<String> DECISIONS = List.of("ALLOW", "MFA", "TERMINATE");
+    private static final int DISTINCT_PRECISION = 14;
+    private static final int COUNT_MIN_DEPTH = 4;
+
+    public static final String USERS = "users";
+    public static final String DEVICES = "devices";
+    public static final String DEVICES_PER_USER = "devicesPerUser";
+    public static final String USERS_PER_FINGERPRINT = "usersPerFingerprint";
+    public static final String EVALUATIONS_PER_USER = "evaluationsPerUser";
+
+    private final String checkpointFile;
+    private final int keyedLogRegisters;
+    private final int keyedRegistersPerKey;
+    private final int countMinWidth;
+    private final int topK;
+    private volatile Sketches current;
+
+    /** All sketches for one UTC day. */
+    private final class Sketches {
+        final long day;
+        final HyperLogLog distinctUsers = new HyperLogLog(DISTINCT_PRECISION);
+        final HyperLogLog distinctDevices = new HyperLogLog(DISTINCT_PRECISION);
+        final KeyedHyperLogLog devicesPerUser = new KeyedHyperLogLog(keyedLogRegisters, keyedRegistersPerKey);
+        final KeyedHyperLogLog usersPerFingerprint = new KeyedHyperLogLog(keyedLogRegisters, keyedRegistersPerKey);
+        final CountMinSketch evaluationsPerUser = new CountMinSketch(COUNT_MIN_DEPTH, countMinWidth);
+        /** Indexed like {@link #DECISIONS}; each is guarded by its own monitor. */
+        final SpaceSaving[] referrersByDecision = new SpaceSaving[DECISIONS.size()];
+
+        Sketches(long day) {
+            this.day = day;
+            for (int i = 0; i < referrersByDecision.length; i++) referrersByDecision[i] = new SpaceSaving(topK);
+        }
+    }
+
+    public TrafficSketchService(@Value("${risk.engine.sketch.keyed-log-registers:22}") int keyedLogRegisters,
+                                @Value("${risk.engine.sketch.keyed-registers-per-key:64}") int keyedRegistersPerKey,
+                                @Value("${risk.engine.sketch.count-min-width:16384}") int countMinWidth,
+                                @Value("${risk.engine.sketch.top-k:256}") int topK,
+                                @Value("${risk.engine.sketch.checkpoint-file:sketches.bin}") String checkpointFile) {
+        this.keyedLogRegisters = keyedLogRegisters;
+        this.keyedRegistersPerKey = keyedRegistersPerKey;
+        this.countMinWidth = countMinWidth;
+        this.topK = topK;
+        this.checkpointFile = checkpointFile;
+        this.current = new Sketches(System.currentTimeMillis() / DAY_MS);
+    }
+
+    /** Folds one evaluation into the sketches. Null identifiers are skipped. */
+    public void record(String userId, String deviceSignature, String fingerprintHash, String referrerUrl, String decision) {
+        long user = userId == null || userId.isEmpty() ? 0 : HashUtil.hash64(userId);
+        long device = deviceSignature == null ? 0 : HashUtil.hash64(deviceSignature);
+        long fingerprint = fingerprintHash == null || fingerprintHash.isEmpty() ? 0 : HashUtil.hash64(fingerprintHash);
+        String referrerHost = HostParser.host(referrerUrl);
+        Sketches s = today();
+        if (device != 0) s.distinctDevices.add(device);
+        if (user != 0) {
+            s.distinctUsers.add(user);
+            s.evaluationsPerUser.add(user, 1);
+            if (device != 0) s.devicesPerUser.add(user, device);
+            if (fingerprint != 0) s.usersPerFingerprint.add(fingerprint, user);
+        }
+        int d = DECISIONS.indexOf(decision);
+        if (d >= 0 && referrerHost != null) {
+            SpaceSaving referrers = s.referrersByDecision[d];
+            synchronized (referrers) {
+                referrers.offer(referrerHost, 1);
+            }
+        }
+    }
+
+    public SketchEstimate distinct(String dimension) {
+        Sketches s = today();
+        long estimate = switch (dimension) {
+            case USERS -> s.distinctUsers.estimate();
+            case DEVICES -> s.distinctDevices.estimate();
+            default -> throw new IllegalArgumentException("unknown dimension: " + dimension);
+        };
+        return estimate(s, dimension, null, estimate);
+    }
+
+    public SketchEstimate devicesForUser(String userId) {
+        Sketches s = today();
+        return estimate(s, DEVICES_PER_USER, userId, s.devicesPerUser.estimate(HashUtil.hash64(userId)));
+    }
+
+    public SketchEstimate usersForFingerprint(String fingerprintHash) {
+        Sketches s = today();
+        return estimate(s, USERS_PER_FINGERPRINT, fingerprintHash, s.usersPerFingerprint.estimate(HashUtil.hash64(fingerprintHash)));
+    }
+
+    public SketchEstimate evaluationsForUser(String userId) {
+        Sketches s = today();
+        return estimate(s, EVALUATIONS_PER_USER, userId, s.evaluationsPerUser.estimate(HashUtil.hash64(userId)));
+    }
+
+    /** Top referrer hosts for a decision; count is an upper bound, count - error a lower bound. */
+    public List<HeavyHitter> topReferrers(String decision, int limit) {
+        int d = DECISIONS.indexOf(decision);
+        if (d < 0) throw new IllegalArgumentException("unknown decision: " + decision);
+        SpaceSaving referrers = today().referrersByDecision[d];
+        List<SpaceSaving.Entry> top;
+        synchronized (referrers) {
+            top = referrers.top(Math.max(1, limit));
+        }
+        return top.stream()
+                .map(e -> HeavyHitter.builder().key(e.key()).count(e.count()).error(e.error()).build())
+                .toList();
+    }
+
+    public byte[] snapshot() {
+        Sketches s = today();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(s.day);
+            s.distinctUsers.writeTo(out);
+            s.distinctDevices.writeTo(out);
+            s.devicesPerUser.writeTo(out);
+            s.usersPerFingerprint.writeTo(out);
+            s.evaluationsPerUser.writeTo(out);
+            for (SpaceSaving referrers : s.referrersByDecision) {
+                synchronized (referrers) {
+                    referrers.writeTo(out);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("in-memory write failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Merges a snapshot (e.g. from another node) into the local sketches. Returns false when the
+     * snapshot is for a different day and was ignored. Every sketch header is checked against this
+     * node's configuration before its arrays are allocated, so a snapshot cannot choose allocation sizes.
+     *
+     * @throws IOException if the snapshot is malformed
+     * @throws IllegalArgumentException if its sketch layout differs from this node's configuration
+     */
+    public boolean merge(byte[] snapshot) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("not a sketch snapshot");
+        long snapshotDay = in.readLong();
+        HyperLogLog users = HyperLogLog.readFrom(in, DISTINCT_PRECISION);
+        HyperLogLog devices = HyperLogLog.readFrom(in, DISTINCT_PRECISION);
+        KeyedHyperLogLog perUser = KeyedHyperLogLog.readFrom(in, keyedLogRegisters, keyedRegistersPerKey);
+        KeyedHyperLogLog perFingerprint = KeyedHyperLogLog.readFrom(in, keyedLogRegisters, keyedRegistersPerKey);
+        CountMinSketch evaluations = CountMinSketch.readFrom(in, COUNT_MIN_DEPTH, countMinWidth);
+        SpaceSaving[] referrers = new SpaceSaving[DECISIONS.size()];
+        for (int i = 0; i < referrers.length; i++) referrers[i] = SpaceSaving.readFrom(in, topK);
+
+        Sketches s = today();
+        if (snapshotDay != s.day) return false;
+        s.distinctUsers.merge(users);
+        s.distinctDevices.merge(devices);
+        s.devicesPerUser.merge(perUser);
+        s.usersPerFingerprint.merge(perFingerprint);
+        s.evaluationsPerUser.merge(evaluations);
+        for (int i = 0; i < referrers.length; i++) {
+            synchronized (s.referrersByDecision[i]) {
+                s.referrersByDecision[i].merge(referrers[i]);
+            }
+        }
+        return true;
+    }
+
+    @PostConstruct
+    void load() {
+        Path path = Paths.get(checkpointFile);
+        if (!Files.exists(path)) return;
+        try {
+            boolean merged = merge(Files.readAllBytes(path));
+            log.atInfo().addKeyValue("event", "sketch_checkpoint_loaded").addKeyValue("file", checkpointFile)
+                    .addKeyValue("current", merged)
+                    .log(merged ? "Traffic sketches restored" : "Traffic sketch checkpoint is from another day – ignored");
+        } catch (IOException | IllegalArgumentException e) {
+            log.atWarn().addKeyValue("event", "sketch_checkpoint_unreadable").addKeyValue("file", checkpointFile)
+                    .log(e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void checkpoint() {
+        Path target = Paths.get(checkpointFile).toAbsolutePath();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.write(tmp, snapshot());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "sketch_checkpoint_failed").log(e.getMessage());
+        }
+    }
+
+    /** Sketches for the current UTC day, swapping in an empty set when the day has changed. */
+    private Sketches today() {
+        Sketches s = current;
+        long day = System.currentTimeMillis() / DAY_MS;
+        if (s.day == day) return s;
+        synchronized (this) {
+            if (current.day != day) current = new Sketches(day);
+            return current;
+        }
+    }
+
+    private static SketchEstimate estimate(Sketches s, String dimension, String key, long value) {
+        return SketchEstimate.builder()
+                .dimension(dimension)
+                .key(key)
+                .day(LocalDate.ofEpochDay(s.day))
+                .estimate(value)
+                .build();
+    }
+}
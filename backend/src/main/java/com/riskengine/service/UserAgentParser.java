@@ -0,0 +1,137 @@
+package com.riskengine.service;
+
+import com.riskengine.dto.UserAgentInfo;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token-based User-Agent parser with a bounded LRU cache in front of it.
+ *
+ * Matching is a fixed, ordered list of {@code indexOf} probes (no regex), since Edge/Opera/Samsung
+ * also carry the "Chrome/" token and Chrome carries "Safari/". Real traffic has few distinct UAs, so
+ * nearly every call is a cache hit; the cache is striped into independently locked access-order
+ * maps so concurrent requests rarely contend.
+ */
+@Service
+public class UserAgentParser {
+
+    private static final int STRIPES = 16;
+    private static final int ENTRIES_PER_STRIPE = 256;
+
+    private static final UserAgentInfo UNKNOWN = UserAgentInfo.builder()
+            .browserFamily("Other").os("Other").deviceClass("DESKTOP").build();
+
+    /** Ordered: first match wins. {token, family, chromium}. */
+    private static final String[][] BROWSERS = {
+            {"HeadlessChrome/", "HeadlessChrome", "true"},
+            {"PhantomJS/", "PhantomJS", "false"},
+            {"Edg/", "Edge", "true"},
+            {"EdgA/", "Edge", "true"},
+            {"OPR/", "Opera", "true"},
+            {"SamsungBrowser/", "SamsungBrowser", "true"},
+            {"Firefox/", "Firefox", "false"},
+            {"FxiOS/", "Firefox", "false"},
+            {"CriOS/", "Chrome", "false"},
+            {"Chrome/", "Chrome", "true"},
+            {"Version/", "Safari", "false"},
+    };
+
+    private static final String[] BOT_TOKENS = {"bot", "crawler", "spider", "curl/", "python-requests", "HeadlessChrome", "PhantomJS"};
+
+    private final LruStripe[] stripes = new LruStripe[STRIPES];
+
+    public UserAgentParser() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new LruStripe();
+    }
+
+    public UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) return UNKNOWN;
+        LruStripe stripe = stripes[(userAgent.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            UserAgentInfo hit = stripe.get(userAgent);
+            if (hit != null) return hit;
+        }
+        UserAgentInfo parsed = parseUncached(userAgent);
+        synchronized (stripe) {
+            stripe.put(userAgent, parsed);
+        }
+        return parsed;
+    }
+
+    static UserAgentInfo parseUncached(String ua) {
+        String family = "Other";
+        int major = 0;
+        boolean chromium = false;
+        for (String[] b : BROWSERS) {
+            int idx = ua.indexOf(b[0]);
+            if (idx >= 0) {
+                family = b[1];
+                chromium = Boolean.parseBoolean(b[2]);
+                major = parseMajor(ua, idx + b[0].length());
+                break;
+            }
+        }
+        if ("Safari".equals(family) && !ua.contains("Safari/")) {
+            family = "Other";
+            major = 0;
+        }
+
+        String os;
+        if (ua.contains("Windows NT")) os = "Windows";
+        else if (ua.contains("iPhone") || ua.contains("iPad") || ua.contains("iPod")) os = "iOS";
+        else if (ua.contains("Android")) os = "Android";
+        else if (ua.contains("CrOS")) os = "ChromeOS";
+        else if (ua.contains("Mac OS X") || ua.contains("Macintosh")) os = "macOS";
+        else if (ua.contains("Linux")) os = "Linux";
+        else os = "Other";
+
+        boolean automation = false;
+        String lower = ua.toLowerCase();
+        for (String token : BOT_TOKENS) {
+            if (lower.contains(token.toLowerCase())) {
+                automation = true;
+                break;
+            }
+        }
+
+        String deviceClass;
+        if (automation) deviceClass = "BOT";
+        else if (ua.contains("iPad") || ua.contains("Tablet") || ("Android".equals(os) && !ua.contains("Mobile"))) deviceClass = "TABLET";
+        else if (ua.contains("Mobi") || "iOS".equals(os)) deviceClass = "MOBILE";
+        else deviceClass = "DESKTOP";
+
+        return UserAgentInfo.builder()
+                .browserFamily(family)
+                .browserMajor(major)
+                .os(os)
+                .deviceClass(deviceClass)
+                .chromium(chromium)
+                .automation(automation)
+                .build();
+    }
+
+    private static int parseMajor(String ua, int from) {
+        int v = 0;
+        for (int i = from; i < ua.length() && i < from + 6; i++) {
+            char c = ua.charAt(i);
+            if (c < '0' || c > '9') break;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static final class LruStripe extends LinkedHashMap<String, UserAgentInfo> {
+        private static final long serialVersionUID = 1L;
+
+        LruStripe() {
+            super(64, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserAgentInfo> eldest) {
+            return size() > ENTRIES_PER_STRIPE;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.riskengine.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Streaming per-user behavioral baseline: exponentially decayed frequency counts of device
+ * signature, timezone, screen size and UA family.
+ *
+ * Memory is fixed at startup: {@code max-users} profiles split into 64 independently locked
+ * partitions, each an open-addressing table of primitive arrays. A profile keeps 3 slots per
+ * attribute (32-bit value hash + float weight) plus key and last-update minute: 108 bytes per row,
+ * ~145 bytes per user at the 0.75 load cap, so 10M users ≈ 1.4 GB regardless of traffic. When an
+ * attribute has more distinct values than slots the lightest slot is replaced. Once a partition is
+ * full, a new user takes the row of the least recently seen of the {@value #EVICTION_WINDOW} users
+ * probed from its home slot (backward-shift delete, then a normal insert), so the table follows the
+ * active population instead of freezing on the first users seen. Evictions are counted in {@code
+ * risk.baseline.evicted}; an evicted user who returns starts a fresh baseline.
+ *
+ * Profiles are checkpointed to {@code checkpoint-file} periodically and on shutdown, and reloaded on
+ * startup, so restarts keep baselines.
+ */
+@Service
+@Slf4j
+public class UserBaselineStore {
+
+    public static final int ATTR_DEVICE = 0;
+    public static final int ATTR_TIMEZONE = 1;
+    public static final int ATTR_SCREEN = 2;
+    public static final int ATTR_UA_FAMILY = 3;
+    private static final int ATTRS = 4;
+    private static final int SLOTS_PER_ATTR = 3;
+    private static final int SLOTS = ATTRS * SLOTS_PER_ATTR;
+    private static final int PARTITIONS = 64;
+    private static final int CHECKPOINT_MAGIC = 0x55424C32; // "UBL2": mixed key hash
+    private static final int EVICTION_WINDOW = 8;
+
+    /** Baseline features for one evaluation, computed before the observation is added. */
+    public record BaselineFeatures(boolean newDevice, boolean newTimezone, boolean rareAttribute) {
+        public static final BaselineFeatures NONE = new BaselineFeatures(false, false, false);
+    }
+
+    private final int maxUsers;
+    private final double halfLifeMinutes;
+    private final float minHistory;
+    private final float rareShare;
+    private final String checkpointFile;
+    private final Partition[] partitions = new Partition[PARTITIONS];
+    private final Counter evicted;
+
+    public UserBaselineStore(MeterRegistry meterRegistry,
+                             @Value("${risk.engine.baseline.max-users:100000}") int maxUsers,
+                             @Value("${risk.engine.baseline.half-life-days:14}") double halfLifeDays,
+                             @Value("${risk.engine.baseline.min-history:3}") float minHistory,
+                             @Value("${risk.engine.baseline.rare-share:0.1}") float rareShare,
+                             @Value("${risk.engine.baseline.checkpoint-file:baseline.bin}") String checkpointFile) {
+        this.maxUsers = maxUsers;
+        this.halfLifeMinutes = halfLifeDays * 24 * 60;
+        this.minHistory = minHistory;
+        this.rareShare = rareShare;
+        this.checkpointFile = checkpointFile;
+        int perPartition = Integer.highestOneBit(Math.max(16, (int) (maxUsers / 0.75 / PARTITIONS)) - 1) << 1;
+        for (int i = 0; i < PARTITIONS; i++) partitions[i] = new Partition(perPartition);
+        this.evicted = Counter.builder("risk.baseline.evicted")
+                .description("Users whose baseline was dropped to make room for a new user")
+                .register(meterRegistry);
+        Gauge.builder("risk.baseline.users", this, UserBaselineStore::trackedUsers)
+                .description("Users with a baseline profile")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scores the observation against the user's baseline, then folds it in. Null attributes are
+     * neither scored nor recorded.
+     */
+    public BaselineFeatures observe(String userId, String deviceSignature, String timezone, String screen, String uaFamily) {
+        if (userId == null || userId.isEmpty()) return BaselineFeatures.NONE;
+        long userKey = hash64(userId);
+        int[] values = {hash32(deviceSignature), hash32(timezone), hash32(screen), hash32(uaFamily)};
+        int nowMinute = (int) (System.currentTimeMillis() / 60_000L);
+        Partition p = partitions[(int) (userKey >>> 58)];
+        synchronized (p) {
+            int row = p.rowOf(userKey);
+            if (row < 0) {
+                p.evictStalest(userKey);
+                evicted.increment();
+                row = p.rowOf(userKey);
+            }
+            p.decay(row, nowMinute, halfLifeMinutes);
+            float[] shares = new float[ATTRS];
+            boolean seasoned = p.total(row, ATTR_DEVICE) >= minHistory;
+            for (int a = 0; a < ATTRS; a++) {
+                shares[a] = values[a] == 0 ? 1f : p.share(row, a, values[a]);
+            }
+            for (int a = 0; a < ATTRS; a++) {
+                if (values[a] != 0) p.add(row, a, values[a]);
+            }
+            if (!seasoned) return BaselineFeatures.NONE;
+            boolean rare = false;
+            for (int a = 0; a < ATTRS; a++) {
+                if (shares[a] > 0f && shares[a] < rareShare) rare = true;
+            }
+            return new BaselineFeatures(shares[ATTR_DEVICE] == 0f, shares[ATTR_TIMEZONE] == 0f, rare);
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        Path path = Paths.get(checkpointFile);
+        if (!Files.exists(path)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != PARTITIONS || in.readInt() != partitions[0].keys.length) {
+                log.atWarn().addKeyValue("event", "baseline_checkpoint_mismatch").addKeyValue("file", checkpointFile)
+                        .log("Baseline checkpoint has a different layout (max-users or format changed?) – starting empty");
+                return;
+            }
+            for (Partition p : partitions) {
+                synchronized (p) {
+                    p.read(in);
+                }
+            }
+            log.atInfo().addKeyValue("event", "baseline_checkpoint_loaded").addKeyValue("file", checkpointFile)
+                    .log("User baselines restored");
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "baseline_checkpoint_unreadable").addKeyValue("file", checkpointFile)
+                    .log(e.getMessage());
+        }
+    }
+
+    /** Writes all partitions to a temp file and atomically replaces the checkpoint. */
+    @Scheduled(fixedDelayString = "${risk.engine.baseline.checkpoint-interval-ms:300000}",
+            initialDelayString = "${risk.engine.baseline.checkpoint-interval-ms:300000}")
+    @PreDestroy
+    public void checkpoint() {
+        Path target = Paths.get(checkpointFile).toAbsolutePath();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(PARTITIONS);
+            out.writeInt(partitions[0].keys.length);
+            for (Partition p : partitions) {
+                synchronized (p) {
+                    p.write(out);
+                }
+            }
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "baseline_checkpoint_failed").log(e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("event", "baseline_checkpoint_failed").log(e.getMessage());
+        }
+    }
+
+    private double trackedUsers() {
+        long n = 0;
+        for (Partition p : partitions) {
+            synchronized (p) {
+                n += p.used;
+            }
+        }
+        return n;
+    }
+
+    /** FNV-1a with a murmur3 finalizer: raw FNV top bits barely change for ids differing in the last bytes. */
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /** Non-zero 32-bit hash; 0 means "attribute absent". */
+    private static int hash32(String s) {
+        if (s == null || s.isEmpty()) return 0;
+        long h = hash64(s);
+        int v = (int) (h ^ (h >>> 32));
+        return v == 0 ? 1 : v;
+    }
+
+    private static final class Partition {
+        final long[] keys;         // 0 = empty
+        final int[] lastMinute;
+        final int[] values;        // row * SLOTS + attr * SLOTS_PER_ATTR + k
+        final float[] weights;
+        final int mask;
+        int used;
+
+        Partition(int capacity) {
+            keys = new long[capacity];
+            lastMinute = new int[capacity];
+            values = new int[capacity * SLOTS];
+            weights = new float[capacity * SLOTS];
+            mask = capacity - 1;
+        }
+
+        int home(long key) {
+            return (int) (key ^ (key >>> 29)) & mask;
+        }
+
+        /** Row for the user, inserting if absent; -1 when the partition is full. */
+        int rowOf(long key) {
+            int i = home(key);
+            while (true) {
+                long k = keys[i];
+                if (k == key) return i;
+                if (k == 0) {
+                    if ((used + 1) * 4 > keys.length * 3) return -1;
+                    keys[i] = key;
+                    lastMinute[i] = 0;
+                    Arrays.fill(values, i * SLOTS, (i + 1) * SLOTS, 0);
+                    Arrays.fill(weights, i * SLOTS, (i + 1) * SLOTS, 0f);
+                    used++;
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        /**
+         * Frees a row for {@code key}: removes the least recently seen of the first
+         * {@link #EVICTION_WINDOW} users found probing from the key's home slot (lightest history on
+         * ties). The table is over half full whenever this runs, so the scan is short.
+         */
+        void evictStalest(long key) {
+            int victim = -1;
+            int i = home(key);
+            for (int seen = 0; seen < EVICTION_WINDOW; i = (i + 1) & mask) {
+                if (keys[i] == 0) continue;
+                seen++;
+                if (victim < 0 || lastMinute[i] < lastMinute[victim]
+                        || (lastMinute[i] == lastMinute[victim] && total(i, ATTR_DEVICE) < total(victim, ATTR_DEVICE))) {
+                    victim = i;
+                }
+            }
+            remove(victim);
+        }
+
+        /** Backward-shift delete: later rows of the cluster move up so probing never stops early. */
+        private void remove(int hole) {
+            int j = hole;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == 0) break;
+                int h = home(keys[j]);
+                // Row j may fill the hole unless its home lies cyclically in (hole, j]
+                boolean homeBetween = hole <= j ? (h > hole && h <= j) : (h > hole || h <= j);
+                if (!homeBetween) {
+                    keys[hole] = keys[j];
+                    lastMinute[hole] = lastMinute[j];
+                    System.arraycopy(values, j * SLOTS, values, hole * SLOTS, SLOTS);
+                    System.arraycopy(weights, j * SLOTS, weights, hole * SLOTS, SLOTS);
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            used--;
+        }
+
+        void decay(int row, int nowMinute, double halfLifeMinutes) {
+            int last = lastMinute[row];
+            lastMinute[row] = nowMinute;
+            if (last == 0 || nowMinute <= last) return;
+            float f = (float) Math.pow(0.5, (nowMinute - last) / halfLifeMinutes);
+            int base = row * SLOTS;
+            for (int s = 0; s < SLOTS; s++) weights[base + s] *= f;
+        }
+
+        float total(int row, int attr) {
+            int base = row * SLOTS + attr * SLOTS_PER_ATTR;
+            float t = 0;
+            for (int k = 0; k < SLOTS_PER_ATTR; k++) t += weights[base + k];
+            return t;
+        }
+
+        /** Share of the attribute's decayed weight held by value; 0 when unseen. */
+        float share(int row, int attr, int value) {
+            int base = row * SLOTS + attr * SLOTS_PER_ATTR;
+            float total = 0;
+            float mine = 0;
+            for (int k = 0; k < SLOTS_PER_ATTR; k++) {
+                total += weights[base + k];
+                if (values[base + k] == value) mine = weights[base + k];
+            }
+            return total <= 0 ? 0f : mine / total;
+        }
+
+        void add(int row, int attr, int value) {
+            int base = row * SLOTS + attr * SLOTS_PER_ATTR;
+            int lightest = base;
+            for (int k = 0; k < SLOTS_PER_ATTR; k++) {
+                int idx = base + k;
+                if (values[idx] == value) {
+                    weights[idx] += 1f;
+                    return;
+                }
+                if (weights[idx] < weights[lightest]) lightest = idx;
+            }
+            values[lightest] = value;
+            weights[lightest] = 1f;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(used);
+            for (int row = 0; row < keys.length; row++) {
+                if (keys[row] == 0) continue;
+                out.writeInt(row);
+                out.writeLong(keys[row]);
+                out.writeInt(lastMinute[row]);
+                int base = row * SLOTS;
+                for (int s = 0; s < SLOTS; s++) {
+                    out.writeInt(values[base + s]);
+                    out.writeFloat(weights[base + s]);
+                }
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            Arrays.fill(keys, 0L);
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                int row = in.readInt();
+                keys[row] = in.readLong();
+                lastMinute[row] = in.readInt();
+                int base = row * SLOTS;
+                for (int s = 0; s < SLOTS; s++) {
+                    values[base + s] = in.readInt();
+                    weights[base + s] = in.readFloat();
+                }
+            }
+            used = n;
+        }
+    }
+}
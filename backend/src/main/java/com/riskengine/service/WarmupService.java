@@ -0,0 +1,193 @@
+package com.riskengine.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskengine.dto.CompactSignals;
+import com.riskengine.dto.RiskResponse;
+import com.riskengine.util.StageScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static com.riskengine.util.StageScope.Policy.FAIL_CLOSED;
+import static com.riskengine.util.StageScope.Policy.FAIL_OPEN;
+
+/**
+ * JIT warm-up before the pod reports ready. Spring Boot only moves readiness to ACCEPTING_TRAFFIC
+ * after all ApplicationRunners return, so replaying representative /risk/collect payloads here means
+ * the first real requests hit compiled code instead of the interpreter. Each replay runs the same
+ * stage graph as the collect endpoint: JSON round trip, mapping, then normalize, signature, link-graph
+ * and baseline forks, and {@link ScoringCache#assess} inside a {@link StageScope}, then the traffic
+ * sketches. Persistence, audit, SIEM, shadow scoring and the decision stream are left out.
+ *
+ * The link graph, baseline store and traffic sketches are small throwaway instances built here, so
+ * the replays compile the same code without adding a synthetic user to today's counts, top-K lists,
+ * cluster features or the baseline checkpoint. They are dropped when the warm-up returns.
+ *
+ * Logs JVM startup time, warm-up time, and the per-evaluation cost of the first and last batch so
+ * time-to-steady-state can be compared across deployment modes (plain JVM, AppCDS, native).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupService implements ApplicationRunner {
+
+    private static final int BATCH = 500;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Value("${risk.engine.warmup.iterations:10000}")
+    private int iterations;
+
+    private final ObjectMapper objectMapper;
+    private final RiskCollectMapper riskCollectMapper;
+    private final SignalNormalizationService signalNormalizationService;
+    private final SignatureService signatureService;
+    private final ScoringCache scoringCache;
+    private final PipelineBudget pipelineBudget;
+    private final UserAgentParser userAgentParser;
+    private final ReferrerService referrerService;
+
+    /** Warm-up's own link graph, baselines and sketches, sized small; never checkpointed. */
+    private record Scratch(IdentityLinkGraph identityLinkGraph, UserBaselineStore userBaselineStore,
+                           TrafficSketchService trafficSketchService) {
+        static Scratch create() {
+            return new Scratch(new IdentityLinkGraph(new SimpleMeterRegistry(), 86_400_000L, 4096),
+                    new UserBaselineStore(new SimpleMeterRegistry(), 1024, 14, 3, 0.1f, ""),
+                    new TrafficSketchService(12, 64, 1024, 16, ""));
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long startupMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (iterations <= 0) {
+            log.atInfo().addKeyValue("event", "startup_complete").addKeyValue("startupMs", startupMs)
+                    .log("Warm-up disabled");
+            return;
+        }
+        List<byte[]> payloads = List.of(
+                objectMapper.writeValueAsBytes(samplePayload("http://localhost:8080", "", false, 5, 0)),
+                objectMapper.writeValueAsBytes(samplePayload("http://localhost:8080", "https://ads.warmup.invalid/r", false, 3, 2)),
+                objectMapper.writeValueAsBytes(samplePayload("https://phishing.warmup.invalid", "https://mail.warmup.invalid/", true, 0, 4)));
+
+        long warmupStart = System.nanoTime();
+        double firstBatchUs = 0;
+        double lastBatchUs = 0;
+        long sink = 0;
+        CompactSignals signals = new CompactSignals();
+        Scratch scratch = Scratch.create();
+        for (int done = 0; done < iterations; done += BATCH) {
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                sink += evaluateOnce(payloads.get(i % payloads.size()), signals, scratch);
+            }
+            lastBatchUs = (System.nanoTime() - batchStart) / 1000.0 / BATCH;
+            if (done == 0) firstBatchUs = lastBatchUs;
+        }
+        long warmupMs = (System.nanoTime() - warmupStart) / 1_000_000;
+
+        log.atInfo().addKeyValue("event", "startup_complete")
+                .addKeyValue("startupMs", startupMs)
+                .addKeyValue("warmupMs", warmupMs)
+                .addKeyValue("warmupIterations", iterations)
+                .addKeyValue("firstBatchUsPerEval", String.format("%.1f", firstBatchUs))
+                .addKeyValue("lastBatchUsPerEval", String.format("%.1f", lastBatchUs))
+                .addKeyValue("checksum", sink)
+                .log("Warm-up finished; reporting ready");
+    }
+
+    /** One replay; {@code signals} is reused across iterations, as only this thread touches it. */
+    private int evaluateOnce(byte[] json, CompactSignals signals, Scratch scratch) throws Exception {
+        Map<String, Object> payload = objectMapper.readValue(json, PAYLOAD_TYPE);
+        signals.clear();
+        riskCollectMapper.read(payload, signals);
+        try (StageScope scope = pipelineBudget.open()) {
+            return evaluate(scope, signals, scratch);
+        } catch (StageScope.StageFailedException e) {
+            // A fail-closed stage timed out while still interpreted; the live path would answer MFA
+            return 0;
+        }
+    }
+
+    /** The collect endpoint's stage graph (RiskEvaluationService#evaluate) without the writes and publishing. */
+    private int evaluate(StageScope scope, CompactSignals signals, Scratch scratch) throws Exception {
+        IdentityLinkGraph identityLinkGraph = scratch.identityLinkGraph();
+        UserBaselineStore userBaselineStore = scratch.userBaselineStore();
+        TrafficSketchService trafficSketchService = scratch.trafficSketchService();
+        var normalized = scope.run("normalize", FAIL_CLOSED, () -> signalNormalizationService.normalize(signals), null);
+        String deviceSignature = scope.run("signature", FAIL_CLOSED, () -> signatureService.generate(signals), null);
+
+        var clusterStage = scope.fork("link_graph", FAIL_OPEN, pipelineBudget.getEnrichTimeoutMs(),
+                () -> identityLinkGraph.observe(signals.getUserId(), deviceSignature, signals.getFingerprintHash(),
+                        normalized.getReferrerReputation() > 0 ? ReferrerService.extractHostFromUrl(signals.getReferrerUrl()) : null),
+                () -> IdentityLinkGraph.ClusterFeatures.NONE);
+        var baselineStage = scope.fork("baseline", FAIL_OPEN, pipelineBudget.getEnrichTimeoutMs(),
+                () -> userBaselineStore.observe(signals.getUserId(), deviceSignature, signals.getTimezone(),
+                        signals.getScreenWidth() + "x" + signals.getScreenHeight(),
+                        userAgentParser.parse(signals.getUserAgent()).getBrowserFamily()),
+                () -> UserBaselineStore.BaselineFeatures.NONE);
+        var cluster = scope.join(clusterStage);
+        normalized.setClusterUsers(cluster.distinctUsers());
+        normalized.setClusterPriorRisk(cluster.maxPriorRisk());
+        var baseline = scope.join(baselineStage);
+        normalized.setBaselineNewDevice(baseline.newDevice() ? 1 : 0);
+        normalized.setBaselineNewTimezone(baseline.newTimezone() ? 1 : 0);
+        normalized.setBaselineRareAttribute(baseline.rareAttribute() ? 1 : 0);
+
+        var assessment = scope.run("score", FAIL_CLOSED,
+                () -> scoringCache.assess(normalized, signals.is(CompactSignals.CSP_RESTRICTED)), null);
+        identityLinkGraph.recordRisk(signals.getUserId(), assessment.riskScore());
+        trafficSketchService.record(signals.getUserId(), deviceSignature, signals.getFingerprintHash(),
+                signals.getReferrerUrl(), assessment.decision());
+
+        RiskResponse response = RiskResponse.builder()
+                .riskScore(assessment.riskScore())
+                .decision(assessment.decision())
+                .deviceSignature(deviceSignature)
+                .sessionId(signals.getSessionId())
+                .iframeSignals(signals.iframeSignals())
+                .pageOrigin(signals.getPageOrigin())
+                .referrerUrl(signals.getReferrerUrl())
+                .suspiciousReferrer(referrerService.isSuspicious(signals.getReferrerUrl()))
+                .flaggedIssues(assessment.flaggedIssues())
+                .build();
+        // Timings are read but not passed to PipelineBudget.finish: cold warm-up stages would count as failures
+        return objectMapper.writeValueAsBytes(response).length + scope.timings().size();
+    }
+
+    private static Map<String, Object> samplePayload(String origin, String referrer, boolean automation,
+                                                     int plugins, int hiddenIframes) {
+        return Map.of(
+                "timestamp", 0,
+                "sessionId", "warmup-session",
+                "userId", "warmup-user",
+                "stage1", Map.of(
+                        "userAgent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36 RiskEngineWarmup/1",
+                        "origin", origin,
+                        "referrer", referrer,
+                        "timezone", "America/New_York",
+                        "webdriver", automation,
+                        "screen", Map.of("width", 1920, "height", 1080)),
+                "stage3", Map.of(
+                        "functionTampered", automation,
+                        "iframeMismatch", false,
+                        "storageWorks", !automation,
+                        "cspRestricted", false,
+                        "automation", Map.of(
+                                "webdriver", automation,
+                                "pluginsLength", plugins,
+                                "mimeTypesLength", plugins,
+                                "hasChrome", !automation,
+                                "hasWebdriverScriptFn", automation)),
+                "iframeSignals", Map.of("total", hiddenIframes, "hidden", hiddenIframes, "offscreen", 0,
+                        "crossOrigin", 0, "notFromOrg", 0, "suspicious", hiddenIframes));
+    }
+}
@@ -0,0 +1,194 @@
+package com.riskengine.util;
+
+import java.util.ArrayDeque;
+
+/**
+ * Immutable path-compressed binary (Patricia) trie over 128-bit keys for IPv4/IPv6 CIDR lists.
+ * IPv4 prefixes are stored in the IPv4-mapped range (a /24 becomes a /120), see {@link IpAddress}.
+ *
+ * Each prefix carries an int bitmask (e.g. one bit per blocklist category); a lookup ORs the masks
+ * of every stored prefix that contains the address, so nested blocks from different lists combine.
+ * Only branching and stored prefixes become nodes, so depth is bounded by the number of distinct
+ * prefix lengths on a path rather than by 128. Nodes are flattened into parallel primitive arrays;
+ * a lookup is a handful of array reads and no allocation.
+ */
+public final class CidrTrie {
+
+    public static final CidrTrie EMPTY = new Builder().build();
+
+    private final long[] keyHi;
+    private final long[] keyLo;
+    private final byte[] length;
+    private final int[] mask;
+    /** Child index per node and branch bit (2 * node + bit); 0 means none (the root is never a child). */
+    private final int[] children;
+
+    private CidrTrie(long[] keyHi, long[] keyLo, byte[] length, int[] mask, int[] children) {
+        this.keyHi = keyHi;
+        this.keyLo = keyLo;
+        this.length = length;
+        this.mask = mask;
+        this.children = children;
+    }
+
+    /** OR of the masks of all prefixes containing the address; 0 when none does. */
+    public int lookup(long hi, long lo) {
+        int node = 0;
+        int result = mask[0];
+        while (true) {
+            int len = length[node] & 0xff;
+            if (len == 128) return result;
+            int child = children[2 * node + bit(hi, lo, len)];
+            if (child == 0) return result;
+            int childLen = length[child] & 0xff;
+            if (!samePrefix(hi, lo, keyHi[child], keyLo[child], childLen)) return result;
+            result |= mask[child];
+            node = child;
+        }
+    }
+
+    /** Number of trie nodes (stored prefixes plus branch points). */
+    public int nodes() {
+        return mask.length;
+    }
+
+    /** Mutable builder; not thread-safe. */
+    public static final class Builder {
+        private final Node root = new Node(0, 0, 0, 0);
+        private final long[] scratch = new long[2];
+        private int prefixes;
+
+        /**
+         * Adds "address" or "address/length" (IPv4 or IPv6). Host bits beyond the length are ignored.
+         * Returns false when the text is not a valid CIDR.
+         */
+        public boolean add(String cidr, int bits) {
+            int slash = cidr.indexOf('/');
+            String address = slash < 0 ? cidr : cidr.substring(0, slash);
+            int family = IpAddress.parse(address, scratch);
+            if (family == 0) return false;
+            int max = family == 4 ? 32 : 128;
+            int len = max;
+            if (slash >= 0) {
+                try {
+                    len = Integer.parseInt(cidr.substring(slash + 1).trim());
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                if (len < 0 || len > max) return false;
+            }
+            insert(scratch[0], scratch[1], family == 4 ? len + 96 : len, bits);
+            return true;
+        }
+
+        public void insert(long hi, long lo, int len, int bits) {
+            prefixes++;
+            long h = maskHi(hi, len);
+            long l = maskLo(lo, len);
+            Node node = root;
+            while (true) {
+                if (len == node.len) {
+                    node.mask |= bits;
+                    return;
+                }
+                int b = bit(h, l, node.len);
+                Node child = node.child[b];
+                if (child == null) {
+                    node.child[b] = new Node(h, l, len, bits);
+                    return;
+                }
+                int common = Math.min(commonPrefix(h, l, child.hi, child.lo), Math.min(len, child.len));
+                if (common == child.len) {
+                    node = child;
+                    continue;
+                }
+                Node split = new Node(maskHi(h, common), maskLo(l, common), common, 0);
+                node.child[b] = split;
+                split.child[bit(child.hi, child.lo, common)] = child;
+                if (common == len) {
+                    split.mask = bits;
+                } else {
+                    split.child[bit(h, l, common)] = new Node(h, l, len, bits);
+                }
+                return;
+            }
+        }
+
+        public int prefixes() {
+            return prefixes;
+        }
+
+        public CidrTrie build() {
+            int count = 0;
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node n = queue.poll();
+                n.index = count++;
+                for (Node c : n.child) if (c != null) queue.add(c);
+            }
+            long[] keyHi = new long[count];
+            long[] keyLo = new long[count];
+            byte[] length = new byte[count];
+            int[] mask = new int[count];
+            int[] children = new int[2 * count];
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node n = queue.poll();
+                keyHi[n.index] = n.hi;
+                keyLo[n.index] = n.lo;
+                length[n.index] = (byte) n.len;
+                mask[n.index] = n.mask;
+                for (int b = 0; b < 2; b++) {
+                    Node c = n.child[b];
+                    if (c != null) {
+                        children[2 * n.index + b] = c.index;
+                        queue.add(c);
+                    }
+                }
+            }
+            return new CidrTrie(keyHi, keyLo, length, mask, children);
+        }
+    }
+
+    private static final class Node {
+        final long hi;
+        final long lo;
+        final int len;
+        int mask;
+        int index;
+        final Node[] child = new Node[2];
+
+        Node(long hi, long lo, int len, int mask) {
+            this.hi = hi;
+            this.lo = lo;
+            this.len = len;
+            this.mask = mask;
+        }
+    }
+
+    /** Bit {@code i} (0 = most significant) of the 128-bit key. */
+    static int bit(long hi, long lo, int i) {
+        return (int) (i < 64 ? (hi >>> (63 - i)) & 1 : (lo >>> (127 - i)) & 1);
+    }
+
+    static boolean samePrefix(long hi, long lo, long prefixHi, long prefixLo, int len) {
+        return maskHi(hi, len) == prefixHi && maskLo(lo, len) == prefixLo;
+    }
+
+    static int commonPrefix(long hi1, long lo1, long hi2, long lo2) {
+        long x = hi1 ^ hi2;
+        if (x != 0) return Long.numberOfLeadingZeros(x);
+        return 64 + Long.numberOfLeadingZeros(lo1 ^ lo2);
+    }
+
+    static long maskHi(long hi, int len) {
+        if (len >= 64) return hi;
+        return len == 0 ? 0 : hi & (-1L << (64 - len));
+    }
+
+    static long maskLo(long lo, int len) {
+        if (len <= 64) return 0;
+        return len == 128 ? lo : lo & (-1L << (128 - len));
+    }
+}
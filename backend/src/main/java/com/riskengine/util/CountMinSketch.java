@@ -0,0 +1,97 @@
+package com.riskengine.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-Min frequency sketch over pre-hashed 64-bit keys: {@code depth × width} long counters,
+ * estimates never undercount and overcount by at most ≈ e/width of the total with probability
+ * 1 - e^-depth. Merging adds counters cell-wise. {@link #add} and {@link #merge} are lock-free and
+ * thread-safe (atomic adds per cell); estimates and {@link #writeTo} read without locking, so a
+ * concurrent add may be visible in some rows and not yet in others. {@link #clear} is not safe
+ * against concurrent updates.
+ */
+public final class CountMinSketch {
+
+    private static final VarHandle CELL = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int depth;
+    private final int width;
+    private final long[] counts;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) throw new IllegalArgumentException("width must be a power of two");
+        this.depth = depth;
+        this.width = width;
+        this.counts = new long[depth * width];
+    }
+
+    public void add(long keyHash, long n) {
+        for (int r = 0; r < depth; r++) {
+            CELL.getAndAdd(counts, cell(keyHash, r), n);
+        }
+        total.add(n);
+    }
+
+    public long estimate(long keyHash) {
+        long min = Long.MAX_VALUE;
+        for (int r = 0; r < depth; r++) {
+            min = Math.min(min, (long) CELL.getOpaque(counts, cell(keyHash, r)));
+        }
+        return min;
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) throw new IllegalArgumentException("layout mismatch");
+        for (int i = 0; i < counts.length; i++) {
+            if (other.counts[i] != 0) CELL.getAndAdd(counts, i, other.counts[i]);
+        }
+        total.add(other.total.sum());
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total.reset();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeLong(total.sum());
+        for (int i = 0; i < counts.length; i++) out.writeLong((long) CELL.getOpaque(counts, i));
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo}, checking depth and width against the expected layout
+     * before allocating the counters.
+     *
+     * @throws IllegalArgumentException if the stored layout differs
+     */
+    public static CountMinSketch readFrom(DataInput in, int expectedDepth, int expectedWidth) throws IOException {
+        int depth = in.readInt();
+        int width = in.readInt();
+        if (depth != expectedDepth || width != expectedWidth) {
+            throw new IllegalArgumentException("layout mismatch: depth=" + depth + " width=" + width);
+        }
+        CountMinSketch cms = new CountMinSketch(depth, width);
+        cms.total.add(in.readLong());
+        for (int i = 0; i < cms.counts.length; i++) cms.counts[i] = in.readLong();
+        return cms;
+    }
+
+    private int cell(long keyHash, int row) {
+        int h1 = (int) keyHash;
+        int h2 = (int) (keyHash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
@@ -0,0 +1,70 @@
+package com.riskengine.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.List;
+
+/**
+ * JFR event spanning one risk evaluation, with its outcome and the wall time of every stage, so a
+ * slow evaluation in a recording can be explained without correlating logs. Written only when a
+ * recording enables it and the evaluation crossed the threshold.
+ */
+@Name("com.riskengine.Evaluation")
+@Label("Risk Evaluation")
+@Category({"Risk Engine", "Pipeline"})
+@Description("One /risk/collect or /risk/evaluate pipeline run")
+@StackTrace(false)
+@Threshold("20 ms")
+public final class EvaluationEvent extends Event {
+
+    @Label("Session Id")
+    String sessionId;
+
+    @Label("Decision")
+    String decision;
+
+    @Label("Risk Score")
+    int riskScore;
+
+    @Label("Issue Codes")
+    String issueCodes;
+
+    @Label("Degraded")
+    boolean degraded;
+
+    @Label("Stages")
+    @Description("stage=micros:outcome per stage, in fork/run order")
+    String stages;
+
+    public static EvaluationEvent start() {
+        EvaluationEvent event = new EvaluationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Fills the fields and writes the event. Callers {@link #end()} it and check
+     * {@link #shouldCommit()} first, so nothing is formatted for evaluations no recording wants.
+     */
+    public void commit(String sessionId, String decision, int riskScore, List<String> issueCodes, boolean degraded,
+                       List<StageScope.Timing> timings) {
+        this.sessionId = sessionId;
+        this.decision = decision;
+        this.riskScore = riskScore;
+        this.issueCodes = String.join(",", issueCodes);
+        this.degraded = degraded;
+        StringBuilder sb = new StringBuilder();
+        for (StageScope.Timing t : timings) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(t.stage()).append('=').append(t.micros()).append(':').append(t.outcome());
+        }
+        this.stages = sb.toString();
+        commit();
+    }
+}
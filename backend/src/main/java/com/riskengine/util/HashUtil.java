@@ -31,4 +31,28 @@ public final class HashUtil {
             throw new IllegalStateException("SHA-256 not available", e);
         }
     }
+
+    /**
+     * Fast non-cryptographic 64-bit hash (FNV-1a over UTF-16 chars, murmur3 fmix64 finalizer) for
+     * sketches and in-memory tables. Null hashes like the empty string.
+     */
+    public static long hash64(String input) {
+        long h = 0xcbf29ce484222325L;
+        if (input != null) {
+            for (int i = 0; i < input.length(); i++) {
+                h = (h ^ input.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        return mix64(h);
+    }
+
+    /** murmur3 fmix64: spreads a 64-bit key (e.g. a packed vector) over all bits. */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
 }
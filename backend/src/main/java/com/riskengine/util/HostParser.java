@@ -0,0 +1,156 @@
+package com.riskengine.util;
+
+import java.net.IDN;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Single-pass host extraction for referrer URLs and page origins.
+ *
+ * {@link #hostBounds} scans the string once and returns the host's [start, end) offsets packed in a
+ * long, without building intermediate Strings. It handles scheme-less and protocol-relative input,
+ * userinfo ({@code user:pass@host}), IPv6 literals ({@code [::1]:8080}), ports, paths, queries and
+ * fragments. {@link #host} normalizes the result (lowercase, IDNA to punycode, no trailing dot).
+ * Hosts that are already lowercase ASCII, nearly all real traffic, are returned as a substring with
+ * no lookup. Only mixed-case and internationalized hosts go through a bounded LRU cache, striped
+ * like the User-Agent cache and keyed by the raw host, so unique paths and queries on the same
+ * host share one entry and adversarial unique inputs only evict each other.
+ */
+public final class HostParser {
+
+    private static final int STRIPES = 16;
+    private static final int ENTRIES_PER_STRIPE = 256;
+    private static final String NO_HOST = "";
+    private static final LruStripe[] STRIPE = new LruStripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) STRIPE[i] = new LruStripe();
+    }
+
+    private HostParser() {}
+
+    /** Normalized host of a URL or origin, or null when there is none. */
+    public static String host(String url) {
+        if (url == null) return null;
+        long bounds = hostBounds(url);
+        if (bounds < 0) return null;
+        int start = (int) (bounds >>> 32);
+        int end = (int) bounds;
+        boolean plain = true;
+        for (int i = start; i < end && plain; i++) {
+            char c = url.charAt(i);
+            plain = (c < 'A' || c > 'Z') && c <= 0x7f;
+        }
+        String raw = (start == 0 && end == url.length()) ? url : url.substring(start, end);
+        if (plain) return raw;
+
+        LruStripe stripe = STRIPE[(raw.hashCode() & 0x7fffffff) % STRIPES];
+        String cached;
+        synchronized (stripe) {
+            cached = stripe.get(raw);
+        }
+        if (cached == null) {
+            cached = normalize(raw);
+            synchronized (stripe) {
+                stripe.put(raw, cached);
+            }
+        }
+        return cached == NO_HOST ? null : cached;
+    }
+
+    /**
+     * Host offsets in {@code url}: {@code (start << 32) | end}, or -1 when there is no host.
+     * IPv6 literals are returned without brackets.
+     */
+    public static long hostBounds(String url) {
+        int len = url.length();
+        int from = 0;
+        while (from < len && url.charAt(from) <= ' ') from++;
+        while (len > from && url.charAt(len - 1) <= ' ') len--;
+
+        int authority = from;
+        int hostStart = -1;
+        int hostEnd = -1;
+        boolean inBrackets = false;
+        int i = from;
+        for (; i < len; i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == '\\') {
+                if (c == '/' && i == authority && i + 1 < len && url.charAt(i + 1) == '/') {
+                    // Protocol-relative "//host" or the slashes after "scheme:"
+                    authority = i + 2;
+                    i++;
+                    hostStart = -1;
+                    hostEnd = -1;
+                    continue;
+                }
+                break;
+            }
+            if (c == ':' && !inBrackets) {
+                if (authority == from && i + 2 < len && url.charAt(i + 1) == '/' && url.charAt(i + 2) == '/') {
+                    // "scheme://": what was scanned so far is the scheme
+                    authority = i + 3;
+                    i += 2;
+                    hostStart = -1;
+                    hostEnd = -1;
+                    continue;
+                }
+                if (hostEnd < 0) hostEnd = i;
+                // ":port" with nothing before it ("http://:8080"): the host is empty, not the port
+                if (hostStart < 0) hostStart = i;
+                continue;
+            }
+            if (c == '@') {
+                // Everything so far was userinfo
+                hostStart = -1;
+                hostEnd = -1;
+                authority = i + 1;
+                continue;
+            }
+            if (c == '[' && i == authority) {
+                inBrackets = true;
+                hostStart = i + 1;
+                continue;
+            }
+            if (c == ']' && inBrackets) {
+                inBrackets = false;
+                hostEnd = i;
+                continue;
+            }
+            if (hostStart < 0) hostStart = i;
+        }
+        if (hostStart < 0 || inBrackets) return -1;
+        if (hostEnd < 0 || hostEnd < hostStart) hostEnd = i;
+        if (hostEnd > hostStart && url.charAt(hostEnd - 1) == '.') hostEnd--;
+        if (hostEnd <= hostStart) return -1;
+        return ((long) hostStart << 32) | hostEnd;
+    }
+
+    /** Lowercase and punycode for a raw host that has uppercase or non-ASCII characters. */
+    private static String normalize(String host) {
+        for (int i = 0; i < host.length(); i++) {
+            if (host.charAt(i) > 0x7f) {
+                try {
+                    return IDN.toASCII(host, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+                } catch (IllegalArgumentException e) {
+                    return NO_HOST;
+                }
+            }
+        }
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class LruStripe extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        LruStripe() {
+            super(64, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > ENTRIES_PER_STRIPE;
+        }
+    }
+}
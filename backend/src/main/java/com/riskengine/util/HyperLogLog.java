@@ -0,0 +1,123 @@
+package com.riskengine.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter over pre-hashed 64-bit values: 2^p one-byte registers, standard
+ * error ≈ 1.04 / sqrt(2^p), linear counting below 2.5·m. Merging takes the register-wise max, so
+ * sketches built on different nodes combine into the sketch of the union. {@link #add} and
+ * {@link #merge} are lock-free and thread-safe (a register only ever rises, by compare-and-set);
+ * estimates and {@link #writeTo} read without locking and see a recent state. {@link #clear} is not
+ * safe against concurrent updates.
+ */
+public final class HyperLogLog {
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int p;
+    private final byte[] registers;
+
+    public HyperLogLog(int p) {
+        if (p < 4 || p > 18) throw new IllegalArgumentException("p must be in [4, 18]");
+        this.p = p;
+        this.registers = new byte[1 << p];
+    }
+
+    public void add(long hash) {
+        update(registers, 0, p, hash);
+    }
+
+    public long estimate() {
+        return estimate(registers, 0, p);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.p != p) throw new IllegalArgumentException("precision mismatch: " + other.p + " vs " + p);
+        mergeRegisters(other.registers, 0, registers, 0, registers.length);
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(p);
+        out.write(registers);
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo}. The precision is checked against {@code expectedP}
+     * before any registers are allocated, so untrusted input cannot choose the allocation size.
+     *
+     * @throws IllegalArgumentException if the stored precision differs from {@code expectedP}
+     */
+    public static HyperLogLog readFrom(DataInput in, int expectedP) throws IOException {
+        int p = in.readByte();
+        if (p != expectedP) throw new IllegalArgumentException("precision mismatch: " + p + " vs " + expectedP);
+        HyperLogLog hll = new HyperLogLog(p);
+        in.readFully(hll.registers);
+        return hll;
+    }
+
+    /** Updates the 2^p registers starting at {@code off}. */
+    static void update(byte[] regs, int off, int p, long hash) {
+        int idx = (int) (hash >>> (64 - p));
+        // Guard bit keeps rho within 64 - p + 1 when the remaining bits are all zero.
+        int rho = Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1;
+        raise(regs, off + idx, rho);
+    }
+
+    /** Sets {@code regs[i]} to {@code max(regs[i], value)} atomically; false when it was already ≥ value. */
+    static boolean raise(byte[] regs, int i, int value) {
+        while (true) {
+            byte current = (byte) REGISTER.getOpaque(regs, i);
+            if (current >= value) return false;
+            if (REGISTER.weakCompareAndSet(regs, i, current, (byte) value)) return true;
+        }
+    }
+
+    static long estimate(byte[] regs, int off, int p) {
+        int m = 1 << p;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            int r = regs[off + i];
+            sum += inversePow2(r);
+            if (r == 0) zeros++;
+        }
+        return Math.round(estimate(sum, zeros, m));
+    }
+
+    /** Raw estimate from Σ 2^-register and the number of zero registers, for m registers. */
+    static double estimate(double sum, int zeros, int m) {
+        double e = alpha(m) * m * m / sum;
+        if (e <= 2.5 * m && zeros > 0) {
+            e = m * Math.log((double) m / zeros);
+        }
+        return e;
+    }
+
+    static double inversePow2(int r) {
+        return Double.longBitsToDouble((1023L - r) << 52);
+    }
+
+    static void mergeRegisters(byte[] src, int srcOff, byte[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            if (src[srcOff + i] > dst[dstOff + i]) raise(dst, dstOff + i, src[srcOff + i]);
+        }
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.riskengine.util;
+
+/**
+ * Parsing of IP literals into 128-bit keys (two longs, big-endian) without InetAddress or String
+ * allocation. IPv4 addresses are mapped into {@code ::ffff:0:0/96}, so one key space and one set of
+ * structures serve both families. Never resolves names: anything that is not a literal is rejected.
+ */
+public final class IpAddress {
+
+    /** High 64 bits of every IPv4-mapped address. */
+    public static final long V4_MAPPED_HI = 0L;
+    /** Low 64 bits of {@code ::ffff:0.0.0.0}. */
+    public static final long V4_MAPPED_LO = 0x0000_ffff_0000_0000L;
+
+    private IpAddress() {}
+
+    /**
+     * Parses an IPv4 or IPv6 literal (optionally bracketed, with a zone id, or IPv4-mapped) into
+     * {@code out[0]} (high) and {@code out[1]} (low). Returns 4 or 6 for the family, 0 when invalid.
+     */
+    public static int parse(CharSequence s, long[] out) {
+        if (s == null) return 0;
+        int from = 0;
+        int to = s.length();
+        if (to >= 2 && s.charAt(0) == '[' && s.charAt(to - 1) == ']') {
+            from = 1;
+            to--;
+        }
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '%') {
+                to = i;
+                break;
+            }
+        }
+        if (from >= to) return 0;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == ':') return parseV6(s, from, to, out) ? 6 : 0;
+        }
+        long v4 = parseV4(s, from, to);
+        if (v4 < 0) return 0;
+        out[0] = V4_MAPPED_HI;
+        out[1] = V4_MAPPED_LO | v4;
+        return 4;
+    }
+
+    /** True when the key is an IPv4-mapped address. */
+    public static boolean isV4(long hi, long lo) {
+        return hi == V4_MAPPED_HI && (lo & 0xffff_ffff_0000_0000L) == V4_MAPPED_LO;
+    }
+
+    /** Dotted-quad value in [0, 2^32), or -1 when invalid. */
+    static long parseV4(CharSequence s, int from, int to) {
+        long value = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int start = i;
+            int octet = 0;
+            while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                octet = octet * 10 + (s.charAt(i) - '0');
+                if (octet > 255 || i - start > 2) return -1;
+                i++;
+            }
+            if (i == start) return -1;
+            value = (value << 8) | octet;
+            octets++;
+            if (i < to) {
+                if (s.charAt(i) != '.' || octets == 4) return -1;
+                i++;
+                if (i == to) return -1;
+            }
+        }
+        return octets == 4 ? value : -1;
+    }
+
+    private static boolean parseV6(CharSequence s, int from, int to, long[] out) {
+        int[] groups = new int[8];
+        int count = 0;
+        int gap = -1;
+        int i = from;
+        if (i + 1 < to && s.charAt(i) == ':' && s.charAt(i + 1) == ':') {
+            gap = 0;
+            i += 2;
+        } else if (s.charAt(i) == ':') {
+            return false;
+        }
+        while (i < to) {
+            if (count == 8) return false;
+            int start = i;
+            int group = 0;
+            while (i < to && i - start < 5) {
+                int d = Character.digit(s.charAt(i), 16);
+                if (d < 0) break;
+                group = (group << 4) | d;
+                i++;
+            }
+            if (i < to && s.charAt(i) == '.') {
+                // Embedded IPv4 in the last 32 bits (::ffff:1.2.3.4, 64:ff9b::1.2.3.4)
+                if (count > 6) return false;
+                long v4 = parseV4(s, start, to);
+                if (v4 < 0) return false;
+                groups[count++] = (int) (v4 >>> 16);
+                groups[count++] = (int) (v4 & 0xffff);
+                i = to;
+                break;
+            }
+            if (i == start || i - start > 4) return false;
+            groups[count++] = group;
+            if (i == to) break;
+            if (s.charAt(i) != ':') return false;
+            i++;
+            if (i < to && s.charAt(i) == ':') {
+                if (gap >= 0) return false;
+                gap = count;
+                i++;
+            } else if (i == to) {
+                return false;
+            }
+        }
+        if (gap < 0 && count != 8) return false;
+        if (gap >= 0 && count == 8) return false;
+        long hi = 0;
+        long lo = 0;
+        int zeros = 8 - count;
+        int g = 0;
+        for (int slot = 0; slot < 8; slot++) {
+            int value;
+            if (gap >= 0 && slot >= gap && slot < gap + zeros) {
+                value = 0;
+            } else {
+                value = groups[g++];
+            }
+            if (slot < 4) hi = (hi << 16) | value;
+            else lo = (lo << 16) | value;
+        }
+        out[0] = hi;
+        out[1] = lo;
+        return true;
+    }
+}
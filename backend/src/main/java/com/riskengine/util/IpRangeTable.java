@@ -0,0 +1,184 @@
+package com.riskengine.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted, non-overlapping IP ranges (start, end, ASN, country) in a memory-mapped file, looked up by
+ * binary search. The table lives off-heap in the page cache: a full geo/ASN dataset (~700k ranges)
+ * costs no heap and no GC work, and reopening after a restart maps the same pages.
+ *
+ * File layout (little-endian): header {@code magic, v4Count, v6Count}, then IPv4 records
+ * {@code start:int, end:int, asn:int, country:char[2]} (16 bytes, unsigned compare), then IPv6
+ * records {@code startHi, startLo, endHi, endLo:long, asn:int, country:char[2]} (40 bytes). A
+ * {@link Builder} sorts rows and writes the file; {@link #open} maps it read-only.
+ */
+public final class IpRangeTable {
+
+    private static final int MAGIC = 0x49505231; // "IPR1"
+    private static final int HEADER = 12;
+    private static final int V4_RECORD = 16;
+    private static final int V6_RECORD = 40;
+
+    public static final IpRangeTable EMPTY = new IpRangeTable(ByteBuffer.allocate(0), 0, 0);
+
+    /** Shared strings for the 676 possible A–Z country codes, so lookups do not allocate. */
+    private static final String[] COUNTRY_CODES = new String[26 * 26];
+
+    static {
+        for (int i = 0; i < COUNTRY_CODES.length; i++) {
+            COUNTRY_CODES[i] = new String(new char[]{(char) ('A' + i / 26), (char) ('A' + i % 26)});
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int v4Count;
+    private final int v6Count;
+    private final int v6Base;
+
+    private IpRangeTable(ByteBuffer buffer, int v4Count, int v6Count) {
+        this.buffer = buffer;
+        this.v4Count = v4Count;
+        this.v6Count = v6Count;
+        this.v6Base = HEADER + v4Count * V4_RECORD;
+    }
+
+    /** Maps a table written by {@link Builder#write}. */
+    public static IpRangeTable open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.limit() < HEADER || mapped.getInt(0) != MAGIC) throw new IOException("not an IP range table: " + file);
+            int v4 = mapped.getInt(4);
+            int v6 = mapped.getInt(8);
+            if ((long) HEADER + (long) v4 * V4_RECORD + (long) v6 * V6_RECORD != mapped.limit()) {
+                throw new IOException("truncated IP range table: " + file);
+            }
+            return new IpRangeTable(mapped, v4, v6);
+        }
+    }
+
+    /** Record handle for the range containing the address, or -1. Pass it to {@link #asn}/{@link #country}. */
+    public long find(long hi, long lo) {
+        if (IpAddress.isV4(hi, lo)) {
+            int ip = (int) lo;
+            int low = 0;
+            int high = v4Count - 1;
+            int match = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (Integer.compareUnsigned(buffer.getInt(HEADER + mid * V4_RECORD), ip) <= 0) {
+                    match = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (match < 0) return -1;
+            int at = HEADER + match * V4_RECORD;
+            return Integer.compareUnsigned(ip, buffer.getInt(at + 4)) <= 0 ? at + 8 : -1;
+        }
+        int low = 0;
+        int high = v6Count - 1;
+        int match = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = v6Base + mid * V6_RECORD;
+            if (compare(buffer.getLong(at), buffer.getLong(at + 8), hi, lo) <= 0) {
+                match = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (match < 0) return -1;
+        int at = v6Base + match * V6_RECORD;
+        return compare(hi, lo, buffer.getLong(at + 16), buffer.getLong(at + 24)) <= 0 ? at + 32 : -1;
+    }
+
+    public int asn(long handle) {
+        return buffer.getInt((int) handle);
+    }
+
+    /** ISO 3166 alpha-2 country, or null when the range has none. */
+    public String country(long handle) {
+        char a = buffer.getChar((int) handle + 4);
+        char b = buffer.getChar((int) handle + 6);
+        if (a == 0) return null;
+        if (a >= 'A' && a <= 'Z' && b >= 'A' && b <= 'Z') return COUNTRY_CODES[(a - 'A') * 26 + (b - 'A')];
+        return new String(new char[]{a, b});
+    }
+
+    public int size() {
+        return v4Count + v6Count;
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int c = Long.compareUnsigned(hi1, hi2);
+        return c != 0 ? c : Long.compareUnsigned(lo1, lo2);
+    }
+
+    /** Collects ranges and writes the mapped file. Not thread-safe. */
+    public static final class Builder {
+        private record Row(long startHi, long startLo, long endHi, long endLo, int asn, char c0, char c1) {}
+
+        private final List<Row> v4 = new ArrayList<>();
+        private final List<Row> v6 = new ArrayList<>();
+        private final long[] start = new long[2];
+        private final long[] end = new long[2];
+
+        /**
+         * Adds an inclusive range given as IP literals of the same family. Returns false (and skips the
+         * row) when either address is invalid, the families differ or start is after end.
+         */
+        public boolean add(String startIp, String endIp, int asn, String country) {
+            int f1 = IpAddress.parse(startIp, start);
+            int f2 = IpAddress.parse(endIp, end);
+            if (f1 == 0 || f1 != f2 || compare(start[0], start[1], end[0], end[1]) > 0) return false;
+            char c0 = 0;
+            char c1 = 0;
+            if (country != null && country.length() == 2 && !country.equalsIgnoreCase("None")) {
+                c0 = Character.toUpperCase(country.charAt(0));
+                c1 = Character.toUpperCase(country.charAt(1));
+            }
+            Row row = new Row(start[0], start[1], end[0], end[1], asn, c0, c1);
+            (f1 == 4 ? v4 : v6).add(row);
+            return true;
+        }
+
+        public int size() {
+            return v4.size() + v6.size();
+        }
+
+        /** Sorts by start address and writes the table to {@code file} (replaced if present). */
+        public void write(Path file) throws IOException {
+            Comparator<Row> byStart = (a, b) -> compare(a.startHi(), a.startLo(), b.startHi(), b.startLo());
+            Row[] r4 = v4.toArray(new Row[0]);
+            Row[] r6 = v6.toArray(new Row[0]);
+            Arrays.sort(r4, byStart);
+            Arrays.sort(r6, byStart);
+            ByteBuffer out = ByteBuffer.allocate(HEADER + r4.length * V4_RECORD + r6.length * V6_RECORD)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(r4.length).putInt(r6.length);
+            for (Row r : r4) {
+                out.putInt((int) r.startLo()).putInt((int) r.endLo()).putInt(r.asn()).putChar(r.c0()).putChar(r.c1());
+            }
+            for (Row r : r6) {
+                out.putLong(r.startHi()).putLong(r.startLo()).putLong(r.endHi()).putLong(r.endLo())
+                        .putInt(r.asn()).putChar(r.c0()).putChar(r.c1());
+            }
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, out.array());
+        }
+    }
+}
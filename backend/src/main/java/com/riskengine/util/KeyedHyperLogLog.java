@@ -0,0 +1,120 @@
+package com.riskengine.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Per-key distinct counts in fixed memory (virtual HyperLogLog, Xiao et al.). All keys share one
+ * array of 2^logM one-byte registers; each key owns {@code s} virtual registers scattered over it by
+ * hashing (key, i). A value updates one of its key's virtual registers. Because registers are shared,
+ * a key's raw estimate includes noise from other keys; it is removed using the whole-array estimate:
+ * {@code n_key = m·s/(m-s) · (n_s/s - n_m/m)}. Memory depends only on logM; accuracy degrades
+ * gracefully as total traffic grows relative to m. Merge is register-wise max. Updates and merges
+ * are lock-free and thread-safe like {@link HyperLogLog}'s; {@link #clear} is not.
+ */
+public final class KeyedHyperLogLog {
+
+    private final int logM;
+    private final int s;
+    private final byte[] registers;
+    private volatile Totals totals = new Totals(0, 0);
+    private volatile boolean totalsValid;
+
+    /** Σ 2^-register and zero count over the whole array. */
+    private record Totals(double sum, int zeros) {}
+
+    public KeyedHyperLogLog(int logM, int s) {
+        if (logM < 10 || logM > 28) throw new IllegalArgumentException("logM must be in [10, 28]");
+        if (Integer.bitCount(s) != 1 || s < 16 || s >= 1 << logM) {
+            throw new IllegalArgumentException("s must be a power of two in [16, m)");
+        }
+        this.logM = logM;
+        this.s = s;
+        this.registers = new byte[1 << logM];
+    }
+
+    public void add(long keyHash, long valueHash) {
+        int sBits = Integer.numberOfTrailingZeros(s);
+        int virtual = (int) (valueHash >>> (64 - sBits));
+        int rho = Long.numberOfLeadingZeros((valueHash << sBits) | (1L << (sBits - 1))) + 1;
+        int idx = physical(keyHash, virtual);
+        if (rho > registers[idx] && HyperLogLog.raise(registers, idx, rho)) {
+            totalsValid = false;
+        }
+    }
+
+    public long estimate(long keyHash) {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < s; i++) {
+            int r = registers[physical(keyHash, i)];
+            sum += HyperLogLog.inversePow2(r);
+            if (r == 0) zeros++;
+        }
+        double nS = HyperLogLog.estimate(sum, zeros, s);
+        double m = registers.length;
+        Totals t = totals();
+        double nM = HyperLogLog.estimate(t.sum(), t.zeros(), registers.length);
+        double n = m * s / (m - s) * (nS / s - nM / m);
+        return Math.max(0, Math.round(n));
+    }
+
+    public void merge(KeyedHyperLogLog other) {
+        if (other.logM != logM || other.s != s) throw new IllegalArgumentException("layout mismatch");
+        HyperLogLog.mergeRegisters(other.registers, 0, registers, 0, registers.length);
+        totalsValid = false;
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+        totalsValid = false;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(logM);
+        out.writeInt(s);
+        out.write(registers);
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo}, checking its layout against this node's before
+     * allocating the shared register array.
+     *
+     * @throws IllegalArgumentException if logM or s differ from the expected layout
+     */
+    public static KeyedHyperLogLog readFrom(DataInput in, int expectedLogM, int expectedS) throws IOException {
+        int logM = in.readByte();
+        int s = in.readInt();
+        if (logM != expectedLogM || s != expectedS) {
+            throw new IllegalArgumentException("layout mismatch: logM=" + logM + " s=" + s);
+        }
+        KeyedHyperLogLog k = new KeyedHyperLogLog(logM, s);
+        in.readFully(k.registers);
+        return k;
+    }
+
+    /**
+     * Whole-array register sums, recomputed lazily after updates (O(m), query path only). The flag is
+     * set before the registers are summed, so an update racing with the recomputation clears it again.
+     */
+    private Totals totals() {
+        if (!totalsValid) {
+            totalsValid = true;
+            double sum = 0;
+            int zeros = 0;
+            for (byte r : registers) {
+                sum += HyperLogLog.inversePow2(r);
+                if (r == 0) zeros++;
+            }
+            totals = new Totals(sum, zeros);
+        }
+        return totals;
+    }
+
+    private int physical(long keyHash, int virtual) {
+        long h = (keyHash + virtual * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return (int) ((h ^ (h >>> 31)) >>> (64 - logM));
+    }
+}
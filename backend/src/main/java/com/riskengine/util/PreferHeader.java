@@ -0,0 +1,26 @@
+package com.riskengine.util;
+
+/**
+ * Reading of the RFC 7240 {@code Prefer} request header, e.g. {@code Prefer: return=minimal}.
+ */
+public final class PreferHeader {
+
+    public static final String NAME = "Prefer";
+    public static final String APPLIED = "Preference-Applied";
+    public static final String RETURN_MINIMAL = "return=minimal";
+
+    private PreferHeader() {}
+
+    /** True when the header carries the {@code return=minimal} preference (among possibly others). */
+    public static boolean returnMinimal(String prefer) {
+        if (prefer == null || prefer.isEmpty()) return false;
+        for (String token : prefer.split(",")) {
+            int params = token.indexOf(';');
+            String preference = (params < 0 ? token : token.substring(0, params)).trim();
+            if (preference.equalsIgnoreCase(RETURN_MINIMAL) || preference.equalsIgnoreCase("return=\"minimal\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
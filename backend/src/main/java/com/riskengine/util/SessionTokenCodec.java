@@ -0,0 +1,134 @@
+package com.riskengine.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Compact HMAC-SHA256 session token for one key:
+ * {@code kid.exp.sessionId.base64url(userId).base64url(mac)}, where {@code exp} is epoch seconds and
+ * the MAC (truncated to 128 bits) covers everything before the last dot. A typical token is ~90
+ * characters. The keyed {@link Mac} is initialised once and cloned per call, so neither minting nor
+ * verifying re-derives the key schedule; the tag is compared with {@link MessageDigest#isEqual}.
+ * Thread-safe.
+ */
+public final class SessionTokenCodec {
+
+    /** Upper bound on an accepted token; anything longer is rejected before any parsing. */
+    public static final int MAX_TOKEN_LENGTH = 512;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int TAG_BYTES = 16;
+    private static final int TAG_CHARS = 22;
+    private static final int MIN_KEY_BYTES = 32;
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    /** Why a token was not accepted; {@code OK} when it was. */
+    public enum Status { OK, MALFORMED, UNKNOWN_KEY, BAD_SIGNATURE, EXPIRED }
+
+    /** Fields of a structurally valid token. */
+    public record Claims(String kid, long expiresAt, String sessionId, String userId) {}
+
+    private final String kid;
+    private final Mac prototype;
+
+    /** {@code kid} must be 1-16 of [A-Za-z0-9_-]; {@code key} at least 32 bytes. */
+    public SessionTokenCodec(String kid, byte[] key) {
+        if (!validKid(kid)) throw new IllegalArgumentException("key id must be 1-16 of [A-Za-z0-9_-]: " + kid);
+        if (key == null || key.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("session key " + kid + " must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        this.kid = kid;
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    public String kid() {
+        return kid;
+    }
+
+    /** Signed token for the session; {@code sessionId} must not contain '.'. */
+    public String mint(String sessionId, String userId, long expiresAtEpochSecond) {
+        if (sessionId == null || sessionId.isEmpty() || sessionId.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("sessionId must be non-empty and must not contain '.'");
+        }
+        String body = kid + '.' + expiresAtEpochSecond + '.' + sessionId + '.'
+                + B64.encodeToString((userId == null ? "" : userId).getBytes(StandardCharsets.UTF_8));
+        byte[] tag = Arrays.copyOf(mac(body), TAG_BYTES);
+        return body + '.' + B64.encodeToString(tag);
+    }
+
+    /** Key id of a token (text before the first dot), or null when it has none. Does not verify. */
+    public static String kidOf(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) return null;
+        int dot = token.indexOf('.');
+        return dot > 0 ? token.substring(0, dot) : null;
+    }
+
+    /**
+     * Checks the MAC, then the expiry against {@code nowEpochSecond}. {@code out[0]} receives the claims
+     * when the result is {@code OK}. The caller has already matched {@link #kidOf} to this codec.
+     */
+    public Status verify(String token, long nowEpochSecond, Claims[] out) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) return Status.MALFORMED;
+        int d1 = token.indexOf('.');
+        int d2 = d1 < 0 ? -1 : token.indexOf('.', d1 + 1);
+        int d3 = d2 < 0 ? -1 : token.indexOf('.', d2 + 1);
+        int d4 = d3 < 0 ? -1 : token.indexOf('.', d3 + 1);
+        if (d4 < 0 || token.indexOf('.', d4 + 1) >= 0 || d2 - d1 < 2 || d3 - d2 < 2
+                || token.length() - d4 - 1 != TAG_CHARS) {
+            return Status.MALFORMED;
+        }
+        if (!token.regionMatches(0, kid, 0, d1) || kid.length() != d1) return Status.UNKNOWN_KEY;
+        byte[] presented;
+        try {
+            presented = B64D.decode(token.substring(d4 + 1));
+        } catch (IllegalArgumentException e) {
+            return Status.MALFORMED;
+        }
+        byte[] expected = Arrays.copyOf(mac(token.substring(0, d4)), TAG_BYTES);
+        if (!MessageDigest.isEqual(expected, presented)) return Status.BAD_SIGNATURE;
+
+        // Authentic from here on: the fields were written by mint(), so parsing only guards against key misuse
+        long exp;
+        String userId;
+        try {
+            exp = Long.parseLong(token, d1 + 1, d2, 10);
+            userId = new String(B64D.decode(token.substring(d3 + 1, d4)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Status.MALFORMED;
+        }
+        if (nowEpochSecond > exp) return Status.EXPIRED;
+        out[0] = new Claims(kid, exp, token.substring(d2 + 1, d3), userId.isEmpty() ? null : userId);
+        return Status.OK;
+    }
+
+    private byte[] mac(String body) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " provider does not support clone", e);
+        }
+        return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static boolean validKid(String kid) {
+        if (kid == null || kid.isEmpty() || kid.length() > 16) return false;
+        for (int i = 0; i < kid.length(); i++) {
+            char c = kid.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+            if (!ok) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.riskengine.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving top-k over string keys with at most {@code capacity} counters. When full, an unseen
+ * key takes over the smallest counter and inherits its count as error, so
+ * {@code count - error ≤ true count ≤ count}. Any key with frequency above total / capacity is
+ * guaranteed to be held. Eviction scans for the minimum (O(capacity)), which is cheap at the few
+ * hundred counters used here. Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    public record Entry(String key, long count, long error) {}
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String key, long n) {
+        Integer slot = index.get(key);
+        if (slot != null) {
+            counts[slot] += n;
+            return;
+        }
+        if (size < capacity) {
+            put(size++, key, n, 0);
+            return;
+        }
+        int min = minSlot();
+        index.remove(keys[min]);
+        put(min, key, counts[min] + n, counts[min]);
+    }
+
+    /** Up to {@code limit} entries, highest count first. */
+    public List<Entry> top(int limit) {
+        List<Entry> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(new Entry(keys[i], counts[i], errors[i]));
+        out.sort(Comparator.comparingLong(Entry::count).reversed());
+        return out.size() > limit ? out.subList(0, limit) : out;
+    }
+
+    /**
+     * Mergeable-summary combine: keys missing from a full side are charged that side's minimum
+     * count (as both count and error), then the largest {@code capacity} entries are kept.
+     */
+    public void merge(SpaceSaving other) {
+        long thisMin = size == capacity ? counts[minSlot()] : 0;
+        long otherMin = other.size == other.capacity ? other.counts[other.minSlot()] : 0;
+        Set<String> union = new HashSet<>(index.keySet());
+        union.addAll(other.index.keySet());
+        List<Entry> merged = new ArrayList<>(union.size());
+        for (String key : union) {
+            Integer a = index.get(key);
+            Integer b = other.index.get(key);
+            long count = (a != null ? counts[a] : thisMin) + (b != null ? other.counts[b] : otherMin);
+            long error = (a != null ? errors[a] : thisMin) + (b != null ? other.errors[b] : otherMin);
+            merged.add(new Entry(key, count, error));
+        }
+        merged.sort(Comparator.comparingLong(Entry::count).reversed());
+        clear();
+        for (int i = 0; i < Math.min(capacity, merged.size()); i++) {
+            Entry e = merged.get(i);
+            put(size++, e.key(), e.count(), e.error());
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        index.clear();
+        size = 0;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeUTF(keys[i]);
+            out.writeLong(counts[i]);
+            out.writeLong(errors[i]);
+        }
+    }
+
+    /**
+     * Reads a summary written by {@link #writeTo}, checking its capacity against the expected one
+     * before allocating counters.
+     *
+     * @throws IllegalArgumentException if the stored capacity differs
+     */
+    public static SpaceSaving readFrom(DataInput in, int expectedCapacity) throws IOException {
+        int capacity = in.readInt();
+        if (capacity != expectedCapacity) {
+            throw new IllegalArgumentException("capacity mismatch: " + capacity + " vs " + expectedCapacity);
+        }
+        SpaceSaving s = new SpaceSaving(capacity);
+        int n = in.readInt();
+        if (n > s.capacity) throw new IOException("corrupt top-k: " + n + " entries for capacity " + s.capacity);
+        for (int i = 0; i < n; i++) {
+            s.put(s.size++, in.readUTF(), in.readLong(), in.readLong());
+        }
+        return s;
+    }
+
+    private void put(int slot, String key, long count, long error) {
+        keys[slot] = key;
+        counts[slot] = count;
+        errors[slot] = error;
+        index.put(key, slot);
+    }
+
+    private int minSlot() {
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) min = i;
+        }
+        return min;
+    }
+}
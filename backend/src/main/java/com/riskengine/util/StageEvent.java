@@ -0,0 +1,48 @@
+package com.riskengine.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one evaluation stage, timed on the thread that ran it (the request thread for
+ * inline stages, the stage's virtual thread for forked ones). Only stages at or above the
+ * recording's threshold are written; with no recording the event class is disabled and
+ * {@link #end} is a single branch.
+ */
+@Name("com.riskengine.Stage")
+@Label("Evaluation Stage")
+@Category({"Risk Engine", "Pipeline"})
+@Description("One stage of a risk evaluation (mapping, normalization, scoring, persistence, ...)")
+@StackTrace(false)
+@Threshold("10 ms")
+public final class StageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Outcome")
+    @Description("OK, FAILED (threw) or CANCELLED (interrupted by its deadline or scope close)")
+    String outcome;
+
+    /** Starts timing a stage. */
+    public static StageEvent start(String stage) {
+        StageEvent event = new StageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    /** Stops timing and writes the event if a recording wants it and it crossed the threshold. */
+    public void end(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.riskengine.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Structured scope for one evaluation: stages are forked onto virtual threads, joined with their own
+ * timeout capped by the scope's overall deadline, and every stage still running when the scope
+ * closes is cancelled (interrupted), so no stage outlives the request that started it.
+ *
+ * Each stage declares how it fails. A fail-open stage that throws or misses its deadline yields its
+ * fallback and the pipeline continues; a fail-closed stage throws {@link StageFailedException} from
+ * {@link #join}. Inline (request-thread) stages are timed with {@link #run} under the same policies.
+ * Outcomes and wall times are collected in fork/run order for diagnostics, and each stage is also
+ * timed as a {@link StageEvent} on the thread that runs it for JFR recordings.
+ *
+ * Not thread-safe: fork, join, run and close belong to the thread that opened the scope.
+ */
+public final class StageScope implements AutoCloseable {
+
+    public enum Policy { FAIL_OPEN, FAIL_CLOSED }
+
+    public enum Outcome { OK, TIMEOUT, FAILED, CANCELLED }
+
+    /** Wall time and outcome of one stage. */
+    public record Timing(String stage, long micros, Outcome outcome) {}
+
+    /** A forked stage; resolved by {@link StageScope#join}. */
+    public static final class Stage<T> {
+        private final String name;
+        private final Policy policy;
+        private final long timeoutNanos;
+        private final Supplier<T> fallback;
+        private final long startNanos;
+        private Future<T> future;
+        private volatile long endNanos;
+
+        private Stage(String name, Policy policy, long timeoutNanos, Supplier<T> fallback, long startNanos) {
+            this.name = name;
+            this.policy = policy;
+            this.timeoutNanos = timeoutNanos;
+            this.fallback = fallback;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /** Thrown by a fail-closed stage that failed or missed its deadline. */
+    public static final class StageFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final String stage;
+        private final Outcome outcome;
+
+        StageFailedException(String stage, Outcome outcome, Throwable cause) {
+            super(stage + " " + outcome.name().toLowerCase(Locale.ROOT), cause);
+            this.stage = stage;
+            this.outcome = outcome;
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long deadlineNanos;
+    private final List<Timing> timings = new ArrayList<>();
+    private final List<Stage<?>> open = new ArrayList<>();
+
+    public StageScope(long budgetMs) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    /** Starts a stage on its own virtual thread. */
+    public <T> Stage<T> fork(String name, Policy policy, long timeoutMs, Callable<T> task, Supplier<T> fallback) {
+        Stage<T> stage = new Stage<>(name, policy, TimeUnit.MILLISECONDS.toNanos(timeoutMs), fallback, System.nanoTime());
+        stage.future = executor.submit(() -> {
+            StageEvent event = StageEvent.start(name);
+            Outcome outcome = Outcome.FAILED;
+            try {
+                T value = task.call();
+                outcome = Outcome.OK;
+                return value;
+            } finally {
+                stage.endNanos = System.nanoTime();
+                event.end((Thread.currentThread().isInterrupted() ? Outcome.CANCELLED : outcome).name());
+            }
+        });
+        open.add(stage);
+        return stage;
+    }
+
+    /**
+     * Waits for a stage until its own timeout or the scope deadline, whichever comes first. A stage
+     * that misses it is cancelled.
+     */
+    public <T> T join(Stage<T> stage) {
+        if (!open.remove(stage)) throw new IllegalStateException("stage already joined: " + stage.name);
+        long wait = Math.min(stage.startNanos + stage.timeoutNanos, deadlineNanos) - System.nanoTime();
+        try {
+            T value = stage.future.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+            record(stage.name, stage.endNanos - stage.startNanos, Outcome.OK);
+            return value;
+        } catch (TimeoutException e) {
+            stage.future.cancel(true);
+            return fail(stage.name, stage.policy, System.nanoTime() - stage.startNanos, Outcome.TIMEOUT, e, stage.fallback);
+        } catch (ExecutionException e) {
+            return fail(stage.name, stage.policy, stage.endNanos - stage.startNanos, Outcome.FAILED, e.getCause(), stage.fallback);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.future.cancel(true);
+            return fail(stage.name, stage.policy, System.nanoTime() - stage.startNanos, Outcome.CANCELLED, e, stage.fallback);
+        }
+    }
+
+    /**
+     * Runs a stage inline on the calling thread. It cannot be preempted, so its deadline is checked
+     * when it returns: a fail-closed stage that overran the scope deadline fails like a timed-out fork.
+     */
+    public <T> T run(String name, Policy policy, Callable<T> task, Supplier<T> fallback) {
+        StageEvent event = StageEvent.start(name);
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = task.call();
+        } catch (Exception e) {
+            event.end(Outcome.FAILED.name());
+            return fail(name, policy, System.nanoTime() - start, Outcome.FAILED, e, fallback);
+        }
+        long end = System.nanoTime();
+        event.end(Outcome.OK.name());
+        if (policy == Policy.FAIL_CLOSED && end - deadlineNanos > 0) {
+            return fail(name, policy, end - start, Outcome.TIMEOUT, null, fallback);
+        }
+        record(name, end - start, Outcome.OK);
+        return value;
+    }
+
+    public boolean expired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public List<Timing> timings() {
+        return List.copyOf(timings);
+    }
+
+    /** Cancels stages that were never joined and releases the executor without waiting for them. */
+    @Override
+    public void close() {
+        for (Stage<?> stage : open) {
+            if (stage.future.cancel(true)) record(stage.name, System.nanoTime() - stage.startNanos, Outcome.CANCELLED);
+        }
+        open.clear();
+        executor.shutdownNow();
+    }
+
+    private <T> T fail(String name, Policy policy, long nanos, Outcome outcome, Throwable cause, Supplier<T> fallback) {
+        record(name, nanos, outcome);
+        if (policy == Policy.FAIL_CLOSED) throw new StageFailedException(name, outcome, cause);
+        return fallback == null ? null : fallback.get();
+    }
+
+    private void record(String name, long nanos, Outcome outcome) {
+        timings.add(new Timing(name, Math.max(0, nanos) / 1_000, outcome));
+    }
+}
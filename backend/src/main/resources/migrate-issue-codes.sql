@@ -0,0 +1,43 @@
+-- Moves risk_decisions from flagged_issues JSONB (code/description/severity per issue) to issue_codes
+-- SMALLINT[] (IssueCode ids). Idempotent and resumable; run with psql from this directory:
+--
+--   psql -d risk_engine -f migrate-issue-codes.sql
+--
+-- The application writes issue_codes only, so deploy the new version first (rows written in between
+-- keep NULL flagged_issues and need no backfill), then run this while it serves traffic. Rows are
+-- backfilled in id batches, each committed separately, so locks stay short.
+
+ALTER TABLE risk_decisions ADD COLUMN IF NOT EXISTS issue_codes SMALLINT[];
+
+-- Registry table, its seed rows and the GIN index on issue_codes
+\ir schema.sql
+
+DO $$
+DECLARE
+    batch CONSTANT BIGINT := 50000;
+    lo BIGINT;
+    hi BIGINT;
+BEGIN
+    SELECT min(id), max(id) INTO lo, hi FROM risk_decisions WHERE issue_codes IS NULL AND flagged_issues IS NOT NULL;
+    WHILE lo IS NOT NULL AND lo <= hi LOOP
+        UPDATE risk_decisions d
+        SET issue_codes = coalesce((
+                SELECT array_agg(r.id ORDER BY e.ord)
+                FROM jsonb_array_elements(d.flagged_issues) WITH ORDINALITY AS e(issue, ord)
+                JOIN issue_code_registry r ON r.code = e.issue ->> 'code'), '{}')
+        WHERE d.id >= lo AND d.id < lo + batch
+          AND d.issue_codes IS NULL AND d.flagged_issues IS NOT NULL;
+        COMMIT;
+        RAISE NOTICE 'issue_codes backfilled through id %', lo + batch - 1;
+        lo := lo + batch;
+    END LOOP;
+END $$;
+
+-- Codes in flagged_issues that the registry does not know (should be none); these were left out above
+SELECT e.issue ->> 'code' AS unknown_code, count(*)
+FROM risk_decisions d, jsonb_array_elements(d.flagged_issues) AS e(issue)
+WHERE NOT EXISTS (SELECT 1 FROM issue_code_registry r WHERE r.code = e.issue ->> 'code')
+GROUP BY 1;
+
+-- Once the result above is empty and reads look right, reclaim the space:
+-- ALTER TABLE risk_decisions DROP COLUMN flagged_issues;
@@ -15,8 +15,52 @@ CREATE TABLE IF NOT EXISTS risk_decisions (
     user_id VARCHAR(100),
     risk_score INTEGER,
     decision VARCHAR(20),
-    flagged_issues JSONB,
+    issue_codes SMALLINT[],
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- For existing databases, run: ALTER TABLE risk_decisions ADD COLUMN IF NOT EXISTS flagged_issues JSONB;
+-- Databases created before issue_codes existed (flagged_issues JSONB): run migrate-issue-codes.sql instead.
+
+-- Mirror of com.riskengine.dto.IssueCode for ad-hoc SQL; ids are permanent. Keep in sync with the enum.
+CREATE TABLE IF NOT EXISTS issue_code_registry (
+    id SMALLINT PRIMARY KEY,
+    code VARCHAR(40) NOT NULL UNIQUE,
+    severity VARCHAR(10) NOT NULL,
+    description TEXT NOT NULL
+);
+
+INSERT INTO issue_code_registry (id, code, severity, description) VALUES
+    (1, 'WEBDRIVER', 'CRITICAL', 'navigator.webdriver is true – automation/bot environment (Selenium, Puppeteer)'),
+    (2, 'WEBDRIVER_SCRIPT_FN', 'CRITICAL', '__webdriver_script_fn detected in document – Selenium/Puppeteer automation'),
+    (3, 'FUNCTION_TAMPERED', 'HIGH', 'Function.prototype.toString tampered – devtools or script injection'),
+    (4, 'IFRAME_MISMATCH', 'HIGH', 'Main window vs iframe have different userAgent/platform – sandbox or automation'),
+    (5, 'HEADLESS_BROWSER', 'HIGH', 'plugins.length=0 and mimeTypes.length=0 – headless Chrome or automation'),
+    (6, 'UA_AUTOMATION_TOKEN', 'HIGH', 'User-Agent advertises automation (HeadlessChrome, PhantomJS or crawler)'),
+    (7, 'UA_CHROME_OBJECT_MISSING', 'HIGH', 'User-Agent claims a Chromium browser but window.chrome is absent – spoofed UA'),
+    (8, 'UA_CHROME_ZERO_PLUGINS', 'MEDIUM', 'Desktop Chromium User-Agent with zero plugins – stripped or spoofed environment'),
+    (9, 'ACCOUNT_DEVICE_RING', 'HIGH', 'Device/fingerprint/referrer shared by many distinct users – possible account ring'),
+    (10, 'LINKED_HIGH_RISK_CLUSTER', 'MEDIUM', 'Linked to identities previously scored high risk'),
+    (11, 'NEW_DEVICE_FOR_USER', 'MEDIUM', 'Device signature not seen before for this user'),
+    (12, 'NEW_TIMEZONE_FOR_USER', 'MEDIUM', 'Timezone not seen before for this user'),
+    (13, 'RARE_ATTRIBUTE_FOR_USER', 'LOW', 'Device, timezone, screen or browser rarely used by this user'),
+    (14, 'IP_BLOCKLISTED', 'HIGH', 'Client IP listed on a blocklist – anonymizing or abusive network'),
+    (15, 'IP_HOSTING_ASN', 'MEDIUM', 'Client IP belongs to a datacenter/hosting network – likely automation or proxy'),
+    (16, 'IP_TIMEZONE_MISMATCH', 'MEDIUM', 'Browser timezone is not used in the client IP''s country – proxy, VPN or spoofed timezone'),
+    (17, 'STORAGE_BLOCKED', 'MEDIUM', 'localStorage/sessionStorage/cookies not working – incognito or restricted environment'),
+    (18, 'PAGE_ORIGIN_NOT_FROM_ORG', 'HIGH', 'Page origin host not in allowed org list – possible phishing or external page'),
+    (19, 'SUSPICIOUS_REFERRER', 'HIGH', 'Referrer URL not from allowed org – possible phishing or malware redirect'),
+    (20, 'REFERRER_BAD_REPUTATION', 'HIGH', 'Referrer domain listed in a reputation feed'),
+    (21, 'FETCH_OVERRIDDEN', 'HIGH', 'fetch API overridden – possible request interception or tampering'),
+    (22, 'RAPID_CLICKING', 'MEDIUM', 'Abnormally rapid click intervals – possible automation'),
+    (23, 'SUSPICIOUS_IFRAMES', 'MEDIUM', 'Hidden/offscreen iframes detected'),
+    (24, 'CROSS_ORIGIN_IFRAMES', 'MEDIUM', 'Cross-origin or non-org iframes'),
+    (25, 'CSP_RESTRICTED', 'LOW', 'Content-Security-Policy restricts inline scripts – enforced CSP (informational)')
+ON CONFLICT (id) DO UPDATE SET code = EXCLUDED.code, severity = EXCLUDED.severity, description = EXCLUDED.description;
+
+-- Session timeline lookups (keyset paging by (time, id) within a session; time alone is not unique)
+DROP INDEX IF EXISTS idx_raw_signals_session_ts;
+DROP INDEX IF EXISTS idx_risk_decisions_session_created;
+CREATE INDEX IF NOT EXISTS idx_raw_signals_session_ts_id ON raw_signals (session_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_risk_decisions_session_created_id ON risk_decisions (session_id, created_at, id);
+-- Filtering by issue: WHERE issue_codes @> '{5}' (has HEADLESS_BROWSER), WHERE issue_codes && '{1,2}' (any of)
+CREATE INDEX IF NOT EXISTS idx_risk_decisions_issue_codes ON risk_decisions USING GIN (issue_codes);
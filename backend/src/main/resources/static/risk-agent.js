@@ -361,16 +361,27 @@ async function collectAllSignals() {
   };
 }
 
-function buildPayload(sessionId, userId, signals) {
+function storedSessionToken() {
+  try {
+    return typeof sessionStorage !== "undefined" ? sessionStorage.getItem("sessionToken") : null;
+  } catch (e) {
+    return null;
+  }
+}
+
+/** sessionToken is the signed token from /login; when omitted the one stored at login is used. */
+function buildPayload(sessionId, userId, signals, sessionToken) {
   const payload = Object.assign({}, signals);
   if (sessionId != null) payload.sessionId = sessionId;
   if (userId != null) payload.userId = userId;
+  const token = sessionToken !== undefined ? sessionToken : storedSessionToken();
+  if (token != null) payload.sessionToken = token;
   return payload;
 }
 
-async function captureAndBuildPayload(sessionId, userId) {
+async function captureAndBuildPayload(sessionId, userId, sessionToken) {
   const signals = await collectAllSignals();
-  return buildPayload(sessionId, userId, signals);
+  return buildPayload(sessionId, userId, signals, sessionToken);
 }
 
 async function sendToBackend(payload) {
@@ -0,0 +1,84 @@
+package com.riskengine.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * WebFlux equivalent of {@code GzipRequestFilter}: inflates {@code Content-Encoding: gzip} request
+ * bodies before decoding. Risk payloads are a few KB, so the compressed body is joined and inflated
+ * in one step on the event loop, bounded by {@code risk.engine.http.max-inflated-request-bytes};
+ * malformed or oversized bodies are rejected with 400.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class GzipRequestWebFilter implements WebFilter {
+
+    private final int maxInflatedBytes;
+
+    public GzipRequestWebFilter(@Value("${risk.engine.http.max-inflated-request-bytes:1048576}") int maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String encoding = request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || !encoding.trim().equalsIgnoreCase("gzip")) {
+            return chain.filter(exchange);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+        Flux<DataBuffer> body = DataBufferUtils.join(request.getBody(), maxInflatedBytes)
+                .map(compressed -> {
+                    try {
+                        return exchange.getResponse().bufferFactory().wrap(inflate(compressed));
+                    } catch (IOException e) {
+                        throw new ServerWebInputException("invalid gzip request body: " + e.getMessage());
+                    } finally {
+                        DataBufferUtils.release(compressed);
+                    }
+                })
+                .flux();
+        ServerHttpRequest inflated = new ServerHttpRequestDecorator(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body;
+            }
+        };
+        return chain.filter(exchange.mutate().request(inflated).build());
+    }
+
+    private byte[] inflate(DataBuffer compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(compressed.asInputStream(), 8192)) {
+            byte[] out = in.readNBytes(maxInflatedBytes + 1);
+            if (out.length > maxInflatedBytes) {
+                throw new IOException("inflates past " + maxInflatedBytes + " bytes");
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.riskengine.reactive.controller;
+
+import com.riskengine.dto.LoginRequest;
+import com.riskengine.dto.LoginResponse;
+import com.riskengine.service.LoginService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of {@code AuthController}, through the shared {@link LoginService}. Login touches no
+ * datastore, so it completes inline.
+ */
+@RestController
+@RequestMapping
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final LoginService loginService;
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request, ServerHttpRequest httpRequest,
+                                                     @RequestHeader(value = "Referer", required = false) String headerReferrer) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(
+                loginService.login(request, headerReferrer, ReactiveRiskController.remoteAddress(httpRequest))));
+    }
+}
@@ -0,0 +1,132 @@
+package com.riskengine.reactive.controller;
+
+import com.riskengine.dto.CompactSignals;
+import com.riskengine.dto.CompactRiskResponse;
+import com.riskengine.dto.RiskResponse;
+import com.riskengine.dto.SignalRequest;
+import com.riskengine.service.CollectDedupService;
+import com.riskengine.service.RiskCollectMapper;
+import com.riskengine.service.RiskEvaluationService;
+import com.riskengine.service.SessionTokenService;
+import com.riskengine.util.PreferHeader;
+import com.riskengine.util.StageEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * WebFlux variant of {@code RiskController}. Token checks and collect deduplication run on the event
+ * loop. Mapping and evaluation run on the bounded elastic scheduler through the shared
+ * {@link RiskEvaluationService}, the same admission, stage graph and fail-open {@code RiskRecordStore}
+ * writes as the servlet stack. The event loop never waits on storage, but each in-flight evaluation
+ * still holds a worker thread.
+ */
+@RestController
+@RequestMapping("/risk")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveRiskController {
+
+    /** As in {@code RiskController}: one per worker thread, cleared before each use, not read by forks. */
+    private static final ThreadLocal<CompactSignals> SIGNALS = ThreadLocal.withInitial(CompactSignals::new);
+
+    private final RiskCollectMapper riskCollectMapper;
+    private final CollectDedupService collectDedupService;
+    private final RiskEvaluationService riskEvaluationService;
+    private final SessionTokenService sessionTokenService;
+
+    @PostMapping("/collect")
+    public Mono<ResponseEntity<?>> collect(@RequestBody Map<String, Object> request, ServerHttpRequest httpRequest,
+                                           @RequestHeader(value = "Referer", required = false) String headerReferrer,
+                                           @RequestHeader(value = PreferHeader.NAME, required = false) String prefer) {
+        SessionTokenService.Identity identity = sessionTokenService.authenticate(
+                request.remove("sessionToken"), request.get("sessionId"), request.get("userId"));
+        if (identity == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (identity.verified()) {
+            request.put("sessionId", identity.sessionId());
+            request.put("userId", identity.userId());
+        }
+        String dedupKey = collectDedupService.keyOf(request, headerReferrer);
+        RiskResponse previous = collectDedupService.lookup(dedupKey);
+        if (previous != null) {
+            return Mono.just(respond(previous, prefer));
+        }
+        String clientIp = remoteAddress(httpRequest);
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            CompactSignals signals = SIGNALS.get();
+            signals.clear();
+            StageEvent mapping = StageEvent.start("map");
+            boolean mapped = riskCollectMapper.read(request, signals);
+            mapping.end(mapped ? "OK" : "FAILED");
+            if (!mapped) {
+                return ResponseEntity.badRequest().build();
+            }
+            signals.setClientIp(clientIp);
+            applyHeaderReferrer(signals, headerReferrer);
+            RiskResponse response = riskEvaluationService.admitAndEvaluate(signals, request);
+            if (!Boolean.TRUE.equals(response.getDegraded())) {
+                collectDedupService.remember(dedupKey, response);
+            }
+            return respond(response, prefer);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/evaluate")
+    public Mono<ResponseEntity<?>> evaluate(@RequestBody SignalRequest request, ServerHttpRequest httpRequest,
+                                            @RequestHeader(value = "Referer", required = false) String headerReferrer,
+                                            @RequestHeader(value = PreferHeader.NAME, required = false) String prefer) {
+        SessionTokenService.Identity identity = sessionTokenService.authenticate(
+                request.getSessionToken(), request.getSessionId(), request.getUserId());
+        if (identity == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (identity.verified()) {
+            request.setSessionId(identity.sessionId());
+            request.setUserId(identity.userId());
+        }
+        String clientIp = remoteAddress(httpRequest);
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+            CompactSignals signals = SIGNALS.get().fill(request);
+            signals.setClientIp(clientIp);
+            applyHeaderReferrer(signals, headerReferrer);
+            return respond(riskEvaluationService.admitAndEvaluate(signals, null), prefer);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Client IP literal, honouring {@code server.forward-headers-strategy} like the servlet stack. */
+    static String remoteAddress(ServerHttpRequest httpRequest) {
+        InetSocketAddress remote = httpRequest.getRemoteAddress();
+        if (remote == null) return null;
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private static void applyHeaderReferrer(CompactSignals signals, String headerReferrer) {
+        if ((signals.getReferrerUrl() == null || signals.getReferrerUrl().isBlank())
+                && headerReferrer != null && !headerReferrer.isBlank()) {
+            signals.setReferrerUrl(headerReferrer);
+        }
+    }
+
+    private static ResponseEntity<?> respond(RiskResponse response, String prefer) {
+        if (PreferHeader.returnMinimal(prefer)) {
+            return ResponseEntity.ok()
+                    .header(PreferHeader.APPLIED, PreferHeader.RETURN_MINIMAL)
+                    .body(CompactRiskResponse.of(response));
+        }
+        return ResponseEntity.ok(response);
+    }
+}